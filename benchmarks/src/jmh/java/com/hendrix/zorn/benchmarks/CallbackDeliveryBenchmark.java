@@ -0,0 +1,78 @@
+package com.hendrix.zorn.benchmarks;
+
+import com.hendrix.zorn.dispatchers.CallbackDispatcher;
+import com.hendrix.zorn.workers.IWorker;
+import com.hendrix.zorn.workers.WorkerObserver;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * the latency from {@code notifyComplete()} until the observer is called,
+ * per {@link CallbackDispatcher}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CallbackDeliveryBenchmark {
+
+    @Param({Dispatchers.DIRECT, Dispatchers.EVENT_LOOP})
+    public String dispatcher;
+
+    private CallbackDispatcher  _dispatcher;
+    private NoopWorker          _worker;
+
+    private final Rendezvous    _rendezvous = new Rendezvous();
+
+    @Setup
+    public void setup() {
+        _dispatcher = Dispatchers.of(dispatcher);
+        _worker     = new NoopWorker("benchmark");
+
+        _worker.setCallbackDispatcher(_dispatcher);
+
+        // process once so the observer is attached, the work itself is not measured.
+        _rendezvous.arm(1);
+
+        _worker.process(new WorkerObserver() {
+            @Override
+            public void onWorkerComplete(IWorker worker) {
+                _rendezvous.signal();
+            }
+
+            @Override
+            public void onWorkerProgress(IWorker worker) {
+            }
+
+            @Override
+            public void onWorkerError(IWorker worker) {
+            }
+        });
+
+        _rendezvous.await();
+    }
+
+    @TearDown
+    public void tearDown() {
+        Dispatchers.dispose(_dispatcher);
+    }
+
+    @Benchmark
+    public void notifyComplete() {
+        _rendezvous.arm(1);
+
+        _worker.notifyComplete();
+
+        _rendezvous.await();
+    }
+
+}
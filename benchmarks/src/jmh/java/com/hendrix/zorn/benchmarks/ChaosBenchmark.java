@@ -0,0 +1,146 @@
+package com.hendrix.zorn.benchmarks;
+
+import com.hendrix.zorn.dispatchers.DirectCallbackDispatcher;
+import com.hendrix.zorn.managers.AbstractWorkerManager;
+import com.hendrix.zorn.managers.IWorkerManager;
+import com.hendrix.zorn.managers.PriorityWorkerManager;
+import com.hendrix.zorn.managers.RetentionPolicy;
+import com.hendrix.zorn.managers.WorkerManagerErrorInfo;
+import com.hendrix.zorn.managers.WorkerManagerObserver;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * a chaos case, random workers throw from {@code work()} under load. every worker must be
+ * notified as either complete or failed, and the manager must release the slot of every
+ * failed worker, otherwise the invocation fails on a timeout instead of hanging.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ChaosBenchmark {
+    static final int    WORKERS = 20000;
+    static final long   TIMEOUT = TimeUnit.SECONDS.toNanos(30);
+
+    @Param({"0.01", "0.1", "0.5"})
+    public double failureRate;
+
+    private PriorityWorkerManager   _manager;
+    private List<ChaosWorker>       _workers;
+    private int                     _expectedFailures;
+
+    private final AtomicInteger     _completed  = new AtomicInteger(0);
+    private final AtomicInteger     _failed     = new AtomicInteger(0);
+
+    /**
+     * a worker that might throw an exception, or an error, from it's {@code work()}
+     */
+    static final class ChaosWorker extends NoopWorker {
+        private final int _fault;
+
+        /**
+         * @param fault {@code 0} for none, {@code 1} for an exception, {@code 2} for an error
+         */
+        ChaosWorker(String id, int priorityKey, int fault) {
+            super(id, priorityKey);
+
+            _fault = fault;
+        }
+
+        @Override
+        public void work() {
+            if(_fault == 1)
+                throw new IllegalStateException("chaos " + getId());
+
+            if(_fault == 2)
+                throw new AssertionError("chaos " + getId());
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void setup() {
+        Random random       = new Random(WORKERS);
+
+        _manager            = new PriorityWorkerManager("chaos");
+        _workers            = new ArrayList<>(WORKERS);
+        _expectedFailures   = 0;
+
+        for (int ix = 0; ix < WORKERS; ix++) {
+            int fault = random.nextDouble() < failureRate ? 1 + random.nextInt(2) : 0;
+
+            if(fault != 0)
+                _expectedFailures += 1;
+
+            _workers.add(new ChaosWorker(String.valueOf(ix), ix & 7, fault));
+        }
+
+        _completed.set(0);
+        _failed.set(0);
+
+        _manager.getStatusInfo().flagTraceLog = false;
+        _manager.setFailurePolicy(AbstractWorkerManager.FAILURE_POLICY.CONTINUE);
+        _manager.setRetentionPolicy(RetentionPolicy.none());
+        _manager.setCallbackDispatcher(DirectCallbackDispatcher.INSTANCE);
+        _manager.setListener(new WorkerManagerObserver() {
+            @Override
+            public void onComplete(IWorkerManager wm) {
+            }
+
+            @Override
+            public void onProgress(String id) {
+                _completed.incrementAndGet();
+            }
+
+            @Override
+            public void onError(WorkerManagerErrorInfo err) {
+                if(err.getCause() == null)
+                    throw new IllegalStateException("the failure of worker " + err.getDataAux() + " was not captured");
+
+                _failed.incrementAndGet();
+            }
+        });
+
+        _manager.enqueueAll(_workers);
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+        _manager.stop();
+        _manager.dispose();
+    }
+
+    @Benchmark
+    public int runAll() {
+        long deadline = System.nanoTime() + TIMEOUT;
+
+        _manager.start();
+
+        while (_completed.get() + _failed.get() < WORKERS) {
+            if(System.nanoTime() - deadline > 0)
+                throw new IllegalStateException("the manager hangs: " + _manager + ", completed=" + _completed + ", failed=" + _failed);
+
+            Thread.yield();
+        }
+
+        if(_failed.get() != _expectedFailures)
+            throw new IllegalStateException("expected " + _expectedFailures + " failures, got " + _failed);
+
+        return _failed.get();
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.hendrix.zorn.benchmarks;
+
+import com.hendrix.zorn.dispatchers.CallbackDispatcher;
+import com.hendrix.zorn.dispatchers.DirectCallbackDispatcher;
+import com.hendrix.zorn.dispatchers.EventLoopCallbackDispatcher;
+import com.hendrix.zorn.interfaces.IDisposable;
+
+/**
+ * resolves the {@code dispatcher} benchmark parameter.
+ */
+final class Dispatchers {
+
+    static final String DIRECT      = "direct";
+    static final String EVENT_LOOP  = "event_loop";
+
+    private Dispatchers() {
+    }
+
+    static CallbackDispatcher of(String name) {
+        switch (name) {
+            case DIRECT:
+                return DirectCallbackDispatcher.INSTANCE;
+            case EVENT_LOOP:
+                return new EventLoopCallbackDispatcher("Zorn benchmark loop");
+            default:
+                throw new IllegalArgumentException("unknown dispatcher: " + name);
+        }
+    }
+
+    static void dispose(CallbackDispatcher dispatcher) {
+        if(dispatcher instanceof IDisposable)
+            ((IDisposable) dispatcher).dispose();
+    }
+
+}
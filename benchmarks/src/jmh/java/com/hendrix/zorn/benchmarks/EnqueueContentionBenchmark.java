@@ -0,0 +1,130 @@
+package com.hendrix.zorn.benchmarks;
+
+import com.hendrix.zorn.dispatchers.DirectCallbackDispatcher;
+import com.hendrix.zorn.managers.IWorkerManager;
+import com.hendrix.zorn.managers.PriorityWorkerManager;
+import com.hendrix.zorn.managers.RetentionPolicy;
+import com.hendrix.zorn.managers.WorkerManagerErrorInfo;
+import com.hendrix.zorn.managers.WorkerManagerObserver;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@code PriorityWorkerManager.enqueue} throughput under 1, 4 and 16 producers, that share a
+ * running manager. every producer enqueues a batch of it's own workers and waits until the manager
+ * reports their progress, so the pending queue does not grow for the whole measurement. the pending
+ * queue itself is lock free (see {@link RunQueueBenchmark}), what is measured here is the rest of
+ * {@code enqueue}, that counts the worker and dispatches it under the monitor of the manager.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EnqueueContentionBenchmark {
+    static final int BATCH      = 64;
+    static final int PRODUCERS  = 16;
+
+    private PriorityWorkerManager   _manager;
+
+    private final Rendezvous[]      _rendezvous = new Rendezvous[PRODUCERS];
+    private final AtomicInteger     _producers  = new AtomicInteger(0);
+
+    @State(Scope.Thread)
+    public static class Producer {
+        private NoopWorker[]    _workers;
+        private Rendezvous      _rendezvous;
+
+        @Setup
+        public void setup(EnqueueContentionBenchmark benchmark) {
+            int index   = benchmark._producers.getAndIncrement();
+
+            _workers    = new NoopWorker[BATCH];
+            _rendezvous = benchmark._rendezvous[index];
+
+            // the id of a worker is the index of it's producer, so it's progress signals that producer
+            for (int ix = 0; ix < BATCH; ix++) {
+                _workers[ix] = new NoopWorker(String.valueOf(index), ix % 8);
+            }
+        }
+    }
+
+    @Setup
+    public void setup() {
+        for (int ix = 0; ix < PRODUCERS; ix++) {
+            _rendezvous[ix] = new Rendezvous();
+        }
+
+        _producers.set(0);
+
+        _manager    = new PriorityWorkerManager("benchmark");
+
+        _manager.getStatusInfo().flagTraceLog = false;
+        _manager.setRetentionPolicy(RetentionPolicy.none());
+        _manager.setCallbackDispatcher(DirectCallbackDispatcher.INSTANCE);
+        _manager.setListener(new WorkerManagerObserver() {
+            @Override
+            public void onComplete(IWorkerManager wm) {
+            }
+
+            @Override
+            public void onProgress(String id) {
+                _rendezvous[Integer.parseInt(id)].signal();
+            }
+
+            @Override
+            public void onError(WorkerManagerErrorInfo err) {
+            }
+        });
+
+        _manager.start();
+    }
+
+    @TearDown
+    public void tearDown() {
+        _manager.stop();
+        _manager.dispose();
+    }
+
+    @Benchmark
+    @Threads(1)
+    @OperationsPerInvocation(BATCH)
+    public void enqueue_1(Producer producer) {
+        enqueue(producer);
+    }
+
+    @Benchmark
+    @Threads(4)
+    @OperationsPerInvocation(BATCH)
+    public void enqueue_4(Producer producer) {
+        enqueue(producer);
+    }
+
+    @Benchmark
+    @Threads(16)
+    @OperationsPerInvocation(BATCH)
+    public void enqueue_16(Producer producer) {
+        enqueue(producer);
+    }
+
+    private void enqueue(Producer producer) {
+        producer._rendezvous.arm(BATCH);
+
+        for (NoopWorker worker : producer._workers) {
+            _manager.enqueue(worker);
+        }
+
+        producer._rendezvous.await();
+    }
+
+}
@@ -0,0 +1,116 @@
+package com.hendrix.zorn.benchmarks;
+
+import com.hendrix.zorn.interfaces.IPersistable;
+import com.hendrix.zorn.managers.WorkerJournal;
+import com.hendrix.zorn.workers.IWorker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * the time to replay a {@link WorkerJournal} of {@code 1M} enqueued workers after a crash, of which
+ * a share has completed. the journal is not compacted, so every record is scanned.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JournalRecoveryBenchmark {
+    static final int ENTRIES = 1000000;
+
+    @Param({"0.0", "0.5", "0.99"})
+    public double completedRatio;
+
+    private File _file;
+
+    /**
+     * a journaled worker with a small payload
+     */
+    static final class PersistentWorker extends NoopWorker implements IPersistable {
+        private final long _payload;
+
+        PersistentWorker(String id, int priorityKey, long payload) {
+            super(id, priorityKey);
+
+            _payload = payload;
+        }
+
+        @Override
+        public String getPersistentType() {
+            return "noop";
+        }
+
+        @Override
+        public void writeTo(DataOutput out) throws IOException {
+            out.writeUTF(getId());
+            out.writeInt(getPriority());
+            out.writeLong(_payload);
+        }
+    }
+
+    static final WorkerJournal.Decoder DECODER = new WorkerJournal.Decoder() {
+        @Override
+        public IWorker decode(String type, DataInput in) throws IOException {
+            return new PersistentWorker(in.readUTF(), in.readInt(), in.readLong());
+        }
+    };
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        _file                   = File.createTempFile("zorn", ".journal");
+
+        _file.delete();
+
+        WorkerJournal journal   = WorkerJournal.open(_file, DECODER);
+        ArrayList<IWorker> all  = new ArrayList<>(ENTRIES);
+
+        journal.setCompactionThreshold(Long.MAX_VALUE);
+
+        for (int ix = 0; ix < ENTRIES; ix++) {
+            IWorker worker = new PersistentWorker("worker-" + ix, ix & 7, ix);
+
+            journal.append(worker);
+            all.add(worker);
+        }
+
+        // every step'th worker stays unfinished, the ratio is one of 0, 1/2, 99/100
+        int step = completedRatio == 0 ? 0 : (int) Math.round(1 / (1 - completedRatio));
+
+        for (int ix = 0; step != 0 && ix < ENTRIES; ix++) {
+            if(ix % step != 0)
+                journal.complete(all.get(ix));
+        }
+
+        journal.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        _file.delete();
+    }
+
+    @Benchmark
+    public int recover() throws IOException {
+        WorkerJournal journal = WorkerJournal.open(_file, DECODER);
+        int size              = journal.getRecoveredWorkers().size();
+
+        journal.close();
+
+        return size;
+    }
+
+}
@@ -0,0 +1,37 @@
+package com.hendrix.zorn.benchmarks;
+
+import com.hendrix.zorn.Zorn;
+import com.hendrix.zorn.dispatchers.DirectCallbackDispatcher;
+import com.hendrix.zorn.workers.AbstractWorker;
+
+/**
+ * a worker that does nothing, so only the dispatch cost is measured.
+ */
+public class NoopWorker extends AbstractWorker {
+
+    static {
+        // there is no Looper on a plain JVM, benchmarks pick their dispatcher explicitly.
+        Zorn.defaultCallbackDispatcher = DirectCallbackDispatcher.INSTANCE;
+    }
+
+    public NoopWorker(String id, int priorityKey) {
+        super(id, priorityKey);
+    }
+
+    public NoopWorker(String id) {
+        this(id, 0);
+    }
+
+    @Override
+    public void work() {
+    }
+
+    @Override
+    protected void onProgress() {
+    }
+
+    @Override
+    protected void onComplete() {
+    }
+
+}
@@ -0,0 +1,120 @@
+package com.hendrix.zorn.benchmarks;
+
+import com.hendrix.zorn.dispatchers.CallbackDispatcher;
+import com.hendrix.zorn.managers.IWorkerManager;
+import com.hendrix.zorn.managers.PriorityWorkerManager;
+import com.hendrix.zorn.managers.WorkerManagerErrorInfo;
+import com.hendrix.zorn.managers.WorkerManagerObserver;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code PriorityWorkerManager.enqueue} until the manager reports the worker's
+ * progress, one at a time and for a batch of workers, with and without metrics.
+ * a batch is enqueued either worker by worker, or with a single {@code enqueueAll}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PriorityManagerBenchmark {
+    static final int BATCH = 1000;
+
+    @Param({Dispatchers.DIRECT, Dispatchers.EVENT_LOOP})
+    public String dispatcher;
+
+    @Param({"false", "true"})
+    public boolean metrics;
+
+    private PriorityWorkerManager   _manager;
+    private CallbackDispatcher      _dispatcher;
+    private NoopWorker[]            _workers;
+    private List<NoopWorker>        _batch;
+
+    private final Rendezvous        _rendezvous = new Rendezvous();
+
+    @Setup
+    public void setup() {
+        _dispatcher = Dispatchers.of(dispatcher);
+        _manager    = new PriorityWorkerManager("benchmark");
+        _workers    = new NoopWorker[BATCH];
+
+        for (int ix = 0; ix < BATCH; ix++) {
+            _workers[ix] = new NoopWorker(String.valueOf(ix), ix % 8);
+        }
+
+        _batch      = Arrays.asList(_workers);
+
+        _manager.getStatusInfo().flagTraceLog = false;
+        _manager.setCallbackDispatcher(_dispatcher);
+        _manager.setMetricsEnabled(metrics);
+        _manager.setListener(new WorkerManagerObserver() {
+            @Override
+            public void onComplete(IWorkerManager wm) {
+            }
+
+            @Override
+            public void onProgress(String id) {
+                _rendezvous.signal();
+            }
+
+            @Override
+            public void onError(WorkerManagerErrorInfo err) {
+            }
+        });
+
+        _manager.start();
+    }
+
+    @TearDown
+    public void tearDown() {
+        _manager.stop();
+        _manager.dispose();
+
+        Dispatchers.dispose(_dispatcher);
+    }
+
+    @Benchmark
+    public void enqueueRoundTrip() {
+        _rendezvous.arm(1);
+
+        _manager.enqueue(_workers[0]);
+
+        _rendezvous.await();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void enqueueBatch() {
+        _rendezvous.arm(BATCH);
+
+        for (NoopWorker worker : _workers) {
+            _manager.enqueue(worker);
+        }
+
+        _rendezvous.await();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void enqueueAllBatch() {
+        _rendezvous.arm(BATCH);
+
+        _manager.enqueueAll(_batch);
+
+        _rendezvous.await();
+    }
+
+}
@@ -0,0 +1,29 @@
+package com.hendrix.zorn.benchmarks;
+
+/**
+ * a reusable, allocation free signal between the benchmark thread and the thread
+ * that delivers a callback. waits by spinning, so wake up latency is not measured.
+ */
+public final class Rendezvous {
+    private volatile int _count = 0;
+
+    /**
+     * expect {@code count} signals
+     */
+    public void arm(int count) {
+        _count = count;
+    }
+
+    public void signal() {
+        synchronized (this) {
+            _count -= 1;
+        }
+    }
+
+    public void await() {
+        while (_count > 0) {
+            Thread.yield();
+        }
+    }
+
+}
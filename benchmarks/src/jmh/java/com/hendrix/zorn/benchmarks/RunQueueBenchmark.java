@@ -0,0 +1,135 @@
+package com.hendrix.zorn.benchmarks;
+
+import com.hendrix.zorn.interfaces.IPriority;
+import com.hendrix.zorn.managers.ConcurrentPriorityRunQueue;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * enqueue throughput of the pending queue under 1, 4 and 16 producers,
+ * {@link ConcurrentPriorityRunQueue} against a synchronized {@link PriorityQueue}.
+ * every operation enqueues one element and dequeues one, so the queue keeps
+ * it's pre filled size instead of growing for the whole measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RunQueueBenchmark {
+    static final int PREFILL = 1024;
+
+    private ConcurrentPriorityRunQueue<Element> _runQueue;
+    private PriorityQueue<Element>              _lockedQueue;
+
+    @State(Scope.Thread)
+    public static class Producer {
+        private final Element[] _elements = new Element[256];
+        private int _next = 0;
+
+        @Setup
+        public void setup() {
+            for (int ix = 0; ix < _elements.length; ix++) {
+                _elements[ix] = new Element(ix % 16);
+            }
+        }
+
+        Element next() {
+            return _elements[_next++ & (_elements.length - 1)];
+        }
+    }
+
+    @Setup
+    public void setup() {
+        _runQueue       = new ConcurrentPriorityRunQueue<>();
+        _lockedQueue    = new PriorityQueue<>(PREFILL, new Comparator<Element>() {
+            @Override
+            public int compare(Element x, Element y) {
+                return y.getPriority() - x.getPriority();
+            }
+        });
+
+        for (int ix = 0; ix < PREFILL; ix++) {
+            _runQueue.offer(new Element(ix % 16));
+            _lockedQueue.add(new Element(ix % 16));
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Element runQueue_1(Producer producer) {
+        return runQueue(producer);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Element runQueue_4(Producer producer) {
+        return runQueue(producer);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Element runQueue_16(Producer producer) {
+        return runQueue(producer);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Element lockedQueue_1(Producer producer) {
+        return lockedQueue(producer);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Element lockedQueue_4(Producer producer) {
+        return lockedQueue(producer);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Element lockedQueue_16(Producer producer) {
+        return lockedQueue(producer);
+    }
+
+    private Element runQueue(Producer producer) {
+        _runQueue.offer(producer.next());
+
+        return _runQueue.poll();
+    }
+
+    private Element lockedQueue(Producer producer) {
+        synchronized (_lockedQueue) {
+            _lockedQueue.add(producer.next());
+
+            return _lockedQueue.poll();
+        }
+    }
+
+    public static final class Element implements IPriority {
+        private int _priority;
+
+        Element(int priority) {
+            _priority = priority;
+        }
+
+        @Override
+        public void setPriority(int key) {
+            _priority = key;
+        }
+
+        @Override
+        public int getPriority() {
+            return _priority;
+        }
+    }
+
+}
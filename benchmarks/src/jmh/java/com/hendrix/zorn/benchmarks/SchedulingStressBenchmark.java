@@ -0,0 +1,136 @@
+package com.hendrix.zorn.benchmarks;
+
+import com.hendrix.zorn.dispatchers.DirectCallbackDispatcher;
+import com.hendrix.zorn.managers.IWorkerManager;
+import com.hendrix.zorn.managers.PriorityWorkerManager;
+import com.hendrix.zorn.managers.RetentionPolicy;
+import com.hendrix.zorn.managers.WorkerManagerErrorInfo;
+import com.hendrix.zorn.managers.WorkerManagerObserver;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * a stress case for the scheduling pass, {@code 100k} workers are admitted at once by a manager
+ * whose concurrency cap does not bound them. with the {@code inline} executor every worker
+ * completes within {@code process(..)}, on the stack of the scheduling pass itself, so a
+ * scheduler whose stack grows per admitted worker fails with a {@code StackOverflowError}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SchedulingStressBenchmark {
+    static final int WORKERS = 100000;
+
+    @Param({"inline", "pool"})
+    public String executor;
+
+    private PriorityWorkerManager   _manager;
+    private List<NoopWorker>        _workers;
+
+    private final Rendezvous        _rendezvous = new Rendezvous();
+
+    /**
+     * runs every task on the calling thread
+     */
+    static final class InlineExecutorService extends AbstractExecutorService {
+        private volatile boolean _shutdown = false;
+
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+
+        @Override
+        public void shutdown() {
+            _shutdown = true;
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            _shutdown = true;
+
+            return Collections.emptyList();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return _shutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return _shutdown;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void setup() {
+        _manager    = new PriorityWorkerManager("stress");
+        _workers    = new ArrayList<>(WORKERS);
+
+        for (int ix = 0; ix < WORKERS; ix++) {
+            _workers.add(new NoopWorker(String.valueOf(ix), ix & 7));
+        }
+
+        ExecutorService es = "inline".equals(executor) ? new InlineExecutorService() : null;
+
+        _manager.getStatusInfo().flagTraceLog = false;
+        _manager.setExecutorService(es);
+        _manager.setMaxConcurrency(WORKERS);
+        _manager.setRetentionPolicy(RetentionPolicy.none());
+        _manager.setCallbackDispatcher(DirectCallbackDispatcher.INSTANCE);
+        _manager.setListener(new WorkerManagerObserver() {
+            @Override
+            public void onComplete(IWorkerManager wm) {
+            }
+
+            @Override
+            public void onProgress(String id) {
+                _rendezvous.signal();
+            }
+
+            @Override
+            public void onError(WorkerManagerErrorInfo err) {
+            }
+        });
+
+        _manager.enqueueAll(_workers);
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+        _manager.stop();
+        _manager.dispose();
+    }
+
+    @Benchmark
+    public void admitAll() {
+        _rendezvous.arm(WORKERS);
+
+        _manager.start();
+
+        _rendezvous.await();
+    }
+
+}
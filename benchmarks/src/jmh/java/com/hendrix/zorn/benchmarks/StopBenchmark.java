@@ -0,0 +1,115 @@
+package com.hendrix.zorn.benchmarks;
+
+import com.hendrix.zorn.managers.PriorityWorkerManager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * the time from {@code stop()} of a manager whose threads are all busy, until every
+ * stopped worker has released it's thread. blocking workers are interrupted, polling
+ * workers observe their cancellation token.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StopBenchmark {
+    static final String BLOCKING    = "blocking";
+    static final String POLLING     = "polling";
+
+    @Param({"4", "32"})
+    public int threads;
+
+    @Param({BLOCKING, POLLING})
+    public String kind;
+
+    private ExecutorService         _es;
+    private PriorityWorkerManager   _manager;
+    private CountDownLatch          _started;
+
+    @Setup(Level.Trial)
+    public void setupExecutor() {
+        _es = Executors.newFixedThreadPool(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownExecutor() {
+        _es.shutdownNow();
+    }
+
+    @Setup(Level.Invocation)
+    public void setupManager() throws InterruptedException {
+        _started = new CountDownLatch(threads);
+        _manager = new PriorityWorkerManager("benchmark");
+
+        _manager.getStatusInfo().flagTraceLog = false;
+        _manager.setExecutorService(_es);
+        _manager.setMaxConcurrency(threads);
+
+        for (int ix = 0; ix < threads * 2; ix++) {
+            _manager.enqueue(BLOCKING.equals(kind) ? new BlockingWorker() : new PollingWorker());
+        }
+
+        _manager.start();
+
+        _started.await();
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDownManager() {
+        _manager.dispose();
+    }
+
+    @Benchmark
+    public boolean stopAndRelease() throws InterruptedException {
+        _manager.stop();
+
+        return _manager.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private class BlockingWorker extends NoopWorker {
+        BlockingWorker() {
+            super("blocking");
+        }
+
+        @Override
+        public void work() {
+            _started.countDown();
+
+            try {
+                Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+            } catch (InterruptedException exc) {
+                // stopped
+            }
+        }
+    }
+
+    private class PollingWorker extends NoopWorker {
+        PollingWorker() {
+            super("polling");
+        }
+
+        @Override
+        public void work() {
+            _started.countDown();
+
+            while (!isCancelled()) {
+                Thread.yield();
+            }
+        }
+    }
+
+}
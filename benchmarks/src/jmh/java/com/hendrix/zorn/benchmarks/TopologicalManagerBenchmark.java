@@ -0,0 +1,115 @@
+package com.hendrix.zorn.benchmarks;
+
+import com.hendrix.zorn.dispatchers.DirectCallbackDispatcher;
+import com.hendrix.zorn.managers.IWorkerManager;
+import com.hendrix.zorn.managers.TopologicalWorkerManager;
+import com.hendrix.zorn.managers.WorkerManagerErrorInfo;
+import com.hendrix.zorn.managers.WorkerManagerObserver;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * build and run a {@link TopologicalWorkerManager} over a random DAG, where every
+ * worker depends on up to two earlier workers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TopologicalManagerBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int nodes;
+
+    @Param({"1", "8"})
+    public int concurrency;
+
+    private int[]           _edgesFrom;
+    private int[]           _edgesTo;
+    private NoopWorker[]    _workers;
+
+    private final Rendezvous _rendezvous = new Rendezvous();
+
+    private final WorkerManagerObserver _listener = new WorkerManagerObserver() {
+        @Override
+        public void onComplete(IWorkerManager wm) {
+            _rendezvous.signal();
+        }
+
+        @Override
+        public void onProgress(String id) {
+        }
+
+        @Override
+        public void onError(WorkerManagerErrorInfo err) {
+        }
+    };
+
+    @Setup(Level.Trial)
+    public void setupGraph() {
+        Random random   = new Random(nodes);
+
+        _edgesFrom      = new int[2 * nodes];
+        _edgesTo        = new int[2 * nodes];
+
+        int count       = 0;
+
+        for (int ix = 1; ix < nodes; ix++) {
+            _edgesFrom[count]   = random.nextInt(ix);
+            _edgesTo[count++]   = ix;
+
+            int other           = random.nextInt(ix);
+
+            if(other != _edgesFrom[count - 1]) {
+                _edgesFrom[count]   = other;
+                _edgesTo[count++]   = ix;
+            }
+        }
+
+        _edgesFrom[count]   = -1;
+    }
+
+    @Setup(Level.Invocation)
+    public void setupWorkers() {
+        _workers = new NoopWorker[nodes];
+
+        for (int ix = 0; ix < nodes; ix++) {
+            _workers[ix] = new NoopWorker(String.valueOf(ix));
+        }
+    }
+
+    @Benchmark
+    public void buildAndRun() {
+        TopologicalWorkerManager.Builder builder = new TopologicalWorkerManager.Builder().id("benchmark")
+                                                                                        .listener(_listener)
+                                                                                        .maxConcurrency(concurrency);
+
+        for (int ix = 0; _edgesFrom[ix] != -1; ix++) {
+            builder.before(_workers[_edgesFrom[ix]], _workers[_edgesTo[ix]]);
+        }
+
+        TopologicalWorkerManager manager = builder.build();
+
+        manager.getStatusInfo().flagTraceLog = false;
+        manager.setCallbackDispatcher(DirectCallbackDispatcher.INSTANCE);
+
+        _rendezvous.arm(1);
+
+        manager.start();
+
+        _rendezvous.await();
+
+        manager.dispose();
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.hendrix.zorn.benchmarks;
+
+import com.hendrix.zorn.dispatchers.CallbackDispatcher;
+import com.hendrix.zorn.workers.IWorker;
+import com.hendrix.zorn.workers.WorkerObserver;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * the round trip of a single {@code AbstractWorker.process} until it's completion
+ * callback, against the same round trip of a plain {@link Runnable} on a raw
+ * {@link ThreadPoolExecutor}. the difference is what Zorn costs per worker.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WorkerProcessBenchmark {
+
+    @Param({Dispatchers.DIRECT, Dispatchers.EVENT_LOOP})
+    public String dispatcher;
+
+    private ThreadPoolExecutor  _es;
+    private CallbackDispatcher  _dispatcher;
+    private NoopWorker          _worker;
+    private WorkerObserver      _observer;
+    private Runnable            _runnable;
+
+    private final Rendezvous    _rendezvous = new Rendezvous();
+
+    @Setup
+    public void setup() {
+        _es         = new ThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+        _dispatcher = Dispatchers.of(dispatcher);
+        _worker     = new NoopWorker("benchmark");
+
+        _worker.setCallbackDispatcher(_dispatcher);
+
+        _observer   = new WorkerObserver() {
+            @Override
+            public void onWorkerComplete(IWorker worker) {
+                _rendezvous.signal();
+            }
+
+            @Override
+            public void onWorkerProgress(IWorker worker) {
+            }
+
+            @Override
+            public void onWorkerError(IWorker worker) {
+            }
+        };
+
+        _runnable   = new Runnable() {
+            @Override
+            public void run() {
+                _rendezvous.signal();
+            }
+        };
+    }
+
+    @TearDown
+    public void tearDown() {
+        _es.shutdownNow();
+
+        Dispatchers.dispose(_dispatcher);
+    }
+
+    @Benchmark
+    public void rawExecutor() {
+        _rendezvous.arm(1);
+
+        _es.execute(_runnable);
+
+        _rendezvous.await();
+    }
+
+    @Benchmark
+    public void process() {
+        _rendezvous.arm(1);
+
+        _worker.process(_observer, _es);
+
+        _rendezvous.await();
+    }
+
+}
@@ -1,8 +1,15 @@
 package com.hendrix.zorn;
 
+import android.annotation.TargetApi;
+
+import com.hendrix.zorn.dispatchers.CallbackDispatcher;
 import com.hendrix.zorn.managers.PriorityWorkerManager;
+import com.hendrix.zorn.managers.TimerWheel;
 import com.hendrix.zorn.managers.TopologicalWorkerManager;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -17,7 +24,33 @@ import java.util.concurrent.atomic.AtomicInteger;
 @SuppressWarnings("unused")
 public class Zorn {
 
-    static public ThreadPoolExecutor defaultExecutorService;
+    /**
+     * the execution engine shared by every worker and worker manager that was not given
+     * an {@code ExecutorService} of it's own. it is bounded to {@code availableProcessors() + 1}
+     * threads, that time out when idle. worker managers bound their own share of it with their
+     * concurrency, so many managers do not multiply the number of threads.
+     * <p/>
+     * on API 21 and above, it can be replaced by a work stealing engine:
+     * <pre>
+     *     Zorn.defaultExecutorService = Zorn.newWorkStealingExecutor(n);
+     * </pre>
+     */
+    static public volatile ExecutorService defaultExecutorService;
+
+    /**
+     * the {@link CallbackDispatcher} given to new workers. when {@code null}, every worker
+     * delivers it's callbacks on the {@code Looper} of the thread that constructed it, the
+     * workers of the main thread share one dispatcher.
+     * set it to {@link com.hendrix.zorn.dispatchers.DirectCallbackDispatcher#INSTANCE} to
+     * use Zorn on plain JVM threads.
+     */
+    static public volatile CallbackDispatcher defaultCallbackDispatcher = null;
+
+    /**
+     * the {@link TimerWheel} that schedules the retries of failed workers. it's thread is
+     * started by the first retry.
+     */
+    static public volatile TimerWheel defaultTimerWheel = new TimerWheel();
 
     static {
         setupExecutor();
@@ -47,7 +80,35 @@ public class Zorn {
     }
 
     /**
-     * setup the default thread executor
+     * get a work stealing {@code ExecutorService} (a {@link ForkJoinPool} in FIFO mode),
+     * suitable as the {@link #defaultExecutorService} or for a single worker manager.
+     *
+     * @param parallelism the number of threads
+     *
+     * @return a work stealing {@link ExecutorService}
+     */
+    @TargetApi(21)
+    static public ExecutorService newWorkStealingExecutor(int parallelism)
+    {
+        ForkJoinPool.ForkJoinWorkerThreadFactory factory = new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+            private final AtomicInteger mCount  = new AtomicInteger(1);
+
+            @Override
+            public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+                ForkJoinWorkerThread thread     = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+
+                thread.setName("Zorn stealing worker #" + mCount.getAndIncrement());
+
+                return thread;
+            }
+        };
+
+        return new ForkJoinPool(parallelism, factory, null, true);
+    }
+
+    /**
+     * setup the default thread executor. the core size equals the maximal size, since
+     * a {@link ThreadPoolExecutor} over an unbounded queue never grows past it's core.
      */
     static private void setupExecutor()
     {
@@ -62,7 +123,11 @@ public class Zorn {
             }
         };
 
-        defaultExecutorService                  = new ThreadPoolExecutor(count_cpu + 1, count_cpu*2 + 1, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), pmThreadFactory);
+        ThreadPoolExecutor executor             = new ThreadPoolExecutor(count_cpu + 1, count_cpu + 1, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), pmThreadFactory);
+
+        executor.allowCoreThreadTimeOut(true);
+
+        defaultExecutorService                  = executor;
     }
 
 }
@@ -0,0 +1,24 @@
+package com.hendrix.zorn.dispatchers;
+
+/**
+ * delivers the callbacks {progress, complete, error} of an {@link com.hendrix.zorn.workers.IWorker}
+ * from the thread that did the work into the thread that should observe it.
+ *
+ * <ul>
+ *     <li/>{@link HandlerCallbackDispatcher} - delivers on the {@code Looper} of the thread that created it (default).
+ *     <li/>{@link DirectCallbackDispatcher} - delivers on the thread that finished the work.
+ *     <li/>{@link EventLoopCallbackDispatcher} - delivers on a single dedicated thread.
+ * </ul>
+ *
+ * @author Tomer Shalev
+ */
+public interface CallbackDispatcher {
+
+    /**
+     * deliver a callback
+     *
+     * @param callback the callback to run on the thread of the dispatcher
+     */
+    void dispatch(Runnable callback);
+
+}
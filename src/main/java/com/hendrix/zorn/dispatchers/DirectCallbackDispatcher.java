@@ -0,0 +1,22 @@
+package com.hendrix.zorn.dispatchers;
+
+/**
+ * a {@link CallbackDispatcher} that runs callbacks immediately on the thread that
+ * delivers them, usually the worker's thread. no thread hop at all, therefore observers
+ * must be thread safe.
+ *
+ * @author Tomer Shalev
+ */
+public final class DirectCallbackDispatcher implements CallbackDispatcher {
+
+    static public final DirectCallbackDispatcher INSTANCE = new DirectCallbackDispatcher();
+
+    private DirectCallbackDispatcher() {
+    }
+
+    @Override
+    public void dispatch(Runnable callback) {
+        callback.run();
+    }
+
+}
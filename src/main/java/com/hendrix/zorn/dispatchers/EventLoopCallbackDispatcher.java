@@ -0,0 +1,52 @@
+package com.hendrix.zorn.dispatchers;
+
+import com.hendrix.zorn.interfaces.IDisposable;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * a {@link CallbackDispatcher} that serializes callbacks on a single dedicated thread,
+ * a plain JVM replacement for a {@code Looper} thread. observers are never called concurrently.
+ *
+ * @author Tomer Shalev
+ */
+@SuppressWarnings("UnusedDeclaration")
+public class EventLoopCallbackDispatcher implements CallbackDispatcher, IDisposable {
+    private ExecutorService _loop = null;
+
+    /**
+     * @param name the name of the event loop thread
+     */
+    public EventLoopCallbackDispatcher(final String name) {
+        _loop = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @SuppressWarnings("NullableProblems")
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, name);
+
+                thread.setDaemon(true);
+
+                return thread;
+            }
+        });
+    }
+
+    public EventLoopCallbackDispatcher() {
+        this("Zorn callback loop");
+    }
+
+    @Override
+    public void dispatch(Runnable callback) {
+        _loop.execute(callback);
+    }
+
+    /**
+     * shutdown the event loop, pending callbacks are still delivered.
+     */
+    @Override
+    public void dispose() {
+        _loop.shutdown();
+    }
+
+}
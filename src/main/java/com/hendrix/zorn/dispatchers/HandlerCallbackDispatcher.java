@@ -0,0 +1,73 @@
+package com.hendrix.zorn.dispatchers;
+
+import android.os.Handler;
+import android.os.Looper;
+
+/**
+ * a {@link CallbackDispatcher} that delivers callbacks through an Android {@link Handler}.
+ * by default the {@code Handler} is bound to the {@link Looper} of the constructing thread,
+ * so callbacks arrive on the thread that started the worker. the workers of the main thread share
+ * a single dispatcher, see {@link #forCallingThread()}.
+ *
+ * @author Tomer Shalev
+ */
+@SuppressWarnings("UnusedDeclaration")
+public class HandlerCallbackDispatcher implements CallbackDispatcher {
+    private final Handler _handler;
+
+    /**
+     * the dispatcher of the main {@link Looper}, created by the first worker of the main thread
+     */
+    static private final class MainLooper {
+        static final HandlerCallbackDispatcher INSTANCE = new HandlerCallbackDispatcher(Looper.getMainLooper());
+    }
+
+    /**
+     * the dispatcher of a new worker, that has no other. the main thread shares one dispatcher, so a
+     * worker does not allocate a {@link Handler}, another thread with a {@code Looper} gets a new one.
+     *
+     * @return a dispatcher bound to the {@link Looper} of the calling thread
+     *
+     * @throws RuntimeException if the calling thread has no {@code Looper}
+     */
+    static public HandlerCallbackDispatcher forCallingThread() {
+        Looper looper = Looper.myLooper();
+
+        if(looper != null && looper == Looper.getMainLooper())
+            return MainLooper.INSTANCE;
+
+        return new HandlerCallbackDispatcher();
+    }
+
+    /**
+     * bind to the {@link Looper} of the calling thread.
+     *
+     * @throws RuntimeException if the calling thread has no {@code Looper}
+     */
+    public HandlerCallbackDispatcher() {
+        _handler = new Handler();
+    }
+
+    /**
+     * @param looper the {@link Looper} to deliver callbacks on
+     */
+    public HandlerCallbackDispatcher(Looper looper) {
+        _handler = new Handler(looper);
+    }
+
+    /**
+     * @param handler the {@link Handler} to deliver callbacks with
+     */
+    public HandlerCallbackDispatcher(Handler handler) {
+        if(handler == null)
+            throw new NullPointerException("handler is null!!");
+
+        _handler = handler;
+    }
+
+    @Override
+    public void dispatch(Runnable callback) {
+        _handler.post(callback);
+    }
+
+}
@@ -0,0 +1,12 @@
+package com.hendrix.zorn.interfaces;
+
+/**
+ * @author Tomer Shalev
+ */
+public interface IDeadline {
+
+    /**
+     * @return the {@code System.nanoTime()} after which the work is useless
+     */
+    long getDeadline();
+}
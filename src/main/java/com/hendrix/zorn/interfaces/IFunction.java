@@ -0,0 +1,16 @@
+package com.hendrix.zorn.interfaces;
+
+/**
+ * @author Tomer Shalev
+ */
+public interface IFunction<A, R> {
+
+    /**
+     * apply the function
+     *
+     * @param arg the argument
+     *
+     * @return the result
+     */
+    R apply(A arg);
+}
@@ -0,0 +1,12 @@
+package com.hendrix.zorn.interfaces;
+
+/**
+ * @author Tomer Shalev
+ */
+public interface IGroup {
+
+    /**
+     * @return the group of the work, for example the backend it targets, or {@code null} for none
+     */
+    String getGroup();
+}
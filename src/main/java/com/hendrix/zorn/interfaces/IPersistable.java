@@ -0,0 +1,26 @@
+package com.hendrix.zorn.interfaces;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * a work that can be written into a journal, and read back after the process has restarted.
+ *
+ * @author Tomer Shalev
+ */
+public interface IPersistable {
+
+    /**
+     * @return the type of the work, handed back to the decoder that reads it
+     */
+    String getPersistentType();
+
+    /**
+     * write everything that is needed to construct the work again, including it's id and priority
+     *
+     * @param out the output
+     *
+     * @throws IOException if the output has failed
+     */
+    void writeTo(DataOutput out) throws IOException;
+}
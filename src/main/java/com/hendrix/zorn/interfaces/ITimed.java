@@ -0,0 +1,17 @@
+package com.hendrix.zorn.interfaces;
+
+/**
+ * @author Tomer Shalev
+ */
+public interface ITimed {
+
+    /**
+     * @return the {@code System.nanoTime()} at which the last work has started, {@code 0} if it has not
+     */
+    long getWorkStartTime();
+
+    /**
+     * @return the {@code System.nanoTime()} at which the last work has ended, {@code 0} if it has not
+     */
+    long getWorkEndTime();
+}
@@ -3,6 +3,7 @@ package com.hendrix.zorn.interfaces;
 import com.hendrix.zorn.workers.WorkerObserver;
 
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Tomer Shalev
@@ -11,10 +12,23 @@ import java.util.concurrent.ExecutorService;
 public interface IWorkable extends IWork {
 
     /**
-     * stop processing the item
+     * stop processing the item. cancels the item, interrupts it's thread if it is
+     * running, and suppresses it's completion.
      */
     void stop();
 
+    /**
+     * wait until the item is no longer running on a thread, usually after {@link #stop()}.
+     *
+     * @param timeout   the maximal time to wait
+     * @param unit      the unit of {@code timeout}
+     *
+     * @return {@code true} if the item is not running, {@code false} if the timeout elapsed
+     *
+     * @throws InterruptedException if the waiting thread was interrupted
+     */
+    boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException;
+
     /**
      * process the item
      *
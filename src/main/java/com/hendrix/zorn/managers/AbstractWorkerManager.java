@@ -1,16 +1,22 @@
 package com.hendrix.zorn.managers;
 
+import com.hendrix.zorn.Zorn;
+import com.hendrix.zorn.dispatchers.CallbackDispatcher;
+import com.hendrix.zorn.trace.Trace;
+import com.hendrix.zorn.trace.TraceLevel;
+import com.hendrix.zorn.workers.AbstractResultWorker;
+import com.hendrix.zorn.workers.IRetryable;
 import com.hendrix.zorn.workers.IWorker;
-import com.hendrix.zorn.workers.WorkerObserver;
+import com.hendrix.zorn.workers.RetryPolicy;
+import com.hendrix.zorn.workers.WorkerMemoizer;
+import com.hendrix.zorn.workers.WorkerTerminationObserver;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Abstract {@link IWorkerManager} base pre implementation
@@ -18,7 +24,7 @@ import java.util.concurrent.atomic.AtomicInteger;
  * @author Tomer Shalev
  */
 @SuppressWarnings("UnusedDeclaration")
-abstract public class AbstractWorkerManager implements IWorkerManager, WorkerObserver {
+abstract public class AbstractWorkerManager implements IWorkerManager, WorkerTerminationObserver {
     private String                  _id                          = null;
     /**
      * ProcessManager status
@@ -29,35 +35,93 @@ abstract public class AbstractWorkerManager implements IWorkerManager, WorkerObs
      */
     protected WorkerManagerObserver _listener                    = null;
     /**
-     * the service that manages the running threads
+     * the service that manages the running threads, {@code null} for the shared {@link Zorn#defaultExecutorService}
      */
     private ExecutorService _es                                  = null;
+    /**
+     * the dispatcher handed to every dispatched worker, {@code null} keeps the worker's own
+     */
+    private CallbackDispatcher _dispatcher                       = null;
+    /**
+     * the memoizer of the result workers this manager dispatches, {@code null} for none
+     */
+    private WorkerMemoizer _memoizer                             = null;
+    /**
+     * the durable journal of the pending workers, {@code null} for none
+     */
+    private volatile WorkerJournal _journal                      = null;
+    /**
+     * {@code true} while {@link #tryRunNextWorker()} admits workers. guarded by {@code this}.
+     */
+    private boolean _scheduling                                  = false;
 
     /**
      * the execution mode of the {@code AbstractWorkerManager}
      *
      * <li/>{@code SERIAL} - in a given moment there is only one {@link IWorker} running.
-     * <li/>{@code NON_SERIAL} - there is no bound on the amount of workers running.
+     * <li/>{@code NON_SERIAL} - the amount of workers running is bounded by the concurrency.
      */
     private EXECUTION_MODE _em                                   = null;
     /**
-     * the number of worker active at any moment. only makes sense if it is {@code 1} or {@code Integer.MAX_VALUE},
-     * since they are delivered to a {@code Queue} of an {@link ThreadPoolExecutor}. Therefore use {@code 1} if
-     * order counts, such as serial execution. that means, a worker has to finish before the next one is delivered
-     * for execution.
+     * the number of workers delivered to the executor and not finished yet, at any moment.
+     * {@code 1} means serial execution, a worker has to finish before the next one is delivered.
+     */
+    protected volatile int _maxWorkersRunningAtOnce             = Integer.MAX_VALUE;
+    /**
+     * the adaptive limit, when the concurrency is tuned from observation. {@code null} otherwise.
+     */
+    private AdaptiveConcurrencyLimit _adaptiveLimit              = null;
+    /**
+     * workers that were running when the manager was stopped, until they leave their threads,
+     * see {@link #onWorkerTerminated(IWorker)}
+     */
+    private final ArrayList<IWorker> _stoppedWorkers             = new ArrayList<>();
+    /**
+     * latency and throughput instrumentation, {@code null} when disabled
+     */
+    private volatile WorkerManagerMetrics _metrics               = null;
+    /**
+     * observer of the metrics of every finished worker
+     */
+    private volatile WorkerMetricsObserver _metricsObserver      = null;
+    /**
+     * what the manager does when a worker has failed for good
+     */
+    private volatile FAILURE_POLICY _failurePolicy               = FAILURE_POLICY.PAUSE;
+    /**
+     * the retry policy of workers that do not have one of their own
+     */
+    private volatile RetryPolicy _retryPolicy                    = RetryPolicy.none();
+    /**
+     * the number of failed attempts of every worker that is being retried. guarded by {@code this}.
+     */
+    private final IdentityHashMap<IWorker, Integer> _attempts    = new IdentityHashMap<>();
+    /**
+     * the scheduled retries, until they are enqueued again. guarded by {@code this}.
      */
-    protected int _maxWorkersRunningAtOnce                      = Integer.MAX_VALUE;
+    private final IdentityHashMap<IWorker, TimerWheel.Timeout> _retries = new IdentityHashMap<>();
 
     /**
      * the execution mode of the {@code AbstractWorkerManager}
      *
      * <li/>{@code SERIAL} - in a given moment there is only one {@link IWorker} running.
-     * <li/>{@code NON_SERIAL} - there is no bound on the amount of workers running.
+     * <li/>{@code NON_SERIAL} - the amount of workers running is bounded by the concurrency.
      */
     public enum EXECUTION_MODE {
         SERIAL, NON_SERIAL
     }
 
+    /**
+     * what a manager does when a worker has failed for good, after it's retries
+     *
+     * <li/>{@code CONTINUE} - keep running the other workers.
+     * <li/>{@code PAUSE} - pause the manager, until {@code resume()} or {@code retry()}.
+     * <li/>{@code FAIL_FAST} - stop the manager, the running workers are stopped and the pending ones drained.
+     */
+    public enum FAILURE_POLICY {
+        CONTINUE, PAUSE, FAIL_FAST
+    }
+
     /**
      *
      * @return the {@code EXECUTION_MODE} of the Worker Manager.
@@ -73,26 +137,79 @@ abstract public class AbstractWorkerManager implements IWorkerManager, WorkerObs
      *
      * <ul>
      *      <li/>{@code SERIAL} - in a given moment there is only one {@link IWorker} running.
-     *      <li/>{@code NON_SERIAL} - there is no bound on the amount of workers running.
+     *      <li/>{@code NON_SERIAL} - the amount of workers running is bounded by the concurrency,
+     *      {@code availableProcessors() + 1} by default.
      * </ul>
      *
      * @param em {@code EXECUTION_MODE.SERIAL, EXECUTION_MODE.NON_SERIAL}
      *
      * @see com.hendrix.zorn.managers.AbstractWorkerManager.EXECUTION_MODE
+     * @see #setMaxConcurrency(int)
      */
     public void setExecutionMode(EXECUTION_MODE em) {
-        _em = em;
-
-        switch (_em){
+        switch (em){
             case SERIAL:
-                _maxWorkersRunningAtOnce = 1;
+                setMaxConcurrency(1);
                 break;
             case NON_SERIAL:
-                _maxWorkersRunningAtOnce = Runtime.getRuntime().availableProcessors() + 1;
+                setMaxConcurrency(Runtime.getRuntime().availableProcessors() + 1);
                 break;
         }
     }
 
+    /**
+     * set the maximal number of workers running at once. the bound is exact, and a change
+     * takes effect immediately: a higher bound admits pending workers at once, a lower bound
+     * admits no more workers until the running ones drop below it. disables adaptive concurrency.
+     *
+     * @param count the bound, at least {@code 1}
+     */
+    @Override
+    public synchronized void setMaxConcurrency(int count) {
+        if(count < 1)
+            throw new IllegalArgumentException("concurrency must be positive!!");
+
+        _adaptiveLimit              = null;
+        _em                         = count == 1 ? EXECUTION_MODE.SERIAL : EXECUTION_MODE.NON_SERIAL;
+        _maxWorkersRunningAtOnce    = count;
+
+        if(_status != null && isRunning())
+            tryRunNextWorker();
+    }
+
+    /**
+     * @return the maximal number of workers running at once
+     */
+    @Override
+    public int getMaxConcurrency() {
+        return _maxWorkersRunningAtOnce;
+    }
+
+    /**
+     * tune the concurrency from the observed throughput and latency of the workers (AIMD),
+     * starting at {@code min}. meant for workers that mostly wait on IO, where the best
+     * concurrency is not the number of processors. use {@link #setMaxConcurrency(int)} to
+     * go back to a fixed bound.
+     *
+     * @param min the lowest concurrency, at least {@code 1}
+     * @param max the highest concurrency
+     */
+    public synchronized void setAdaptiveConcurrency(int min, int max) {
+        AdaptiveConcurrencyLimit limit  = new AdaptiveConcurrencyLimit(min, max);
+
+        setMaxConcurrency(limit.getLimit());
+
+        _adaptiveLimit                  = limit;
+        _em                             = EXECUTION_MODE.NON_SERIAL;
+    }
+
+    /**
+     * @return {@code true} if the concurrency is tuned from observation
+     */
+    public boolean isAdaptiveConcurrency() {
+        return _adaptiveLimit != null;
+    }
+
     /**
      * set the identifier of the process
      *
@@ -103,8 +220,6 @@ abstract public class AbstractWorkerManager implements IWorkerManager, WorkerObs
         _status = new WorkerManagerStatus();
 
         setExecutionMode(EXECUTION_MODE.NON_SERIAL);
-
-        setupExecutor();
     }
 
     public AbstractWorkerManager() {
@@ -134,13 +249,12 @@ abstract public class AbstractWorkerManager implements IWorkerManager, WorkerObs
 
     /**
      *
-     * stop the worker manager, which includes trying stopping every running {@link IWorker},
-     * and clearing the running workers {@link Collection}.
-     *
-     * @throws UnsupportedOperationException if an {@link IWorker} does not have
-     * implementation for {@code AbstractWorker.stop()}
+     * stop the worker manager, which includes stopping (cancelling and interrupting) every
+     * running {@link IWorker}, clearing the running workers {@link Collection} and draining
+     * the pending workers. use {@link #awaitTermination(long, TimeUnit)} to wait until the
+     * stopped workers have released their threads.
      */
-    public void stop()
+    public synchronized void stop()
     {
         if(isReady())
             return;
@@ -151,45 +265,178 @@ abstract public class AbstractWorkerManager implements IWorkerManager, WorkerObs
 
         for (IWorker worker : getRunningWorkers()) {
             worker.stop();
+
+            // a worker that has left it's thread already, or has not started, is not waited for
+            if(!isTerminated(worker))
+                _stoppedWorkers.add(worker);
         }
 
         getRunningWorkers().clear();
-        //getPendingWorkers().clear();
+
+        clearPendingWorkers();
+
+        for (TimerWheel.Timeout timeout : _retries.values()) {
+            timeout.cancel();
+        }
+
+        _retries.clear();
+        _attempts.clear();
+
+        if(_adaptiveLimit != null)
+            _adaptiveLimit.clear();
+
+        if(_metrics != null)
+            _metrics.clearPending();
+    }
+
+    /**
+     * wait until every worker that was running when the manager was stopped has left
+     * it's thread. a worker that neither polls it's cancellation token nor blocks
+     * interruptibly keeps it's thread until it's {@code work()} is done.
+     *
+     * @param timeout   the maximal time to wait
+     * @param unit      the unit of {@code timeout}
+     *
+     * @return {@code true} if all of the stopped workers have terminated, {@code false} if the timeout elapsed
+     *
+     * @throws InterruptedException if the waiting thread was interrupted
+     */
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException
+    {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        IWorker worker;
+
+        while (true) {
+            synchronized (this) {
+                if(_stoppedWorkers.isEmpty())
+                    return true;
+
+                worker = _stoppedWorkers.get(_stoppedWorkers.size() - 1);
+            }
+
+            if(!worker.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS))
+                return false;
+
+            synchronized (this) {
+                _stoppedWorkers.remove(worker);
+            }
+        }
     }
 
     /**
-     * enqueue a {@link IWorker} into the {@code AbstractWorkerManager}.
+     * enqueue a {@link IWorker} into the {@code AbstractWorkerManager}. the worker is inserted
+     * outside the monitor, the monitor is taken to count it and to dispatch.
      *
      * @param worker A processable element
      */
     @Override
     public void enqueue(IWorker worker) {
+        WorkerManagerMetrics metrics = _metrics;
+        WorkerJournal journal        = _journal;
+
+        if(journal != null)
+            journal.append(worker);
+
+        if(metrics != null)
+            metrics.onEnqueue(worker);
+
         onEnqueue(worker);
 
-        getStatusInfo().numTotal += 1;
+        synchronized (this) {
+            getStatusInfo().numTotal += 1;
 
-        if(isRunning())
-            tryRunNextWorker();
+            if(isRunning())
+                tryRunNextWorker();
+        }
     }
 
     /**
-     * process error callback
+     * enqueue many {@link IWorker}s into the {@code AbstractWorkerManager}, with one bulk
+     * insertion into the pending workers and a single scheduling pass.
+     *
+     * @param workers processable elements
+     */
+    @Override
+    public void enqueueAll(Collection<? extends IWorker> workers) {
+        if(workers.isEmpty())
+            return;
+
+        WorkerManagerMetrics metrics = _metrics;
+        WorkerJournal journal        = _journal;
+
+        if(journal != null) {
+            synchronized (journal) {
+                for (IWorker worker : workers) {
+                    journal.append(worker);
+                }
+            }
+        }
+
+        if(metrics != null) {
+            for (IWorker worker : workers) {
+                metrics.onEnqueue(worker);
+            }
+        }
+
+        onEnqueueAll(workers);
+
+        synchronized (this) {
+            getStatusInfo().numTotal += workers.size();
+
+            if(isRunning())
+                tryRunNextWorker();
+        }
+    }
+
+    /**
+     * process error callback. a worker that may be attempted again, by it's {@link RetryPolicy},
+     * is enqueued again after a backoff delay, and meanwhile the other workers keep running.
+     * otherwise the worker has failed for good, and the manager reacts by it's {@link FAILURE_POLICY}.
      *
      * @param worker the erroneous process
      */
     @Override
     public synchronized  void onWorkerError(IWorker worker)
     {
-        pause();
-
         getRunningWorkers().remove(worker);
+
+        onWorkerFinished(worker, false);
+
+        if((isRunning() || isPaused()) && scheduleRetry(worker)) {
+            tryRunNextWorker();
+
+            return;
+        }
+
+        _attempts.remove(worker);
+
+        forgetJournaled(worker);
+
         getFailedWorkers().add(worker);
 
-        WorkerManagerErrorInfo pme  = new WorkerManagerErrorInfo(WorkerManagerErrorInfo.ErrorCode.ERROR_FAILED_PROCESS, "Worker with ID: " + worker.getId() + " FAILED!!", worker.getId() );
+        Throwable cause             = worker instanceof IRetryable ? ((IRetryable) worker).getFailure() : null;
+        WorkerManagerErrorInfo pme  = WorkerManagerErrorInfo.failedProcess(worker.getId(), cause);
 
         getStatusInfo().addError(pme);
 
-        notifyError(pme);
+        switch (_failurePolicy) {
+            case PAUSE:
+                pause();
+                notifyError(pme);
+                break;
+            case FAIL_FAST:
+                stop();
+                notifyError(pme);
+                break;
+            case CONTINUE:
+                // the observer hears of the failure before the completion it may lead to
+                notifyError(pme);
+
+                if(isRunning())
+                    checkCompletion();
+                break;
+        }
     }
 
     /**
@@ -200,21 +447,39 @@ abstract public class AbstractWorkerManager implements IWorkerManager, WorkerObs
     @Override
     public synchronized  void onWorkerComplete(IWorker worker)
     {
+        WorkerJournal journal = _journal;
+
+        if(journal != null)
+            journal.complete(worker);
+
+        // a worker that succeeded after a retry starts it's next run with every attempt
+        _attempts.remove(worker);
+
         if(storeFinishedWorkers())
-            getFinishedWorkers().put(worker.getId(), worker);
+            retainFinishedWorker(worker);
 
         getRunningWorkers().remove(worker);
 
         getStatusInfo().numComplete += 1;
 
+        onWorkerFinished(worker, true);
+
         // checks if pause or stop were pending
         if(!isRunning())
             return;
 
         notifyProgress(worker);
 
-        // check completion
-        if(sizePendingWorkers()==0 && getRunningWorkers().size()==0) {
+        checkCompletion();
+    }
+
+    /**
+     * notify completion if no worker is pending, running or waiting for a retry,
+     * otherwise admit the next workers.
+     */
+    protected synchronized void checkCompletion()
+    {
+        if(isDrained()) {
             getStatusInfo().setStatus(WorkerManagerStatus.Status.STATUS_IDLE);
             notifyComplete();
             return;
@@ -223,6 +488,118 @@ abstract public class AbstractWorkerManager implements IWorkerManager, WorkerObs
         tryRunNextWorker();
     }
 
+    /**
+     * @return {@code true} if no worker is pending, running, waiting for a retry or parked
+     */
+    private boolean isDrained()
+    {
+        return sizePendingWorkers()==0 && getRunningWorkers().size()==0 && _retries.isEmpty() && sizeParkedWorkers()==0;
+    }
+
+    /**
+     * fail a worker that was not dispatched, without pausing the manager
+     *
+     * @param worker    the {@link IWorker}
+     * @param info      the error
+     */
+    protected synchronized void failWorker(IWorker worker, WorkerManagerErrorInfo info)
+    {
+        dropWorker(worker);
+
+        getFailedWorkers().add(worker);
+        getStatusInfo().addError(info);
+
+        notifyError(info);
+    }
+
+    /**
+     * forget a worker that was not dispatched and will not be, quietly. it's attempts, metrics
+     * and journal record are released.
+     *
+     * @param worker the {@link IWorker}
+     */
+    protected synchronized void dropWorker(IWorker worker)
+    {
+        _attempts.remove(worker);
+
+        forgetJournaled(worker);
+
+        onWorkerFinished(worker, false);
+    }
+
+    /**
+     * checkpoint a worker that has failed for good, so the journal does not replay it forever
+     *
+     * @param worker the {@link IWorker}
+     */
+    private void forgetJournaled(IWorker worker)
+    {
+        WorkerJournal journal = _journal;
+
+        if(journal != null)
+            journal.fail(worker);
+    }
+
+    /**
+     * schedule another attempt of a failed worker, if it's {@link RetryPolicy} allows it.
+     *
+     * @param worker the failed {@link IWorker}
+     *
+     * @return {@code true} if a retry was scheduled
+     */
+    private boolean scheduleRetry(final IWorker worker)
+    {
+        IRetryable retryable    = worker instanceof IRetryable ? (IRetryable) worker : null;
+        RetryPolicy policy      = retryable != null && retryable.getRetryPolicy() != null ? retryable.getRetryPolicy()
+                                                                                          : _retryPolicy;
+
+        if(policy.getMaxAttempts() <= 1)
+            return false;
+
+        Integer previous        = _attempts.get(worker);
+        int failed              = previous == null ? 1 : previous + 1;
+
+        if(!policy.shouldRetry(failed, retryable != null ? retryable.getFailure() : null))
+            return false;
+
+        long delay              = policy.getDelayNanos(failed);
+
+        _attempts.put(worker, failed);
+
+        if(retryable != null)
+            retryable.onRetryScheduled(failed + 1, delay);
+
+        _retries.put(worker, Zorn.defaultTimerWheel.schedule(new Runnable() {
+            @Override
+            public void run() {
+                onRetryExpired(worker);
+            }
+        }, delay, TimeUnit.NANOSECONDS));
+
+        return true;
+    }
+
+    /**
+     * the backoff of a worker has passed, enqueue it again
+     *
+     * @param worker the {@link IWorker}
+     */
+    private synchronized void onRetryExpired(IWorker worker)
+    {
+        if(_retries.remove(worker) == null)
+            return;
+
+        WorkerManagerMetrics metrics = _metrics;
+
+        if(metrics != null)
+            metrics.onEnqueue(worker);
+
+        onEnqueue(worker);
+
+        if(isRunning())
+            tryRunNextWorker();
+    }
+
     /**
      * {@link IWorker} progress {@code observer}
      *
@@ -233,6 +610,39 @@ abstract public class AbstractWorkerManager implements IWorkerManager, WorkerObs
 
     }
 
+    /**
+     * a stopped {@link IWorker} has left it's thread, it is not waited for anymore
+     *
+     * @param worker the stopped {@link IWorker}
+     */
+    @Override
+    public synchronized void onWorkerTerminated(IWorker worker) {
+        _stoppedWorkers.remove(worker);
+    }
+
+    /**
+     * @return the number of stopped workers that have not left their threads yet
+     */
+    protected synchronized int sizeStoppedWorkers() {
+        return _stoppedWorkers.size();
+    }
+
+    /**
+     * @param worker a stopped {@link IWorker}
+     *
+     * @return {@code true} if the worker is not running on a thread
+     */
+    static private boolean isTerminated(IWorker worker)
+    {
+        try {
+            return worker.awaitTermination(0, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException exc) {
+            Thread.currentThread().interrupt();
+
+            return false;
+        }
+    }
+
     /**
      * start the process manager
      */
@@ -240,7 +650,7 @@ abstract public class AbstractWorkerManager implements IWorkerManager, WorkerObs
     public void start()
     {
         if(isRunning()) {
-            System.out.println("WorkerManager.start():: is already working: WORKING or IDLE %n");
+            Trace.log(TraceLevel.WARN, WorkerManagerStatus.ZORN_STATUS_TAG, "start():: %s is already working: WORKING or IDLE", getId());
             return;
         }
 
@@ -253,7 +663,8 @@ abstract public class AbstractWorkerManager implements IWorkerManager, WorkerObs
      *
      * retry failed processes.
      * pay attention. default implementation will re enqueue failed workers,
-     * therefore, override if necessary.
+     * therefore, override if necessary. a worker that implements {@link IRetryable}
+     * is armed again before it is enqueued, see {@link IRetryable#onRetried()}.
      */
     public void retry()
     {
@@ -265,6 +676,9 @@ abstract public class AbstractWorkerManager implements IWorkerManager, WorkerObs
             p = iteratorFailedProcesses.next();
             iteratorFailedProcesses.remove();
 
+            if(p instanceof IRetryable)
+                ((IRetryable) p).onRetried();
+
             enqueue(p);
         }
 
@@ -280,6 +694,62 @@ abstract public class AbstractWorkerManager implements IWorkerManager, WorkerObs
         return "Zorn Worker Manager:: id=" + getId() + ", running#=" + getRunningWorkers().size() + ", finished#=" + getFinishedWorkers().size() + ", failed#=" + getFailedWorkers().size();
     }
 
+    /**
+     * set what the manager does when a worker has failed for good, after it's retries.
+     * {@code PAUSE} by default.
+     *
+     * @param policy the {@link FAILURE_POLICY}
+     */
+    public void setFailurePolicy(FAILURE_POLICY policy) {
+        if(policy == null)
+            throw new NullPointerException("policy is null!!");
+
+        _failurePolicy = policy;
+    }
+
+    /**
+     * @return the {@link FAILURE_POLICY} of the manager
+     */
+    public FAILURE_POLICY getFailurePolicy() {
+        return _failurePolicy;
+    }
+
+    /**
+     * set the {@link RetryPolicy} of the workers that do not have one of their own,
+     * {@link RetryPolicy#none()} by default. retries are driven by {@link Zorn#defaultTimerWheel}.
+     *
+     * @param policy the policy
+     */
+    public void setRetryPolicy(RetryPolicy policy) {
+        if(policy == null)
+            throw new NullPointerException("policy is null!!");
+
+        _retryPolicy = policy;
+    }
+
+    /**
+     * @return the {@link RetryPolicy} of the workers that do not have one of their own
+     */
+    public RetryPolicy getRetryPolicy() {
+        return _retryPolicy;
+    }
+
+    /**
+     * @return the number of failed workers that wait for another attempt
+     */
+    public synchronized int getNumPendingRetries() {
+        return _retries.size();
+    }
+
+    /**
+     * @param worker a {@link IWorker}
+     *
+     * @return {@code true} if the worker has failed and waits for another attempt
+     */
+    protected synchronized boolean isRetryScheduled(IWorker worker) {
+        return _retries.containsKey(worker);
+    }
+
     /**
      * set the listener for the worker manager<br/>
      * get notifies of worker completion, progress, error.
@@ -290,6 +760,137 @@ abstract public class AbstractWorkerManager implements IWorkerManager, WorkerObs
         _listener = listener;
     }
 
+    /**
+     * set the {@link ExecutorService} that runs the workers of this manager. by default the
+     * workers run on the shared {@link Zorn#defaultExecutorService}, bounded by the concurrency
+     * of this manager. an injected executor is owned by the caller, and is not shut down on {@code dispose()}.
+     *
+     * @param es the executor, or {@code null} for the shared one
+     */
+    public void setExecutorService(ExecutorService es) {
+        _es = es;
+    }
+
+    /**
+     * @return the {@link ExecutorService} that runs the workers of this manager
+     */
+    public ExecutorService getExecutorService() {
+        return _es != null ? _es : Zorn.defaultExecutorService;
+    }
+
+    /**
+     * set the {@link CallbackDispatcher} that delivers the callbacks of every worker
+     * this manager dispatches, and therefore the thread the manager reacts on.
+     * {@code null} keeps the dispatcher of each worker.
+     *
+     * @param dispatcher the dispatcher
+     */
+    public void setCallbackDispatcher(CallbackDispatcher dispatcher) {
+        _dispatcher = dispatcher;
+    }
+
+    /**
+     * @return the {@link CallbackDispatcher} of the manager, or {@code null}
+     */
+    public CallbackDispatcher getCallbackDispatcher() {
+        return _dispatcher;
+    }
+
+    /**
+     * memoize the results of the {@link AbstractResultWorker}s this manager dispatches, that
+     * declare a cache key. a memoized worker is still dispatched, but completes from the cache
+     * or with an identical worker in flight, instead of computing. a worker that has a memoizer
+     * of it's own keeps it, the manager memoizer is given only to the workers without one.
+     *
+     * @param memoizer a {@link WorkerMemoizer}, can be shared among managers
+     */
+    public void setMemoizer(WorkerMemoizer memoizer) {
+        _memoizer = memoizer;
+    }
+
+    /**
+     * @return the {@link WorkerMemoizer} of the manager, or {@code null}
+     */
+    public WorkerMemoizer getMemoizer() {
+        return _memoizer;
+    }
+
+    /**
+     * journal the {@link com.hendrix.zorn.interfaces.IPersistable} workers of this manager, so the
+     * unfinished ones can be replayed after the process has restarted. a worker is journaled when
+     * it is enqueued, and checkpointed when it completes. the journal is owned by the caller.
+     *
+     * @param journal a {@link WorkerJournal}, or {@code null} for none
+     *
+     * @see WorkerJournal#getRecoveredWorkers()
+     */
+    public void setJournal(WorkerJournal journal) {
+        _journal = journal;
+    }
+
+    /**
+     * @return the {@link WorkerJournal} of the manager, or {@code null}
+     */
+    public WorkerJournal getJournal() {
+        return _journal;
+    }
+
+    /**
+     * enable or disable latency and throughput metrics. when disabled (by default)
+     * nothing is recorded. enabling again starts from scratch.
+     *
+     * @param flag {@code true/false}
+     *
+     * @see #getMetricsSnapshot()
+     */
+    public void setMetricsEnabled(boolean flag) {
+        if(flag == isMetricsEnabled())
+            return;
+
+        _metrics = flag ? new WorkerManagerMetrics() : null;
+    }
+
+    /**
+     * @return {@code true} if metrics are recorded
+     */
+    public boolean isMetricsEnabled() {
+        return _metrics != null;
+    }
+
+    /**
+     * get a copy of the metrics recorded so far, with the current queue depth.
+     *
+     * @return a {@link WorkerManagerMetrics.Snapshot}, or {@code null} if metrics are disabled
+     */
+    public synchronized WorkerManagerMetrics.Snapshot getMetricsSnapshot() {
+        WorkerManagerMetrics metrics = _metrics;
+
+        if(metrics == null)
+            return null;
+
+        return metrics.snapshot(sizePendingWorkers(), getRunningWorkers().size());
+    }
+
+    /**
+     * forget the metrics recorded so far, and restart the throughput clock.
+     */
+    public void resetMetrics() {
+        WorkerManagerMetrics metrics = _metrics;
+
+        if(metrics != null)
+            metrics.reset();
+    }
+
+    /**
+     * set an observer, notified with the metrics of every finished worker while metrics are enabled.
+     * useful to attribute latencies to workers, for example by their id.
+     *
+     * @param observer the observer, or {@code null}
+     */
+    public void setMetricsObserver(WorkerMetricsObserver observer) {
+        _metricsObserver = observer;
+    }
+
     /**
      * @return the identifier of the Manager
      */
@@ -384,6 +985,8 @@ abstract public class AbstractWorkerManager implements IWorkerManager, WorkerObs
 
         if(getFailedWorkers()!=null)
             getFailedWorkers().clear();
+
+        _es = null;
     }
 
     public abstract Collection<IWorker> getFailedWorkers();
@@ -395,6 +998,17 @@ abstract public class AbstractWorkerManager implements IWorkerManager, WorkerObs
      */
     protected abstract boolean storeFinishedWorkers();
 
+    /**
+     * retain a finished worker, so it can later be retrieved with {@link #getFinishedWorker(String)}.
+     * by default puts it into {@link #getFinishedWorkers()}, override if that is a copy.
+     *
+     * @param worker the finished {@link IWorker}
+     */
+    protected void retainFinishedWorker(IWorker worker)
+    {
+        getFinishedWorkers().put(worker.getId(), worker);
+    }
+
     /**
      * get the next {@link IWorker} proposed for execution.
      * this method is allowed to return {@code null}.
@@ -416,6 +1030,20 @@ abstract public class AbstractWorkerManager implements IWorkerManager, WorkerObs
      */
     protected abstract void onEnqueue(IWorker worker);
 
+    /**
+     * handle the saving of many {@link IWorker}s at once. by default calls
+     * {@link #onEnqueue(IWorker)} for every one of them, override with a bulk
+     * insertion into your unique data structure.
+     *
+     * @param workers the {@link IWorker}s
+     */
+    protected void onEnqueueAll(Collection<? extends IWorker> workers)
+    {
+        for (IWorker worker : workers) {
+            onEnqueue(worker);
+        }
+    }
+
     /**
      * get currently running workers
      *
@@ -433,30 +1061,116 @@ abstract public class AbstractWorkerManager implements IWorkerManager, WorkerObs
     protected abstract int sizePendingWorkers();
 
     /**
-     * select the next process for work
+     * the number of workers that are held aside by the manager, neither pending nor running,
+     * and will be pending again. the manager has not completed while there are any.
+     *
+     * @return the size, {@code 0} by default
      */
-    protected void tryRunNextWorker()
+    protected int sizeParkedWorkers()
     {
-        IWorker pp;
+        return 0;
+    }
 
-        if(!canSpawnAnotherProcess())
-            return;
+    /**
+     * decide if a worker proposed by {@link #getNextWorker()} is delivered to the executor.
+     * a worker that is not, is the responsibility of the implementation, for example it
+     * can be failed with {@link #failWorker(IWorker, WorkerManagerErrorInfo)} or held aside.
+     *
+     * @param worker the {@link IWorker}
+     *
+     * @return {@code true} to run the worker, {@code true} by default
+     */
+    protected boolean admitWorker(IWorker worker)
+    {
+        return true;
+    }
 
-        pp 								= getNextWorker();
+    /**
+     * remove every pending worker, when the manager is stopped. by default drains
+     * {@link #getNextWorker()}, override if some pending workers are not reachable through it.
+     */
+    protected void clearPendingWorkers()
+    {
+        while (getNextWorker() != null);
+    }
 
-        if(pp == null)
+    /**
+     * admit pending workers up to the available capacity, in a single non recursive pass.
+     * a nested call on the same thread, for example when a worker completes synchronously
+     * within {@code process(..)}, returns at once and the outer pass picks up from there,
+     * so the stack depth does not grow with the number of admitted workers.
+     */
+    protected synchronized void tryRunNextWorker()
+    {
+        if(_scheduling)
             return;
 
+        _scheduling = true;
+
+        boolean rejected = false;
+
+        try {
+            IWorker pp;
+
+            while (canSpawnAnotherProcess() && (pp = getNextWorker()) != null) {
+                if(admitWorker(pp))
+                    runWorker(pp);
+                else
+                    rejected = true;
+            }
+        } finally {
+            _scheduling = false;
+        }
+
+        // the last workers might have been rejected instead of running
+        if(rejected && isRunning() && isDrained()) {
+            getStatusInfo().setStatus(WorkerManagerStatus.Status.STATUS_IDLE);
+            notifyComplete();
+        }
+    }
+
+    /**
+     * deliver a worker to the executor
+     *
+     * @param pp the {@link IWorker}
+     */
+    private void runWorker(IWorker pp)
+    {
         getRunningWorkers().add(pp);
 
+        if(_adaptiveLimit != null)
+            _adaptiveLimit.onDispatch(pp, getRunningWorkers().size());
+
+        if(_metrics != null)
+            _metrics.onDispatch(pp);
+
         // could be the case that all processes finished already by the time
         // the first process above finished.
         getStatusInfo().setStatus(WorkerManagerStatus.Status.STATUS_WORKING);
 
-        pp.process(this, _es);
+        if(_dispatcher != null)
+            pp.setCallbackDispatcher(_dispatcher);
 
-        if(canSpawnAnotherProcess())
-            tryRunNextWorker();
+        if(_memoizer != null && pp instanceof AbstractResultWorker
+                && ((AbstractResultWorker<?>) pp).getMemoizer() == null)
+            ((AbstractResultWorker<?>) pp).setMemoizer(_memoizer);
+
+        pp.process(this, getExecutorService());
+    }
+
+    /**
+     * a worker has finished, either completed or failed, also one that was never dispatched
+     *
+     * @param worker    the {@link IWorker}
+     * @param success   {@code true} if it has completed
+     */
+    private void onWorkerFinished(IWorker worker, boolean success)
+    {
+        if(_metrics != null)
+            _metrics.onFinish(worker, success, _metricsObserver);
+
+        if(_adaptiveLimit != null && _adaptiveLimit.onFinish(worker))
+            _maxWorkersRunningAtOnce = _adaptiveLimit.getLimit();
     }
 
     /**
@@ -476,27 +1190,4 @@ abstract public class AbstractWorkerManager implements IWorkerManager, WorkerObs
         return (count > 0);
     }
 
-    /**
-     * setup the thread executor
-     */
-    private void setupExecutor()
-    {
-        int count_cpu = Runtime.getRuntime().availableProcessors();
-
-        _es           = new ThreadPoolExecutor(count_cpu + 1, count_cpu*2 + 1, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), pmThreadFactory);
-    }
-
-    /**
-     * thread factory handed to the executor
-     */
-    private final ThreadFactory pmThreadFactory = new ThreadFactory() {
-        private final AtomicInteger mCount = new AtomicInteger(1);
-
-        @SuppressWarnings("NullableProblems")
-        public Thread newThread(Runnable r) {
-            return new Thread(r, "Zorn WorkerManager ID: " + getId() + ", worker #" + mCount.getAndIncrement());
-        }
-    };
-
-
 }
@@ -0,0 +1,132 @@
+package com.hendrix.zorn.managers;
+
+import com.hendrix.zorn.workers.IWorker;
+
+import java.util.IdentityHashMap;
+
+/**
+ * an AIMD (additive increase, multiplicative decrease) concurrency limit, for workers
+ * that mostly wait on IO. the limit is re evaluated once per window of completions:
+ *
+ * <ul>
+ *     <li/>if the average latency of the window inflated past {@code LATENCY_TOLERANCE} times the
+ *     lowest latency ever observed, workers are queueing somewhere (executor, backend), so the limit
+ *     is multiplied by {@code BACKOFF_RATIO}.
+ *     <li/>otherwise, if there was demand (saturated limit) and throughput did not drop, the
+ *     limit grows by one.
+ * </ul>
+ *
+ * not thread safe, the owning manager calls it under it's own lock.
+ *
+ * @author Tomer Shalev
+ */
+final class AdaptiveConcurrencyLimit {
+    static final double LATENCY_TOLERANCE   = 2.0;
+    static final double BACKOFF_RATIO       = 0.75;
+    static final int    MIN_WINDOW          = 8;
+
+    private final int _min;
+    private final int _max;
+
+    private int _limit;
+
+    /**
+     * the dispatch time of every running worker
+     */
+    private final IdentityHashMap<IWorker, Long> _dispatchTimes = new IdentityHashMap<>();
+
+    private long    _windowStart        = 0;
+    private int     _windowCount        = 0;
+    private long    _windowLatency      = 0;
+    private boolean _windowSaturated    = false;
+
+    private long    _minLatency         = Long.MAX_VALUE;
+    private double  _lastThroughput     = 0;
+
+    /**
+     * @param min the lowest limit, at least {@code 1}
+     * @param max the highest limit
+     */
+    AdaptiveConcurrencyLimit(int min, int max) {
+        if(min < 1 || max < min)
+            throw new IllegalArgumentException("expected 1 <= min <= max, got min=" + min + ", max=" + max);
+
+        _min    = min;
+        _max    = max;
+        _limit  = min;
+    }
+
+    /**
+     * @return the current limit
+     */
+    int getLimit() {
+        return _limit;
+    }
+
+    /**
+     * a worker was delivered to the executor
+     *
+     * @param worker    the worker
+     * @param running   the number of running workers, including this one
+     */
+    void onDispatch(IWorker worker, int running) {
+        long now = System.nanoTime();
+
+        if(_windowStart == 0)
+            _windowStart = now;
+
+        if(running >= _limit)
+            _windowSaturated = true;
+
+        _dispatchTimes.put(worker, now);
+    }
+
+    /**
+     * a worker has finished, either completed or failed
+     *
+     * @param worker the worker
+     *
+     * @return {@code true} if the limit has changed
+     */
+    boolean onFinish(IWorker worker) {
+        Long dispatched = _dispatchTimes.remove(worker);
+
+        if(dispatched == null)
+            return false;
+
+        long now        = System.nanoTime();
+        long latency    = now - dispatched;
+
+        _minLatency     = Math.min(_minLatency, latency);
+        _windowLatency += latency;
+        _windowCount   += 1;
+
+        if(_windowCount < Math.max(MIN_WINDOW, _limit))
+            return false;
+
+        int previous        = _limit;
+        double average      = (double) _windowLatency / _windowCount;
+        double throughput   = _windowCount / (double) Math.max(1, now - _windowStart);
+
+        if(average > _minLatency * LATENCY_TOLERANCE)
+            _limit = Math.max(_min, (int) (_limit * BACKOFF_RATIO));
+        else if(_windowSaturated && throughput >= _lastThroughput * 0.95)
+            _limit = Math.min(_max, _limit + 1);
+
+        _lastThroughput     = throughput;
+        _windowStart        = now;
+        _windowCount        = 0;
+        _windowLatency      = 0;
+        _windowSaturated    = false;
+
+        return _limit != previous;
+    }
+
+    /**
+     * forget every running worker, for example when the manager was stopped
+     */
+    void clear() {
+        _dispatchTimes.clear();
+    }
+
+}
@@ -0,0 +1,228 @@
+package com.hendrix.zorn.managers;
+
+import com.hendrix.zorn.interfaces.IPriority;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * a run queue ordered by an effective priority that rises with the time an element
+ * has waited, so low priorities are not starved by a sustained load of high ones:
+ * <pre>
+ *     effective = priority + min(maxBoost, wait / interval)
+ * </pre>
+ * every priority has it's own FIFO band, so the head of a band is it's oldest element
+ * and has the highest effective priority in the band. a poll compares the heads of the
+ * non empty bands only, nothing is ever re sorted. ties go to the higher base priority.
+ * <p/>
+ * the class is thread safe, it is guarded by a lock since the waiting times are kept
+ * alongside the elements.
+ *
+ * @author Tomer Shalev
+ */
+@SuppressWarnings("UnusedDeclaration")
+public class AgingPriorityRunQueue<T extends IPriority> implements RunQueue<T> {
+    private final long  _intervalNanos;
+    private final int   _maxBoost;
+
+    /**
+     * the bands by descending priority, empty bands are kept for reuse
+     */
+    private final ArrayList<Band>          _bands      = new ArrayList<>();
+    private final HashMap<Integer, Band>   _byPriority = new HashMap<>();
+
+    private int _size = 0;
+
+    /**
+     * a FIFO ring of elements and the times they were inserted
+     */
+    static private final class Band {
+        final int   priority;
+
+        Object[]    elements    = new Object[16];
+        long[]      times       = new long[16];
+        int         head        = 0;
+        int         size        = 0;
+
+        Band(int priority) {
+            this.priority = priority;
+        }
+
+        void add(Object element, long time) {
+            if(size == elements.length)
+                grow();
+
+            int tail        = (head + size) & (elements.length - 1);
+
+            elements[tail]  = element;
+            times[tail]     = time;
+            size           += 1;
+        }
+
+        Object poll() {
+            Object element  = elements[head];
+
+            elements[head]  = null;
+            head            = (head + 1) & (elements.length - 1);
+            size           -= 1;
+
+            return element;
+        }
+
+        void clear() {
+            while (size > 0) {
+                poll();
+            }
+
+            head = 0;
+        }
+
+        private void grow() {
+            Object[] elements   = new Object[this.elements.length * 2];
+            long[] times        = new long[elements.length];
+
+            for (int ix = 0; ix < size; ix++) {
+                int from        = (head + ix) & (this.elements.length - 1);
+
+                elements[ix]    = this.elements[from];
+                times[ix]       = this.times[from];
+            }
+
+            this.elements       = elements;
+            this.times          = times;
+            head                = 0;
+        }
+    }
+
+    /**
+     * @param interval  the wait that raises the effective priority by one, positive
+     * @param unit      the unit of {@code interval}
+     * @param maxBoost  the highest raise of the effective priority, not negative
+     */
+    public AgingPriorityRunQueue(long interval, TimeUnit unit, int maxBoost) {
+        if(interval <= 0)
+            throw new IllegalArgumentException("interval must be positive!!");
+
+        if(maxBoost < 0)
+            throw new IllegalArgumentException("maxBoost must not be negative!!");
+
+        _intervalNanos  = unit.toNanos(interval);
+        _maxBoost       = maxBoost;
+    }
+
+    @Override
+    public synchronized void offer(T element)
+    {
+        bandOf(element.getPriority()).add(element, System.nanoTime());
+
+        _size += 1;
+    }
+
+    @Override
+    public synchronized void offerAll(Collection<? extends T> elements)
+    {
+        long now = System.nanoTime();
+
+        for (T element : elements) {
+            bandOf(element.getPriority()).add(element, now);
+        }
+
+        _size += elements.size();
+    }
+
+    /**
+     * retrieve and remove the element with the highest effective priority
+     *
+     * @return the element, or {@code null} if the queue is empty
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized T poll()
+    {
+        if(_size == 0)
+            return null;
+
+        long now        = System.nanoTime();
+        long bestScore  = Long.MIN_VALUE;
+        Band best       = null;
+        Band band;
+
+        for (int ix = 0; ix < _bands.size(); ix++) {
+            band        = _bands.get(ix);
+
+            // the bands that follow can not catch up anymore
+            if((long) band.priority + _maxBoost <= bestScore)
+                break;
+
+            if(band.size == 0)
+                continue;
+
+            long score  = (long) band.priority + Math.min(_maxBoost, (now - band.times[band.head]) / _intervalNanos);
+
+            if(score > bestScore) {
+                bestScore   = score;
+                best        = band;
+            }
+        }
+
+        _size -= 1;
+
+        return (T) best.poll();
+    }
+
+    /**
+     * @param priority a priority
+     *
+     * @return the time in nanoseconds the oldest element of the priority has waited, {@code 0} if there is none
+     */
+    public synchronized long getOldestWait(int priority)
+    {
+        Band band = _byPriority.get(priority);
+
+        return band == null || band.size == 0 ? 0 : System.nanoTime() - band.times[band.head];
+    }
+
+    @Override
+    public synchronized int size() {
+        return _size;
+    }
+
+    @Override
+    public synchronized boolean isEmpty() {
+        return _size == 0;
+    }
+
+    @Override
+    public synchronized void clear()
+    {
+        for (Band band : _bands) {
+            band.clear();
+        }
+
+        _size = 0;
+    }
+
+    private Band bandOf(int priority)
+    {
+        Band band = _byPriority.get(priority);
+
+        if(band != null)
+            return band;
+
+        band        = new Band(priority);
+
+        int ix      = 0;
+
+        while (ix < _bands.size() && _bands.get(ix).priority > priority) {
+            ix++;
+        }
+
+        _bands.add(ix, band);
+        _byPriority.put(priority, band);
+
+        return band;
+    }
+
+}
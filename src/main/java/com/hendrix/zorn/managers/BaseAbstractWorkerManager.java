@@ -1,15 +1,27 @@
 package com.hendrix.zorn.managers;
 
+import com.hendrix.zorn.Zorn;
+import com.hendrix.zorn.interfaces.IGroup;
+import com.hendrix.zorn.trace.Trace;
+import com.hendrix.zorn.trace.TraceLevel;
 import com.hendrix.zorn.workers.IWorker;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * a further implementation of {@link AbstractWorkerManager}, that handles
- * the {@code getRunningWorkers(), getFailedWorkers(), getFinishedWorkers()}
+ * the {@code getRunningWorkers(), getFailedWorkers(), getFinishedWorkers()}.
+ * finished workers are retained according to a {@link RetentionPolicy}, every one of them by default.
+ * <p/>
+ * workers that declare a group ({@link IGroup}) can be guarded by a circuit breaker of their group,
+ * see {@link #setCircuitBreakerPolicy(CircuitBreakerPolicy)}, so a failing backend does not occupy
+ * the capacity of the manager.
  *
  * @author Tomer Shalev
  */
@@ -20,18 +32,34 @@ abstract public class BaseAbstractWorkerManager extends AbstractWorkerManager {
      */
     private ArrayList<IWorker> _runningWorkers = null;
     /**
-     * a map that holds finished processes
+     * the store that holds finished processes, created on first use according to the policy
      */
-    private Map<String, IWorker> _finishedWorkers = null;
+    private volatile FinishedWorkerStore _finishedWorkers = null;
+    private volatile RetentionPolicy _retentionPolicy   = RetentionPolicy.unbounded();
     /**
      * a map that holds failed processes
      */
     private ArrayList<IWorker> _failedWorkers = null;
 
     /**
-     * a mutable flag indicating if finished processes are stored and can later be retrieved with the api
+     * the policy of the circuit breakers, {@code null} when there are none
      */
-    private boolean _storeFinishedWorkers = true;
+    private volatile CircuitBreakerPolicy _breakerPolicy = null;
+    private volatile CircuitBreakerObserver _breakerObserver = null;
+    /**
+     * the circuit breaker of every group. guarded by {@code this}, as the rest of the breaker state.
+     */
+    private final HashMap<String, CircuitBreaker> _breakers = new HashMap<>();
+    /**
+     * the breaker of every running worker of a group, and the running trial workers
+     */
+    private final IdentityHashMap<IWorker, CircuitBreaker> _guardedWorkers = new IdentityHashMap<>();
+    private final IdentityHashMap<IWorker, Boolean> _trialWorkers = new IdentityHashMap<>();
+    /**
+     * the workers of every group whose breaker is open, when they are parked
+     */
+    private final HashMap<String, ArrayDeque<IWorker>> _parkedWorkers = new HashMap<>();
+    private int _numParked = 0;
 
     /**
      * {@inheritDoc}
@@ -40,9 +68,6 @@ abstract public class BaseAbstractWorkerManager extends AbstractWorkerManager {
     public BaseAbstractWorkerManager(String id) {
         super(id);
 
-        if(_storeFinishedWorkers)
-            _finishedWorkers    =   new HashMap<>();
-
         _runningWorkers         =   new ArrayList<>();
         _failedWorkers          =   new ArrayList<>();
     }
@@ -60,6 +85,14 @@ abstract public class BaseAbstractWorkerManager extends AbstractWorkerManager {
      */
     @Override
     public void dispose() {
+        synchronized (this) {
+            _breakers.clear();
+            _guardedWorkers.clear();
+            _trialWorkers.clear();
+            _parkedWorkers.clear();
+            _numParked = 0;
+        }
+
         super.dispose();
 
         _finishedWorkers = null;
@@ -111,40 +144,214 @@ abstract public class BaseAbstractWorkerManager extends AbstractWorkerManager {
      * get a finished process by it's id
      *
      * @param id {@code id} of the process.
-     * @return the process
+     * @return the process, or {@code null} if it is not retained
      */
     @Override
     public IWorker getFinishedWorker(String id) {
-        return _finishedWorkers.get(id);
+        FinishedWorkerStore store = _finishedWorkers;
+
+        return store == null ? null : store.get(id);
     }
 
     /**
      * get finished workers
      *
-     * @return A map of {@code IWorker} elements
+     * @return A copy of the retained {@code IWorker} elements by id, oldest first
      */
     @Override
     public Map<String, IWorker> getFinishedWorkers() {
-        return _finishedWorkers;
+        return finishedWorkerStore().snapshot();
     }
 
     /**
      * a mutable flag indicating if finished processes are stored and can later be retrieved with the api.
+     * same as {@code setRetentionPolicy(flag ? RetentionPolicy.unbounded() : RetentionPolicy.none())}.
      *
      * @param flag {@code true/false}
      */
     public void storeFinishedWorkers(boolean flag) {
-        _storeFinishedWorkers = flag;
+        setRetentionPolicy(flag ? RetentionPolicy.unbounded() : RetentionPolicy.none());
+    }
+
+    /**
+     * set the policy for retaining finished workers. the workers retained so far are released.
+     *
+     * @param policy a {@link RetentionPolicy}
+     */
+    public synchronized void setRetentionPolicy(RetentionPolicy policy) {
+        if(policy == null)
+            throw new NullPointerException("policy is null!!");
+
+        _retentionPolicy = policy;
+        _finishedWorkers = null;
+    }
+
+    /**
+     * @return the {@link RetentionPolicy} for finished workers
+     */
+    public RetentionPolicy getRetentionPolicy() {
+        return _retentionPolicy;
+    }
+
+    /**
+     * guard the workers of every group by a circuit breaker of the group. a breaker trips open
+     * when too many workers of it's group fail, and then the workers of the group are failed at
+     * once or parked, instead of occupying the capacity of the manager, until it half opens after
+     * a cool down. workers without a group are not guarded. the breakers so far are forgotten,
+     * and parked workers are pending again.
+     *
+     * @param policy a {@link CircuitBreakerPolicy}, or {@code null} for no circuit breakers
+     */
+    public synchronized void setCircuitBreakerPolicy(CircuitBreakerPolicy policy) {
+        _breakerPolicy = policy;
+
+        _breakers.clear();
+        _guardedWorkers.clear();
+        _trialWorkers.clear();
+
+        for (String group : new ArrayList<>(_parkedWorkers.keySet())) {
+            unpark(group);
+        }
+
+        if(isRunning())
+            tryRunNextWorker();
+    }
+
+    /**
+     * @return the {@link CircuitBreakerPolicy}, or {@code null}
+     */
+    public CircuitBreakerPolicy getCircuitBreakerPolicy() {
+        return _breakerPolicy;
+    }
+
+    /**
+     * @param observer notified of every state transition of a circuit breaker, or {@code null}
+     */
+    public void setCircuitBreakerObserver(CircuitBreakerObserver observer) {
+        _breakerObserver = observer;
+    }
+
+    /**
+     * @param group the group of workers
+     *
+     * @return the {@link CircuitBreaker} of the group, or {@code null} if none of it's workers has run yet
+     */
+    public synchronized CircuitBreaker getCircuitBreaker(String group) {
+        return _breakers.get(group);
+    }
+
+    /**
+     * @return the {@link CircuitBreaker} of every group
+     */
+    public synchronized Collection<CircuitBreaker> getCircuitBreakers() {
+        return new ArrayList<>(_breakers.values());
+    }
+
+    /**
+     * @return the number of workers parked by an open circuit breaker
+     */
+    public synchronized int numParkedWorkers() {
+        return _numParked;
+    }
+
+    /**
+     * process complete callback, feeds the circuit breaker of the worker's group
+     *
+     * @param worker the completed process
+     */
+    @Override
+    public synchronized void onWorkerComplete(IWorker worker) {
+        onGuardedWorkerFinished(worker, true);
+
+        super.onWorkerComplete(worker);
+    }
+
+    /**
+     * process error callback, feeds the circuit breaker of the worker's group
+     *
+     * @param worker the erroneous process
+     */
+    @Override
+    public synchronized void onWorkerError(IWorker worker) {
+        onGuardedWorkerFinished(worker, false);
+
+        super.onWorkerError(worker);
+    }
+
+    /**
+     * stop the worker manager, parked workers are dropped as well
+     */
+    @Override
+    public synchronized void stop() {
+        super.stop();
+
+        _guardedWorkers.clear();
+        _trialWorkers.clear();
+        _parkedWorkers.clear();
+        _numParked = 0;
     }
 
     /**
-     * @return the number of overall workers = pending + running + failed
+     * @return the number of overall workers = pending + running + failed + parked
      *
      */
 
     @Override
     public int numWorkers() {
-        return getRunningWorkers().size() + getFailedWorkers().size() + sizePendingWorkers();
+        return getRunningWorkers().size() + getFailedWorkers().size() + sizePendingWorkers() + sizeParkedWorkers();
+    }
+
+    /**
+     * a worker of a group runs only if the circuit breaker of the group lets it
+     *
+     * @param worker the {@link IWorker}
+     *
+     * @return {@code true} to run the worker
+     */
+    @Override
+    protected synchronized boolean admitWorker(IWorker worker) {
+        CircuitBreaker breaker = breakerOf(worker);
+
+        if(breaker == null)
+            return true;
+
+        CircuitBreaker.STATE from   = breaker.getState();
+        int permit                  = breaker.tryAcquire();
+
+        onBreakerChanged(breaker, from);
+
+        if(permit != 0) {
+            _guardedWorkers.put(worker, breaker);
+
+            if(permit == 2)
+                _trialWorkers.put(worker, Boolean.TRUE);
+
+            return true;
+        }
+
+        if(_breakerPolicy.getOpenCircuit() == CircuitBreakerPolicy.OPEN_CIRCUIT.PARK) {
+            ArrayDeque<IWorker> parked = _parkedWorkers.get(breaker.getGroup());
+
+            if(parked == null)
+                _parkedWorkers.put(breaker.getGroup(), parked = new ArrayDeque<>());
+
+            parked.add(worker);
+
+            _numParked += 1;
+        }
+        else
+            failWorker(worker, new WorkerManagerErrorInfo(WorkerManagerErrorInfo.ErrorCode.ERROR_CIRCUIT_OPEN,
+                    "Worker with ID: " + worker.getId() + " REJECTED, the circuit of group " + breaker.getGroup() + " is open!!", worker.getId()));
+
+        return false;
+    }
+
+    /**
+     * @return the number of workers parked by an open circuit breaker
+     */
+    @Override
+    protected synchronized int sizeParkedWorkers() {
+        return _numParked;
     }
 
     /**
@@ -154,7 +361,17 @@ abstract public class BaseAbstractWorkerManager extends AbstractWorkerManager {
      */
     @Override
     protected boolean storeFinishedWorkers() {
-        return _storeFinishedWorkers;
+        return _retentionPolicy != RetentionPolicy.none();
+    }
+
+    /**
+     * retain a finished worker according to the {@link RetentionPolicy}
+     *
+     * @param worker the finished {@link IWorker}
+     */
+    @Override
+    protected void retainFinishedWorker(IWorker worker) {
+        finishedWorkerStore().put(worker);
     }
 
     /**
@@ -167,4 +384,112 @@ abstract public class BaseAbstractWorkerManager extends AbstractWorkerManager {
         return _runningWorkers;
     }
 
+    /**
+     * @return the breaker of the worker's group, created on first use, or {@code null} if the worker is not guarded
+     */
+    private CircuitBreaker breakerOf(IWorker worker)
+    {
+        CircuitBreakerPolicy policy = _breakerPolicy;
+        String group                = worker instanceof IGroup ? ((IGroup) worker).getGroup() : null;
+
+        if(policy == null || group == null)
+            return null;
+
+        CircuitBreaker breaker      = _breakers.get(group);
+
+        if(breaker == null)
+            _breakers.put(group, breaker = new CircuitBreaker(group, policy));
+
+        return breaker;
+    }
+
+    private void onGuardedWorkerFinished(IWorker worker, boolean success)
+    {
+        CircuitBreaker breaker = _guardedWorkers.remove(worker);
+
+        if(breaker == null)
+            return;
+
+        boolean trial               = _trialWorkers.remove(worker) != null;
+        CircuitBreaker.STATE from   = breaker.getState();
+
+        if(success)
+            breaker.onSuccess(trial);
+        else
+            breaker.onFailure(trial);
+
+        onBreakerChanged(breaker, from);
+    }
+
+    /**
+     * react to a state transition of a breaker: an open breaker half opens after it's cool
+     * down, and the parked workers of a breaker that is no longer open are pending again.
+     */
+    private void onBreakerChanged(final CircuitBreaker breaker, CircuitBreaker.STATE from)
+    {
+        CircuitBreaker.STATE to = breaker.getState();
+
+        if(to == from)
+            return;
+
+        if(Trace.isLoggable(TraceLevel.INFO))
+            Trace.log(TraceLevel.INFO, WorkerManagerStatus.ZORN_STATUS_TAG, "%s: circuit of group %s is %s", getId(), breaker.getGroup(), to);
+
+        if(to == CircuitBreaker.STATE.OPEN)
+            Zorn.defaultTimerWheel.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    onCooldown(breaker);
+                }
+            }, _breakerPolicy.getCooldownNanos(), TimeUnit.NANOSECONDS);
+        else
+            unpark(breaker.getGroup());
+
+        CircuitBreakerObserver observer = _breakerObserver;
+
+        if(observer != null)
+            observer.onStateChange(breaker, from, to);
+    }
+
+    /**
+     * the cool down of an open breaker has passed
+     */
+    private synchronized void onCooldown(CircuitBreaker breaker)
+    {
+        if(_breakers.get(breaker.getGroup()) != breaker)
+            return;
+
+        CircuitBreaker.STATE from = breaker.getState();
+
+        if(breaker.tryHalfOpen())
+            onBreakerChanged(breaker, from);
+
+        if(isRunning())
+            tryRunNextWorker();
+    }
+
+    /**
+     * move the parked workers of a group back into the pending workers
+     */
+    private void unpark(String group)
+    {
+        ArrayDeque<IWorker> parked = _parkedWorkers.remove(group);
+
+        if(parked == null)
+            return;
+
+        _numParked -= parked.size();
+
+        for (IWorker worker : parked) {
+            onEnqueue(worker);
+        }
+    }
+
+    private synchronized FinishedWorkerStore finishedWorkerStore() {
+        if(_finishedWorkers == null)
+            _finishedWorkers = FinishedWorkerStore.create(_retentionPolicy);
+
+        return _finishedWorkers;
+    }
+
 }
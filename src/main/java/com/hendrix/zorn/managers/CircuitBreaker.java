@@ -0,0 +1,246 @@
+package com.hendrix.zorn.managers;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * the circuit breaker of a group of workers in a worker manager, with counters of it's
+ * state transitions. the manager drives it under it's own lock, the getters can be read
+ * from any thread.
+ *
+ * @author Tomer Shalev
+ *
+ * @see CircuitBreakerPolicy
+ */
+@SuppressWarnings("UnusedDeclaration")
+public final class CircuitBreaker {
+
+    /**
+     * <li/>{@code CLOSED} - workers of the group run, and their failure rate is measured.
+     * <li/>{@code OPEN} - workers of the group do not run, until the cool down has passed.
+     * <li/>{@code HALF_OPEN} - a few trial workers of the group run, and decide if it closes or opens again.
+     */
+    public enum STATE {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String                _group;
+    private final CircuitBreakerPolicy  _policy;
+
+    /**
+     * the outcomes of the last workers, {@code true} for a failure
+     */
+    private final boolean[]             _window;
+    private int                         _windowNext         = 0;
+    private int                         _windowCount        = 0;
+    private int                         _windowFailures     = 0;
+
+    private volatile STATE              _state              = STATE.CLOSED;
+    private volatile long               _lastTransition     = System.nanoTime();
+    private int                         _trialsRunning      = 0;
+    private int                         _trialsCompleted    = 0;
+
+    private volatile long               _numOpened          = 0;
+    private volatile long               _numHalfOpened      = 0;
+    private volatile long               _numClosed          = 0;
+    private volatile long               _numRejected        = 0;
+
+    CircuitBreaker(String group, CircuitBreakerPolicy policy) {
+        _group  = group;
+        _policy = policy;
+        _window = new boolean[policy.getWindow()];
+    }
+
+    /**
+     * @return the group of the breaker
+     */
+    public String getGroup() {
+        return _group;
+    }
+
+    public STATE getState() {
+        return _state;
+    }
+
+    /**
+     * @return the {@code System.nanoTime()} of the last state transition
+     */
+    public long getLastTransitionTime() {
+        return _lastTransition;
+    }
+
+    /**
+     * @return the failure rate of the last workers of the group, while closed
+     */
+    public synchronized double getFailureRate() {
+        return _windowCount == 0 ? 0 : (double) _windowFailures / _windowCount;
+    }
+
+    /**
+     * @return the number of times the breaker has tripped open
+     */
+    public long getNumOpened() {
+        return _numOpened;
+    }
+
+    /**
+     * @return the number of times the breaker has half opened
+     */
+    public long getNumHalfOpened() {
+        return _numHalfOpened;
+    }
+
+    /**
+     * @return the number of times the breaker has closed after it was half open
+     */
+    public long getNumClosed() {
+        return _numClosed;
+    }
+
+    /**
+     * @return the number of times a worker was failed or parked instead of running, a parked
+     * worker that is parked again counts again
+     */
+    public long getNumRejected() {
+        return _numRejected;
+    }
+
+    /**
+     * may a worker of the group run now?
+     *
+     * @return {@code 0} if it may not, {@code 1} if it may, {@code 2} if it may as a trial worker
+     */
+    synchronized int tryAcquire()
+    {
+        if(_state == STATE.OPEN)
+            tryHalfOpen();
+
+        switch (_state) {
+            case CLOSED:
+                return 1;
+            case HALF_OPEN:
+                if(_trialsRunning + _trialsCompleted < _policy.getTrials()) {
+                    _trialsRunning += 1;
+
+                    return 2;
+                }
+
+                break;
+        }
+
+        // open, or half open and the trials are out
+        _numRejected += 1;
+
+        return 0;
+    }
+
+    /**
+     * a worker of the group has completed
+     *
+     * @param trial {@code true} if it ran as a trial worker
+     */
+    synchronized void onSuccess(boolean trial)
+    {
+        if(trial) {
+            if(_state != STATE.HALF_OPEN)
+                return;
+
+            _trialsRunning     -= 1;
+            _trialsCompleted   += 1;
+
+            if(_trialsCompleted >= _policy.getTrials())
+                transition(STATE.CLOSED);
+
+            return;
+        }
+
+        if(_state == STATE.CLOSED)
+            record(false);
+    }
+
+    /**
+     * a worker of the group has failed
+     *
+     * @param trial {@code true} if it ran as a trial worker
+     */
+    synchronized void onFailure(boolean trial)
+    {
+        if(trial) {
+            if(_state == STATE.HALF_OPEN)
+                transition(STATE.OPEN);
+
+            return;
+        }
+
+        if(_state != STATE.CLOSED)
+            return;
+
+        record(true);
+
+        if(_windowCount >= _policy.getMinimumCalls() && _windowFailures >= _policy.getThreshold() * _windowCount)
+            transition(STATE.OPEN);
+    }
+
+    /**
+     * half open, if the breaker is open and the cool down has passed
+     *
+     * @return {@code true} if it has half opened
+     */
+    synchronized boolean tryHalfOpen()
+    {
+        if(_state != STATE.OPEN || System.nanoTime() - _lastTransition < _policy.getCooldownNanos())
+            return false;
+
+        transition(STATE.HALF_OPEN);
+
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "CircuitBreaker:: group=" + _group + ", state=" + _state + ", failureRate=" + getFailureRate()
+                + ", opened#=" + _numOpened + ", halfOpened#=" + _numHalfOpened + ", closed#=" + _numClosed
+                + ", rejected#=" + _numRejected + ", since=" + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - _lastTransition) + "ms";
+    }
+
+    private void record(boolean failure)
+    {
+        if(_windowCount == _window.length) {
+            if(_window[_windowNext])
+                _windowFailures -= 1;
+        }
+        else
+            _windowCount    += 1;
+
+        _window[_windowNext] = failure;
+
+        if(failure)
+            _windowFailures += 1;
+
+        _windowNext         = (_windowNext + 1) % _window.length;
+    }
+
+    private void transition(STATE state)
+    {
+        _state              = state;
+        _lastTransition     = System.nanoTime();
+        _trialsRunning      = 0;
+        _trialsCompleted    = 0;
+
+        switch (state) {
+            case OPEN:
+                _numOpened     += 1;
+                break;
+            case HALF_OPEN:
+                _numHalfOpened += 1;
+                break;
+            case CLOSED:
+                _numClosed     += 1;
+
+                _windowNext     = 0;
+                _windowCount    = 0;
+                _windowFailures = 0;
+                break;
+        }
+    }
+
+}
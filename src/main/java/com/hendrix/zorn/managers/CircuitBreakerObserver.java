@@ -0,0 +1,16 @@
+package com.hendrix.zorn.managers;
+
+/**
+ * callback interface for the state transitions of the circuit breakers of a worker manager.
+ * it is called under the lock of the manager, keep it short.
+ *
+ * @see BaseAbstractWorkerManager#setCircuitBreakerObserver(CircuitBreakerObserver)
+ */
+public interface CircuitBreakerObserver {
+    /**
+     * @param breaker   the breaker, of the group of workers
+     * @param from      the previous state
+     * @param to        the new state
+     */
+    void onStateChange(CircuitBreaker breaker, CircuitBreaker.STATE from, CircuitBreaker.STATE to);
+}
@@ -0,0 +1,144 @@
+package com.hendrix.zorn.managers;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * an immutable policy of the circuit breakers of a worker manager, one breaker for every
+ * group of workers (see {@link com.hendrix.zorn.interfaces.IGroup}).
+ * <pre>
+ *     manager.setCircuitBreakerPolicy(CircuitBreakerPolicy.failureRate(0.5, 20, 30, TimeUnit.SECONDS)
+ *                                                         .withOpenCircuit(CircuitBreakerPolicy.OPEN_CIRCUIT.PARK));
+ * </pre>
+ * a breaker trips open when the failure rate of the last {@code window} workers of it's group reaches
+ * the threshold. while open, workers of the group are not run. after the cool down it half opens, and
+ * lets a few trial workers run: if they all complete it closes, if one fails it opens again.
+ *
+ * @author Tomer Shalev
+ */
+@SuppressWarnings("UnusedDeclaration")
+public final class CircuitBreakerPolicy {
+
+    /**
+     * what happens to a worker of a group whose breaker is open
+     *
+     * <li/>{@code FAIL} - the worker fails at once, with {@code ERROR_CIRCUIT_OPEN}.
+     * <li/>{@code PARK} - the worker is held aside, and is pending again when the breaker half opens.
+     */
+    public enum OPEN_CIRCUIT {
+        FAIL, PARK
+    }
+
+    private final double        _threshold;
+    private final int           _window;
+    private final int           _minimumCalls;
+    private final long          _cooldown;
+    private final int           _trials;
+    private final OPEN_CIRCUIT  _openCircuit;
+
+    private CircuitBreakerPolicy(double threshold, int window, int minimumCalls, long cooldown, int trials, OPEN_CIRCUIT openCircuit) {
+        _threshold      = threshold;
+        _window         = window;
+        _minimumCalls   = minimumCalls;
+        _cooldown       = cooldown;
+        _trials         = trials;
+        _openCircuit    = openCircuit;
+    }
+
+    /**
+     * a policy that trips by the failure rate of the last workers of a group, fails the workers
+     * of an open circuit, and half opens with a single trial worker.
+     *
+     * @param threshold the failure rate that trips the breaker, in {@code (0, 1]}
+     * @param window    the number of last workers the rate is measured over, it is not measured before they are all in
+     * @param cooldown  the time a breaker stays open before it half opens
+     * @param unit      the unit of {@code cooldown}
+     *
+     * @return a {@link CircuitBreakerPolicy}
+     */
+    static public CircuitBreakerPolicy failureRate(double threshold, int window, long cooldown, TimeUnit unit)
+    {
+        if(!(threshold > 0 && threshold <= 1))
+            throw new IllegalArgumentException("threshold must be in (0, 1]!!");
+
+        if(window < 1)
+            throw new IllegalArgumentException("window must be positive!!");
+
+        if(cooldown < 0)
+            throw new IllegalArgumentException("cooldown must not be negative!!");
+
+        return new CircuitBreakerPolicy(threshold, window, window, unit.toNanos(cooldown), 1, OPEN_CIRCUIT.FAIL);
+    }
+
+    /**
+     * @param minimumCalls the number of workers the rate is measured over at least, in {@code [1, window]}
+     *
+     * @return a copy of this policy, that measures the rate before the window is full
+     */
+    public CircuitBreakerPolicy withMinimumCalls(int minimumCalls)
+    {
+        if(minimumCalls < 1 || minimumCalls > _window)
+            throw new IllegalArgumentException("minimumCalls must be in [1, window]!!");
+
+        return new CircuitBreakerPolicy(_threshold, _window, minimumCalls, _cooldown, _trials, _openCircuit);
+    }
+
+    /**
+     * @param trials the number of trial workers of a half open breaker, at least {@code 1}
+     *
+     * @return a copy of this policy with the trials
+     */
+    public CircuitBreakerPolicy withTrials(int trials)
+    {
+        if(trials < 1)
+            throw new IllegalArgumentException("trials must be positive!!");
+
+        return new CircuitBreakerPolicy(_threshold, _window, _minimumCalls, _cooldown, trials, _openCircuit);
+    }
+
+    /**
+     * @param openCircuit what happens to a worker of a group whose breaker is open
+     *
+     * @return a copy of this policy with it
+     */
+    public CircuitBreakerPolicy withOpenCircuit(OPEN_CIRCUIT openCircuit)
+    {
+        if(openCircuit == null)
+            throw new NullPointerException("openCircuit is null!!");
+
+        return new CircuitBreakerPolicy(_threshold, _window, _minimumCalls, _cooldown, _trials, openCircuit);
+    }
+
+    public double getThreshold() {
+        return _threshold;
+    }
+
+    public int getWindow() {
+        return _window;
+    }
+
+    public int getMinimumCalls() {
+        return _minimumCalls;
+    }
+
+    /**
+     * @return the cool down in nanoseconds
+     */
+    public long getCooldownNanos() {
+        return _cooldown;
+    }
+
+    public int getTrials() {
+        return _trials;
+    }
+
+    public OPEN_CIRCUIT getOpenCircuit() {
+        return _openCircuit;
+    }
+
+    @Override
+    public String toString() {
+        return "CircuitBreakerPolicy:: threshold=" + _threshold + ", window=" + _window + ", cooldown="
+                + TimeUnit.NANOSECONDS.toMillis(_cooldown) + "ms, trials=" + _trials + ", openCircuit=" + _openCircuit;
+    }
+
+}
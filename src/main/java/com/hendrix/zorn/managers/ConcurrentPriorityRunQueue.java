@@ -0,0 +1,270 @@
+package com.hendrix.zorn.managers;
+
+import com.hendrix.zorn.interfaces.IPriority;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * a lock free run queue ordered by {@link IPriority}, higher priority first, and FIFO
+ * among equal priorities. safe for many producers and consumers.
+ *
+ * <ul>
+ *     <li/>priorities in {@code [0, 63]} have a band each, a {@link ConcurrentLinkedQueue}, and a
+ *     bitmap of the non empty bands finds the highest band in {@code O(1)}.
+ *     <li/>priorities outside the range are kept in sorted overflow bands.
+ * </ul>
+ *
+ * @author Tomer Shalev
+ */
+@SuppressWarnings("UnusedDeclaration")
+public class ConcurrentPriorityRunQueue<T extends IPriority> implements RunQueue<T> {
+    static public final int NUM_BANDS       = 64;
+
+    /**
+     * the bands for priorities {@code [0, 63]}
+     */
+    private final ConcurrentLinkedQueue<T>[] _bands;
+    /**
+     * bit {@code i} is set when band {@code i} might be non empty
+     */
+    private final AtomicLong _bitmap        = new AtomicLong(0);
+    /**
+     * bands for priorities above {@code 63} or below {@code 0}
+     */
+    private final ConcurrentSkipListMap<Integer, ConcurrentLinkedQueue<T>> _overflow;
+    /**
+     * the number of elements, updated before an insertion and after a removal,
+     * so it never under counts.
+     */
+    private final AtomicInteger _size       = new AtomicInteger(0);
+
+    public ConcurrentPriorityRunQueue() {
+        _bands      = genericArray(new ConcurrentLinkedQueue<?>[NUM_BANDS]);
+        _overflow   = new ConcurrentSkipListMap<>();
+
+        for (int ix = 0; ix < NUM_BANDS; ix++) {
+            _bands[ix] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    /**
+     * insert an element
+     *
+     * @param element the element
+     */
+    @Override
+    public void offer(T element)
+    {
+        int priority = element.getPriority();
+
+        _size.incrementAndGet();
+
+        if(priority >= 0 && priority < NUM_BANDS) {
+            _bands[priority].offer(element);
+
+            setBit(priority);
+        }
+        else
+            overflowBandOf(priority).offer(element);
+    }
+
+    /**
+     * insert many elements. the elements of every band are linked in with a single
+     * {@code addAll}, and the bitmap is updated once.
+     *
+     * @param elements the elements
+     */
+    @Override
+    public void offerAll(Collection<? extends T> elements)
+    {
+        ArrayList<T>[] grouped  = genericArray(new ArrayList<?>[NUM_BANDS]);
+        long mask               = 0;
+        int priority;
+
+        _size.addAndGet(elements.size());
+
+        for (T element : elements) {
+            priority = element.getPriority();
+
+            if(priority < 0 || priority >= NUM_BANDS) {
+                overflowBandOf(priority).offer(element);
+
+                continue;
+            }
+
+            if(grouped[priority] == null)
+                grouped[priority] = new ArrayList<>();
+
+            grouped[priority].add(element);
+            mask |= 1L << priority;
+        }
+
+        for (int band = 0; band < NUM_BANDS; band++) {
+            if(grouped[band] != null)
+                _bands[band].addAll(grouped[band]);
+        }
+
+        setBits(mask);
+    }
+
+    /**
+     * retrieve and remove the element with the highest priority
+     *
+     * @return the element, or {@code null} if the queue is empty
+     */
+    @Override
+    public T poll()
+    {
+        T element = pollOverflow(true);
+
+        if(element == null)
+            element = pollBands();
+
+        if(element == null)
+            element = pollOverflow(false);
+
+        if(element != null)
+            _size.decrementAndGet();
+
+        return element;
+    }
+
+    /**
+     * @return the number of elements, might include elements that are being inserted at the moment
+     */
+    @Override
+    public int size()
+    {
+        return _size.get();
+    }
+
+    /**
+     * @return {@code true} if the queue is empty
+     */
+    @Override
+    public boolean isEmpty()
+    {
+        return _size.get() == 0;
+    }
+
+    /**
+     * remove all of the elements
+     */
+    @Override
+    public void clear()
+    {
+        while (poll() != null);
+    }
+
+    private T pollBands()
+    {
+        long bits;
+        int band;
+        T element;
+
+        while ((bits = _bitmap.get()) != 0) {
+            band    = 63 - Long.numberOfLeadingZeros(bits);
+            element = _bands[band].poll();
+
+            if(element != null)
+                return element;
+
+            // the band was drained, clear it's bit. a producer that inserted before the
+            // clear is caught by the re check, one that inserts after sets the bit itself.
+            clearBit(band);
+
+            if(!_bands[band].isEmpty())
+                setBit(band);
+        }
+
+        return null;
+    }
+
+    /**
+     * @param high poll the bands above {@code 63} if {@code true}, below {@code 0} otherwise
+     */
+    private T pollOverflow(boolean high)
+    {
+        if(_overflow.isEmpty())
+            return null;
+
+        Map<Integer, ConcurrentLinkedQueue<T>> bands = high ? _overflow.tailMap(NUM_BANDS).descendingMap()
+                                                            : _overflow.headMap(0).descendingMap();
+        T element;
+
+        for (ConcurrentLinkedQueue<T> band : bands.values()) {
+            element = band.poll();
+
+            if(element != null)
+                return element;
+        }
+
+        return null;
+    }
+
+    private ConcurrentLinkedQueue<T> overflowBandOf(int priority)
+    {
+        ConcurrentLinkedQueue<T> band = _overflow.get(priority);
+
+        if(band != null)
+            return band;
+
+        band                            = new ConcurrentLinkedQueue<>();
+        ConcurrentLinkedQueue<T> prev   = _overflow.putIfAbsent(priority, band);
+
+        return prev != null ? prev : band;
+    }
+
+    private void setBit(int band)
+    {
+        long mask = 1L << band;
+        long bits;
+
+        while (((bits = _bitmap.get()) & mask) == 0) {
+            if(_bitmap.compareAndSet(bits, bits | mask))
+                return;
+        }
+    }
+
+    private void setBits(long mask)
+    {
+        long bits;
+
+        while (((bits = _bitmap.get()) & mask) != mask) {
+            if(_bitmap.compareAndSet(bits, bits | mask))
+                return;
+        }
+    }
+
+    /**
+     * view an array of a wildcard type as an array of a parameterized one, which java can not create.
+     * safe as long as only elements of the parameterized type are stored into it.
+     *
+     * @param array an empty array, for example {@code new ArrayList<?>[n]}
+     *
+     * @return the same array
+     */
+    @SuppressWarnings("unchecked")
+    static private <A> A[] genericArray(Object[] array)
+    {
+        return (A[]) array;
+    }
+
+    private void clearBit(int band)
+    {
+        long mask = 1L << band;
+        long bits;
+
+        while (((bits = _bitmap.get()) & mask) != 0) {
+            if(_bitmap.compareAndSet(bits, bits & ~mask))
+                return;
+        }
+    }
+
+}
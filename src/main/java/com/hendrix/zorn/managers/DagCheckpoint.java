@@ -0,0 +1,275 @@
+package com.hendrix.zorn.managers;
+
+import com.hendrix.zorn.workers.IWorker;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * the durable progress of a graph of workers of a {@link TopologicalWorkerManager}, so a run that was
+ * cut short by a crash resumes from it's frontier instead of from the start. see
+ * {@link TopologicalWorkerManager.Builder#checkpoint(File)}.
+ *
+ * <ul>
+ *     <li/>the file is a header with the fingerprint of the graph, and a bitmap of the completed
+ *     vertices, one bit per worker in the order the workers were added to the builder.
+ *     <li/>the file is memory mapped, so a completion is a single byte written to the page cache,
+ *     which survives a crash of the process. use {@link #sync()} to survive a crash of the device as well.
+ *     <li/>the fingerprint covers the ids of the workers and the edges. a checkpoint of another
+ *     graph is discarded, and so is a checkpoint of a graph that has completed.
+ * </ul>
+ *
+ * @author Tomer Shalev
+ */
+@SuppressWarnings("UnusedDeclaration")
+public final class DagCheckpoint {
+    static final int    MAGIC               = 0x5A524E43;
+    static final int    VERSION             = 1;
+    static final int    HEADER_SIZE         = 20;
+
+    static private final long FNV_BASIS     = 0xcbf29ce484222325L;
+    static private final long FNV_PRIME     = 0x100000001b3L;
+
+    private final File              _file;
+    private final long              _fingerprint;
+    private final int               _size;
+
+    private RandomAccessFile        _raf;
+    private FileChannel             _channel;
+    private MappedByteBuffer        _buffer;
+
+    private volatile int            _numCompleted   = 0;
+    private boolean                 _resumed        = false;
+    private boolean                 _closed         = false;
+
+    private DagCheckpoint(File file, long fingerprint, int size) {
+        _file           = file;
+        _fingerprint    = fingerprint;
+        _size           = size;
+    }
+
+    /**
+     * open the checkpoint of a graph, or start a new one if the file does not exist, or
+     * belongs to another graph, or to a graph that has completed.
+     *
+     * @param file          the checkpoint file
+     * @param fingerprint   the fingerprint of the graph
+     * @param size          the number of vertices of the graph
+     *
+     * @return the {@link DagCheckpoint}
+     *
+     * @throws IOException if the file can not be read or written
+     */
+    static DagCheckpoint open(File file, long fingerprint, int size) throws IOException
+    {
+        DagCheckpoint checkpoint = new DagCheckpoint(file, fingerprint, size);
+
+        checkpoint.openFile();
+
+        return checkpoint;
+    }
+
+    /**
+     * a {@code 64} bit {@code FNV-1a} hash of the ids of the vertices, in order, and of the edges
+     * as pairs of indices. it does not depend on a topological order.
+     *
+     * @param vertices      the vertices, in order
+     * @param indices       the index of every vertex
+     * @param successors    the successors of every vertex
+     *
+     * @return the fingerprint
+     */
+    static long fingerprint(List<IWorker> vertices, Map<IWorker, Integer> indices,
+                            Map<IWorker, ? extends Collection<IWorker>> successors)
+    {
+        long hash = mix(FNV_BASIS, vertices.size());
+
+        for (IWorker vertex : vertices) {
+            String id = vertex.getId();
+
+            if(id == null)
+                hash = mix(hash, -1);
+            else {
+                hash = mix(hash, id.length());
+
+                for (int ix = 0; ix < id.length(); ix++) {
+                    hash = mix(hash, id.charAt(ix));
+                }
+            }
+        }
+
+        for (IWorker vertex : vertices) {
+            for (IWorker successor : successors.get(vertex)) {
+                hash = mix(hash, indices.get(vertex));
+                hash = mix(hash, indices.get(successor));
+            }
+        }
+
+        return hash;
+    }
+
+    public File getFile() {
+        return _file;
+    }
+
+    public long getFingerprint() {
+        return _fingerprint;
+    }
+
+    /**
+     * @return the number of vertices of the graph
+     */
+    public int size() {
+        return _size;
+    }
+
+    /**
+     * @return the number of completed vertices
+     */
+    public int getNumCompleted() {
+        return _numCompleted;
+    }
+
+    /**
+     * @return {@code true} if the progress of a prior run of the same graph was found when it was opened
+     */
+    public boolean isResumed() {
+        return _resumed;
+    }
+
+    /**
+     * @param index the index of the vertex
+     *
+     * @return {@code true} if the vertex has completed
+     */
+    public synchronized boolean isCompleted(int index) {
+        return !_closed && (_buffer.get(HEADER_SIZE + (index >>> 3)) & (1 << (index & 7))) != 0;
+    }
+
+    /**
+     * flush the checkpoint to the storage device
+     */
+    public synchronized void sync() {
+        if(!_closed)
+            _buffer.force();
+    }
+
+    /**
+     * flush and close the checkpoint
+     *
+     * @throws IOException if the file could not be closed
+     */
+    public synchronized void close() throws IOException {
+        if(_closed)
+            return;
+
+        _closed = true;
+
+        _buffer.force();
+        _channel.close();
+        _raf.close();
+
+        _buffer = null;
+    }
+
+    @Override
+    public String toString() {
+        return "DagCheckpoint:: file=" + _file + ", fingerprint=" + Long.toHexString(_fingerprint) + ", completed#="
+                + _numCompleted + "/" + _size + ", resumed=" + _resumed;
+    }
+
+    /**
+     * mark a vertex as completed
+     *
+     * @param index the index of the vertex
+     *
+     * @return {@code true} if it was not marked before
+     */
+    synchronized boolean complete(int index)
+    {
+        if(_closed)
+            return false;
+
+        int offset  = HEADER_SIZE + (index >>> 3);
+        int bits    = _buffer.get(offset);
+        int bit     = 1 << (index & 7);
+
+        if((bits & bit) != 0)
+            return false;
+
+        _buffer.put(offset, (byte) (bits | bit));
+
+        _numCompleted += 1;
+
+        return true;
+    }
+
+    /**
+     * forget the progress, so the next run of the graph starts over
+     */
+    synchronized void clear()
+    {
+        if(_closed)
+            return;
+
+        for (int offset = HEADER_SIZE; offset < _buffer.capacity(); offset++) {
+            _buffer.put(offset, (byte) 0);
+        }
+
+        _numCompleted = 0;
+    }
+
+    private void openFile() throws IOException
+    {
+        long length = HEADER_SIZE + (_size + 7) / 8;
+
+        _raf        = new RandomAccessFile(_file, "rw");
+
+        boolean same = _raf.length() == length && _raf.readInt() == MAGIC && _raf.readInt() == VERSION
+                       && _raf.readLong() == _fingerprint && _raf.readInt() == _size;
+
+        if(!same)
+            _raf.setLength(length);
+
+        _channel    = _raf.getChannel();
+        _buffer     = _channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+
+        if(same) {
+            for (int offset = HEADER_SIZE; offset < length; offset++) {
+                _numCompleted += Integer.bitCount(_buffer.get(offset) & 0xFF);
+            }
+        }
+
+        // a graph that has completed starts over
+        if(_numCompleted == _size)
+            same = false;
+
+        if(!same) {
+            _buffer.putInt(0, MAGIC);
+            _buffer.putInt(4, VERSION);
+            _buffer.putLong(8, _fingerprint);
+            _buffer.putInt(16, _size);
+
+            clear();
+        }
+
+        _resumed    = same;
+    }
+
+    static private long mix(long hash, int value)
+    {
+        for (int shift = 0; shift < 32; shift += 8) {
+            hash ^= (value >>> shift) & 0xFF;
+            hash *= FNV_PRIME;
+        }
+
+        return hash;
+    }
+
+}
@@ -0,0 +1,306 @@
+package com.hendrix.zorn.managers;
+
+import com.hendrix.zorn.interfaces.IDeadline;
+import com.hendrix.zorn.workers.IWorker;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * a {@link IWorkerManager} implementation based on deadlines, earliest deadline first (EDF).
+ * the class is thread safe.
+ *
+ * <ul>
+ *     <li/>a worker's deadline is given by {@link #enqueue(IWorker, long, TimeUnit)}, or by the
+ *     worker itself if it is an {@link IDeadline}. a worker without a deadline runs after all
+ *     of the ones that have.
+ *     <li/>a worker whose deadline has passed before it has started is expired, and is either dropped
+ *     or failed, see {@link EXPIRED_POLICY}.
+ *     <li/>a worker that has started in time but completed after it's deadline is late.
+ * </ul>
+ *
+ * @author Tomer Shalev
+ */
+@SuppressWarnings("UnusedDeclaration")
+public class DeadlineWorkerManager extends BaseAbstractWorkerManager {
+
+    /**
+     * what to do with a worker whose deadline has passed before it has started
+     *
+     * <li/>{@code DROP} - stop it and forget it, quietly.
+     * <li/>{@code FAIL} - add it to the failed workers and notify an {@code ERROR_DEADLINE_MISSED},
+     * without pausing the manager.
+     */
+    public enum EXPIRED_POLICY {
+        DROP, FAIL
+    }
+
+    /**
+     * the pending workers, earliest deadline first
+     */
+    private PriorityQueue<IWorker> _pendingWorkers  = null;
+    /**
+     * the deadline of every pending and running worker
+     */
+    private HashMap<IWorker, Long> _deadlines       = null;
+
+    private EXPIRED_POLICY _expiredPolicy           = EXPIRED_POLICY.DROP;
+
+    private long _numMet                            = 0;
+    private long _numLate                           = 0;
+    private long _numExpired                        = 0;
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param id
+     */
+    public DeadlineWorkerManager(String id) {
+        super(id);
+
+        _deadlines      = new HashMap<>();
+        _pendingWorkers = new PriorityQueue<>(11, new DeadlineComparator());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public DeadlineWorkerManager() {
+        this("Anonymous Deadline Manager");
+    }
+
+    /**
+     * enqueue a {@link IWorker} with a deadline relative to now
+     *
+     * @param worker    A processable element
+     * @param timeout   the time from now after which the work is useless
+     * @param unit      the unit of {@code timeout}
+     */
+    public void enqueue(IWorker worker, long timeout, TimeUnit unit) {
+        synchronized (this) {
+            _deadlines.put(worker, System.nanoTime() + unit.toNanos(timeout));
+        }
+
+        enqueue(worker);
+    }
+
+    /**
+     * @param policy what to do with a worker whose deadline has passed before it has started
+     */
+    public synchronized void setExpiredPolicy(EXPIRED_POLICY policy) {
+        if(policy == null)
+            throw new NullPointerException("policy is null!!");
+
+        _expiredPolicy = policy;
+    }
+
+    /**
+     * @return what to do with a worker whose deadline has passed before it has started
+     */
+    public synchronized EXPIRED_POLICY getExpiredPolicy() {
+        return _expiredPolicy;
+    }
+
+    /**
+     * @return the number of workers that have completed by their deadline
+     */
+    public synchronized long getNumDeadlinesMet() {
+        return _numMet;
+    }
+
+    /**
+     * @return the number of workers that have started in time, but completed after their deadline
+     */
+    public synchronized long getNumLate() {
+        return _numLate;
+    }
+
+    /**
+     * @return the number of workers whose deadline has passed before they have started
+     */
+    public synchronized long getNumExpired() {
+        return _numExpired;
+    }
+
+    /**
+     * @return the fraction of workers with a deadline that have missed it, either late or expired
+     */
+    public synchronized double getDeadlineMissRate() {
+        long total = _numMet + _numLate + _numExpired;
+
+        return total == 0 ? 0 : (double) (_numLate + _numExpired) / total;
+    }
+
+    /**
+     * forget the deadline statistics
+     */
+    public synchronized void resetDeadlineStatistics() {
+        _numMet     = 0;
+        _numLate    = 0;
+        _numExpired = 0;
+    }
+
+    /**
+     * process complete callback, records if the worker has met it's deadline.
+     *
+     * @param worker the completed process
+     */
+    @Override
+    public synchronized void onWorkerComplete(IWorker worker) {
+        Long deadline = _deadlines.remove(worker);
+
+        if(deadline != null) {
+            if(System.nanoTime() - deadline > 0)
+                _numLate    += 1;
+            else
+                _numMet     += 1;
+        }
+
+        super.onWorkerComplete(worker);
+    }
+
+    /**
+     * process error callback. a worker that is retried keeps it's deadline.
+     *
+     * @param worker the erroneous process
+     */
+    @Override
+    public synchronized void onWorkerError(IWorker worker) {
+        super.onWorkerError(worker);
+
+        if(!isRetryScheduled(worker))
+            _deadlines.remove(worker);
+    }
+
+    /**
+     * a worker whose deadline has passed is expired instead of running, a rejection the
+     * manager accounts for when it checks for completion.
+     *
+     * @param worker the {@link IWorker}
+     *
+     * @return {@code true} to run the worker
+     */
+    @Override
+    protected synchronized boolean admitWorker(IWorker worker) {
+        Long deadline = _deadlines.get(worker);
+
+        if(deadline != null && System.nanoTime() - deadline > 0) {
+            expire(worker);
+
+            return false;
+        }
+
+        return super.admitWorker(worker);
+    }
+
+    /**
+     * remove every pending worker, when the manager is stopped.
+     */
+    @Override
+    protected synchronized void clearPendingWorkers() {
+        for (IWorker worker : _pendingWorkers) {
+            _deadlines.remove(worker);
+        }
+
+        _pendingWorkers.clear();
+    }
+
+    /**
+     * get the next {@link IWorker} proposed for execution, the one with the earliest
+     * deadline. an expired worker is not admitted, see {@link #admitWorker(IWorker)}.
+     *
+     * @return {@link IWorker}, allowed to return {@code null}.
+     */
+    @Override
+    protected synchronized IWorker getNextWorker() {
+        return _pendingWorkers.poll();
+    }
+
+    /**
+     * save the worker by it's deadline
+     *
+     * @param worker {@link IWorker}
+     */
+    @Override
+    protected synchronized void onEnqueue(IWorker worker) {
+        if(!_deadlines.containsKey(worker) && worker instanceof IDeadline)
+            _deadlines.put(worker, ((IDeadline) worker).getDeadline());
+
+        _pendingWorkers.add(worker);
+    }
+
+    /**
+     * the size of pending workers
+     *
+     * @return the size
+     */
+    @Override
+    protected synchronized int sizePendingWorkers() {
+        return _pendingWorkers.size();
+    }
+
+    /**
+     * dispose the object
+     */
+    @Override
+    public void dispose() {
+        super.dispose();
+
+        _pendingWorkers.clear();
+        _deadlines.clear();
+
+        _pendingWorkers = null;
+        _deadlines      = null;
+    }
+
+    private void expire(IWorker worker) {
+        _deadlines.remove(worker);
+
+        _numExpired += 1;
+
+        if(_expiredPolicy == EXPIRED_POLICY.DROP) {
+            worker.stop();
+
+            dropWorker(worker);
+
+            return;
+        }
+
+        failWorker(worker, new WorkerManagerErrorInfo(WorkerManagerErrorInfo.ErrorCode.ERROR_DEADLINE_MISSED,
+                                                      "Worker with ID: " + worker.getId() + " missed it's deadline!!", worker.getId()));
+    }
+
+    /**
+     * a custom {@link Comparator} for the pending workers, earliest deadline first.
+     * workers without a deadline go last, ties are resolved by {@code IPriority}.
+     */
+    private class DeadlineComparator implements Comparator<IWorker>
+    {
+        @Override
+        public int compare(IWorker x, IWorker y)
+        {
+            Long dx = _deadlines.get(x);
+            Long dy = _deadlines.get(y);
+
+            if(dx != null && dy != null && !dx.equals(dy))
+                return dx - dy < 0 ? -1 : 1;
+
+            if(dx != null && dy == null)
+                return -1;
+
+            if(dx == null && dy != null)
+                return 1;
+
+            if (x.getPriority() < y.getPriority())
+                return 1;
+
+            if (x.getPriority() > y.getPriority())
+                return -1;
+
+            return 0;
+        }
+    }
+
+}
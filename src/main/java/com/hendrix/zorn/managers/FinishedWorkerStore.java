@@ -0,0 +1,298 @@
+package com.hendrix.zorn.managers;
+
+import com.hendrix.zorn.workers.IWorker;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * the finished workers of a manager by id, bounded by a {@link RetentionPolicy}.
+ * the class is thread safe.
+ *
+ * @author Tomer Shalev
+ */
+abstract class FinishedWorkerStore {
+
+    /**
+     * @param policy the {@link RetentionPolicy}
+     *
+     * @return a store for the policy
+     */
+    static FinishedWorkerStore create(RetentionPolicy policy)
+    {
+        switch (policy.kind) {
+            case NONE:
+                return new None();
+            case LAST_N:
+                return new LastN((int) policy.bound);
+            case TIME_WINDOW:
+                return new TimeWindow(policy.bound);
+            case WEAK:
+                return new References(false);
+            case SOFT:
+                return new References(true);
+            default:
+                return new Unbounded();
+        }
+    }
+
+    /**
+     * retain a finished worker, replacing a former one with the same id
+     */
+    abstract void put(IWorker worker);
+
+    /**
+     * @return the finished worker, or {@code null} if it is not retained
+     */
+    abstract IWorker get(String id);
+
+    /**
+     * @return a copy of the retained workers by id, oldest first
+     */
+    abstract Map<String, IWorker> snapshot();
+
+    abstract int size();
+
+    abstract void clear();
+
+    static private final class None extends FinishedWorkerStore {
+        @Override void put(IWorker worker) {
+        }
+
+        @Override IWorker get(String id) {
+            return null;
+        }
+
+        @Override Map<String, IWorker> snapshot() {
+            return new LinkedHashMap<>();
+        }
+
+        @Override int size() {
+            return 0;
+        }
+
+        @Override void clear() {
+        }
+    }
+
+    static private final class Unbounded extends FinishedWorkerStore {
+        private final LinkedHashMap<String, IWorker> _workers = new LinkedHashMap<>();
+
+        @Override synchronized void put(IWorker worker) {
+            _workers.put(worker.getId(), worker);
+        }
+
+        @Override synchronized IWorker get(String id) {
+            return _workers.get(id);
+        }
+
+        @Override synchronized Map<String, IWorker> snapshot() {
+            return new LinkedHashMap<>(_workers);
+        }
+
+        @Override synchronized int size() {
+            return _workers.size();
+        }
+
+        @Override synchronized void clear() {
+            _workers.clear();
+        }
+    }
+
+    static private final class LastN extends FinishedWorkerStore {
+        private final LinkedHashMap<String, IWorker> _workers;
+
+        LastN(final int count) {
+            _workers = new LinkedHashMap<String, IWorker>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, IWorker> eldest) {
+                    return size() > count;
+                }
+            };
+        }
+
+        @Override synchronized void put(IWorker worker) {
+            _workers.remove(worker.getId());
+            _workers.put(worker.getId(), worker);
+        }
+
+        @Override synchronized IWorker get(String id) {
+            return _workers.get(id);
+        }
+
+        @Override synchronized Map<String, IWorker> snapshot() {
+            return new LinkedHashMap<>(_workers);
+        }
+
+        @Override synchronized int size() {
+            return _workers.size();
+        }
+
+        @Override synchronized void clear() {
+            _workers.clear();
+        }
+    }
+
+    static private final class TimeWindow extends FinishedWorkerStore {
+        private final long _window;
+        /**
+         * the workers in finish order, and the time they have finished
+         */
+        private final LinkedHashMap<String, IWorker> _workers    = new LinkedHashMap<>();
+        private final HashMap<String, Long> _finishTimes        = new HashMap<>();
+
+        TimeWindow(long window) {
+            _window = window;
+        }
+
+        @Override synchronized void put(IWorker worker) {
+            long now = System.nanoTime();
+
+            expire(now);
+
+            _workers.remove(worker.getId());
+            _workers.put(worker.getId(), worker);
+            _finishTimes.put(worker.getId(), now);
+        }
+
+        @Override synchronized IWorker get(String id) {
+            expire(System.nanoTime());
+
+            return _workers.get(id);
+        }
+
+        @Override synchronized Map<String, IWorker> snapshot() {
+            expire(System.nanoTime());
+
+            return new LinkedHashMap<>(_workers);
+        }
+
+        @Override synchronized int size() {
+            expire(System.nanoTime());
+
+            return _workers.size();
+        }
+
+        @Override synchronized void clear() {
+            _workers.clear();
+            _finishTimes.clear();
+        }
+
+        /**
+         * remove the oldest workers, as long as they are outside the window
+         */
+        private void expire(long now) {
+            Iterator<String> ids = _workers.keySet().iterator();
+            String id;
+
+            while (ids.hasNext()) {
+                id = ids.next();
+
+                if(now - _finishTimes.get(id) < _window)
+                    return;
+
+                ids.remove();
+                _finishTimes.remove(id);
+            }
+        }
+    }
+
+    static private final class References extends FinishedWorkerStore {
+        private final boolean _soft;
+        private final LinkedHashMap<String, Reference<IWorker>> _workers = new LinkedHashMap<>();
+        private final ReferenceQueue<IWorker> _queue                     = new ReferenceQueue<>();
+
+        References(boolean soft) {
+            _soft = soft;
+        }
+
+        @Override synchronized void put(IWorker worker) {
+            purge();
+
+            String id = worker.getId();
+
+            _workers.remove(id);
+            _workers.put(id, _soft ? new SoftWorkerReference(id, worker, _queue)
+                                   : new WeakWorkerReference(id, worker, _queue));
+        }
+
+        @Override synchronized IWorker get(String id) {
+            purge();
+
+            Reference<IWorker> reference = _workers.get(id);
+
+            return reference == null ? null : reference.get();
+        }
+
+        @Override synchronized Map<String, IWorker> snapshot() {
+            purge();
+
+            LinkedHashMap<String, IWorker> workers = new LinkedHashMap<>();
+            IWorker worker;
+
+            for (Map.Entry<String, Reference<IWorker>> entry : _workers.entrySet()) {
+                worker = entry.getValue().get();
+
+                if(worker != null)
+                    workers.put(entry.getKey(), worker);
+            }
+
+            return workers;
+        }
+
+        @Override synchronized int size() {
+            purge();
+
+            return _workers.size();
+        }
+
+        @Override synchronized void clear() {
+            _workers.clear();
+
+            while (_queue.poll() != null);
+        }
+
+        /**
+         * remove the entries of workers that were collected
+         */
+        private void purge() {
+            Reference<? extends IWorker> reference;
+            String id;
+
+            while ((reference = _queue.poll()) != null) {
+                id = reference instanceof SoftWorkerReference ? ((SoftWorkerReference) reference).id
+                                                              : ((WeakWorkerReference) reference).id;
+
+                if(_workers.get(id) == reference)
+                    _workers.remove(id);
+            }
+        }
+    }
+
+    static private final class WeakWorkerReference extends WeakReference<IWorker> {
+        final String id;
+
+        WeakWorkerReference(String id, IWorker worker, ReferenceQueue<IWorker> queue) {
+            super(worker, queue);
+
+            this.id = id;
+        }
+    }
+
+    static private final class SoftWorkerReference extends SoftReference<IWorker> {
+        final String id;
+
+        SoftWorkerReference(String id, IWorker worker, ReferenceQueue<IWorker> queue) {
+            super(worker, queue);
+
+            this.id = id;
+        }
+    }
+
+}
@@ -5,6 +5,7 @@ import com.hendrix.zorn.workers.IWorker;
 
 import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @SuppressWarnings("UnusedDeclaration")
 public interface IWorkerManager extends IDisposable {
@@ -28,11 +29,36 @@ public interface IWorkerManager extends IDisposable {
      */
     void stop();
 
+    /**
+     * wait until the workers that were running when the process manager was stopped have
+     * left their threads.
+     *
+     * @param timeout   the maximal time to wait
+     * @param unit      the unit of {@code timeout}
+     *
+     * @return {@code true} if they have terminated, {@code false} if the timeout elapsed
+     *
+     * @throws InterruptedException if the waiting thread was interrupted
+     */
+    boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException;
+
     /**
      * retry failed processes
      */
     void retry();
 
+    /**
+     * set the maximal number of workers running at once. takes effect immediately.
+     *
+     * @param count the bound, at least {@code 1}
+     */
+    void setMaxConcurrency(int count);
+
+    /**
+     * @return the maximal number of workers running at once
+     */
+    int getMaxConcurrency();
+
     /**
      * signals completion, or more specifically
      * when status went from {@code WORKING} into {@code IDLE}.
@@ -61,6 +87,13 @@ public interface IWorkerManager extends IDisposable {
      */
     void enqueue(IWorker element);
 
+    /**
+     * enqueue many processes at once, with a single scheduling pass
+     *
+     * @param elements processable elements
+     */
+    void enqueueAll(Collection<? extends IWorker> elements);
+
     /**
      * get a finished process by it's id
      *
@@ -0,0 +1,211 @@
+package com.hendrix.zorn.managers;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+
+/**
+ * a binary heap that knows the position of every element, so unlike a {@link java.util.PriorityQueue}
+ * an arbitrary element is removed, or moved after it's key has changed, in {@code O(log n)} instead
+ * of {@code O(n)}. the smallest element by the {@link Comparator} is the head. elements are distinct,
+ * by {@code equals(..)}. the class is not thread safe.
+ *
+ * @author Tomer Shalev
+ */
+@SuppressWarnings("UnusedDeclaration")
+final class IndexedPriorityQueue<T> {
+    private final ArrayList<T>          _heap;
+    /**
+     * the index in the heap of every element
+     */
+    private final HashMap<T, Integer>   _index;
+    private final Comparator<? super T> _comparator;
+
+    IndexedPriorityQueue(Comparator<? super T> comparator) {
+        if(comparator == null)
+            throw new NullPointerException("comparator is null!!");
+
+        _heap       = new ArrayList<>();
+        _index      = new HashMap<>();
+        _comparator = comparator;
+    }
+
+    /**
+     * insert an element, an element that is already queued is ignored
+     *
+     * @param element the element
+     *
+     * @return {@code true} if the element was inserted
+     */
+    boolean add(T element)
+    {
+        if(element == null)
+            throw new NullPointerException("element is null!!");
+
+        if(_index.containsKey(element))
+            return false;
+
+        _heap.add(element);
+        _index.put(element, _heap.size() - 1);
+
+        siftUp(_heap.size() - 1);
+
+        return true;
+    }
+
+    /**
+     * retrieve and remove the head
+     *
+     * @return the head, or {@code null} if the queue is empty
+     */
+    T poll()
+    {
+        if(_heap.isEmpty())
+            return null;
+
+        T head = _heap.get(0);
+
+        removeAt(0);
+
+        return head;
+    }
+
+    /**
+     * @return the head, or {@code null} if the queue is empty
+     */
+    T peek() {
+        return _heap.isEmpty() ? null : _heap.get(0);
+    }
+
+    /**
+     * remove an element
+     *
+     * @param element the element
+     *
+     * @return {@code true} if the element was queued
+     */
+    boolean remove(Object element)
+    {
+        Integer index = _index.get(element);
+
+        if(index == null)
+            return false;
+
+        removeAt(index);
+
+        return true;
+    }
+
+    /**
+     * restore the order of an element after it's key has changed
+     *
+     * @param element the element
+     *
+     * @return {@code true} if the element is queued
+     */
+    boolean update(T element)
+    {
+        Integer index = _index.get(element);
+
+        if(index == null)
+            return false;
+
+        if(siftUp(index) == index)
+            siftDown(index);
+
+        return true;
+    }
+
+    boolean contains(Object element) {
+        return _index.containsKey(element);
+    }
+
+    int size() {
+        return _heap.size();
+    }
+
+    boolean isEmpty() {
+        return _heap.isEmpty();
+    }
+
+    void clear()
+    {
+        _heap.clear();
+        _index.clear();
+    }
+
+    private void removeAt(int index)
+    {
+        int last        = _heap.size() - 1;
+        T removed       = _heap.get(index);
+        T moved         = _heap.remove(last);
+
+        _index.remove(removed);
+
+        if(index == last)
+            return;
+
+        _heap.set(index, moved);
+        _index.put(moved, index);
+
+        if(siftUp(index) == index)
+            siftDown(index);
+    }
+
+    /**
+     * @return the final index of the element
+     */
+    private int siftUp(int index)
+    {
+        T element   = _heap.get(index);
+
+        while (index > 0) {
+            int parent  = (index - 1) >>> 1;
+            T above     = _heap.get(parent);
+
+            if(_comparator.compare(element, above) >= 0)
+                break;
+
+            place(above, index);
+
+            index       = parent;
+        }
+
+        place(element, index);
+
+        return index;
+    }
+
+    private void siftDown(int index)
+    {
+        T element   = _heap.get(index);
+        int size    = _heap.size();
+        int half    = size >>> 1;
+
+        while (index < half) {
+            int child   = 2 * index + 1;
+            int right   = child + 1;
+
+            if(right < size && _comparator.compare(_heap.get(right), _heap.get(child)) < 0)
+                child   = right;
+
+            T below     = _heap.get(child);
+
+            if(_comparator.compare(element, below) <= 0)
+                break;
+
+            place(below, index);
+
+            index       = child;
+        }
+
+        place(element, index);
+    }
+
+    private void place(T element, int index)
+    {
+        _heap.set(index, element);
+        _index.put(element, index);
+    }
+
+}
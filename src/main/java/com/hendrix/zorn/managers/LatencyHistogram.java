@@ -0,0 +1,166 @@
+package com.hendrix.zorn.managers;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * a lock free, log linear histogram of latencies in nanoseconds (HDR style).
+ * every power of two range is split into {@code 32} linear buckets, so a recorded
+ * value is reported within {@code ~3%}. recording is a couple of atomic increments
+ * and never allocates.
+ *
+ * @author Tomer Shalev
+ */
+@SuppressWarnings("UnusedDeclaration")
+public class LatencyHistogram {
+    static private final int SUB_BITS       = 5;
+    static private final int SUB_BUCKETS    = 1 << SUB_BITS;
+    static private final int NUM_BUCKETS    = (64 - SUB_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray   _counts;
+    private final AtomicLong        _count  = new AtomicLong(0);
+    private final AtomicLong        _sum    = new AtomicLong(0);
+    private final AtomicLong        _max    = new AtomicLong(0);
+
+    public LatencyHistogram() {
+        _counts = new AtomicLongArray(NUM_BUCKETS);
+    }
+
+    /**
+     * record a value
+     *
+     * @param nanos the latency in nanoseconds, negative values are recorded as {@code 0}
+     */
+    public void record(long nanos)
+    {
+        if(nanos < 0)
+            nanos = 0;
+
+        _counts.incrementAndGet(indexOf(nanos));
+        _count.incrementAndGet();
+        _sum.addAndGet(nanos);
+
+        long max;
+
+        while (nanos > (max = _max.get())) {
+            if(_max.compareAndSet(max, nanos))
+                break;
+        }
+    }
+
+    /**
+     * @return the number of recorded values
+     */
+    public long getCount() {
+        return _count.get();
+    }
+
+    /**
+     * @return the highest recorded value in nanoseconds
+     */
+    public long getMax() {
+        return _max.get();
+    }
+
+    /**
+     * @return the mean of the recorded values in nanoseconds
+     */
+    public double getMean() {
+        long count = _count.get();
+
+        return count == 0 ? 0 : (double) _sum.get() / count;
+    }
+
+    /**
+     * get a percentile of the recorded values
+     *
+     * @param percentile in {@code [0, 100]}
+     *
+     * @return the lower bound of the bucket holding the percentile, in nanoseconds
+     */
+    public long getPercentile(double percentile)
+    {
+        long count  = _count.get();
+
+        if(count == 0)
+            return 0;
+
+        long rank   = Math.max(1, (long) Math.ceil(count * percentile / 100.0));
+        long seen   = 0;
+
+        for (int ix = 0; ix < NUM_BUCKETS; ix++) {
+            seen += _counts.get(ix);
+
+            if(seen >= rank)
+                return Math.min(lowerBoundOf(ix), _max.get());
+        }
+
+        return _max.get();
+    }
+
+    /**
+     * @return a copy of this histogram, that is not affected by later recordings
+     */
+    public LatencyHistogram copy()
+    {
+        LatencyHistogram copy = new LatencyHistogram();
+
+        for (int ix = 0; ix < NUM_BUCKETS; ix++) {
+            long value = _counts.get(ix);
+
+            if(value != 0)
+                copy._counts.set(ix, value);
+        }
+
+        copy._count.set(_count.get());
+        copy._sum.set(_sum.get());
+        copy._max.set(_max.get());
+
+        return copy;
+    }
+
+    /**
+     * forget every recorded value
+     */
+    public void reset()
+    {
+        for (int ix = 0; ix < NUM_BUCKETS; ix++) {
+            _counts.set(ix, 0);
+        }
+
+        _count.set(0);
+        _sum.set(0);
+        _max.set(0);
+    }
+
+    /**
+     * @return a printable summary in microseconds
+     */
+    @Override
+    public String toString() {
+        return "count=" + getCount() + ", mean=" + (long) getMean() / 1000 + "us, p50=" + getPercentile(50) / 1000
+                + "us, p99=" + getPercentile(99) / 1000 + "us, max=" + getMax() / 1000 + "us";
+    }
+
+    static private int indexOf(long value)
+    {
+        if(value < SUB_BUCKETS)
+            return (int) value;
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + (int) ((value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1));
+    }
+
+    static private long lowerBoundOf(int index)
+    {
+        if(index < SUB_BUCKETS)
+            return index;
+
+        int group   = index / SUB_BUCKETS;
+        int sub     = index % SUB_BUCKETS;
+
+        return (long) (SUB_BUCKETS + sub) << (group - 1);
+    }
+
+}
@@ -1,14 +1,20 @@
 package com.hendrix.zorn.managers;
 
-import com.hendrix.zorn.interfaces.IPriority;
 import com.hendrix.zorn.workers.IWorker;
 
-import java.util.Comparator;
-import java.util.PriorityQueue;
-import java.util.Queue;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
 
 /**
  * a {@link IWorkerManager} implementation based on priorities. the class is thread safe.
+ * workers are inserted into the pending queue without locking, but {@code enqueue} still takes
+ * the monitor of the manager briefly, to count the worker and dispatch it, so producers contend
+ * on it (see {@code EnqueueContentionBenchmark}).
+ * <p/>
+ * under a sustained load of high priority workers, low priority ones might never run.
+ * {@link #setPriorityAging(long, TimeUnit, int)} raises the priority of a worker with the
+ * time it has waited, and {@code getMetricsSnapshot().maxQueueWaitByPriority} shows the
+ * longest wait of every priority.
  *
  * @author Tomer Shalev
  */
@@ -17,7 +23,7 @@ public class PriorityWorkerManager extends BaseAbstractWorkerManager {
     /**
      * the queue that holds pending processes
      */
-    private Queue<IWorker> _pendingWorkers = null;
+    private volatile RunQueue<IWorker> _pendingWorkers = null;
 
     /**
      * {@inheritDoc}
@@ -27,9 +33,7 @@ public class PriorityWorkerManager extends BaseAbstractWorkerManager {
     public PriorityWorkerManager(String id) {
         super(id);
 
-        Comparator<IPriority> comparator    = new PriorityComparator();
-
-        _pendingWorkers                     = new PriorityQueue<>(10, comparator);
+        _pendingWorkers = new ConcurrentPriorityRunQueue<>();
     }
 
     /**
@@ -40,12 +44,41 @@ public class PriorityWorkerManager extends BaseAbstractWorkerManager {
     }
 
     /**
-     * stop the worker manager
+     * raise the effective priority of a pending worker by one for every {@code interval} it has
+     * waited, up to {@code maxBoost}. the pending workers are kept in an {@link AgingPriorityRunQueue},
+     * that is guarded by a short lock. set it before workers are enqueued.
+     *
+     * @param interval  the wait that raises the effective priority by one, positive
+     * @param unit      the unit of {@code interval}
+     * @param maxBoost  the highest raise of the effective priority
+     *
+     * @throws IllegalStateException if there are pending workers
      */
-    @Override
-    public void stop() {
-        super.stop();
+    public synchronized void setPriorityAging(long interval, TimeUnit unit, int maxBoost) {
+        replacePendingWorkers(new AgingPriorityRunQueue<IWorker>(interval, unit, maxBoost));
+    }
 
+    /**
+     * order the pending workers strictly by priority, lock free, the default.
+     *
+     * @throws IllegalStateException if there are pending workers
+     */
+    public synchronized void disablePriorityAging() {
+        replacePendingWorkers(new ConcurrentPriorityRunQueue<IWorker>());
+    }
+
+    /**
+     * @return {@code true} if the priority of pending workers rises with their wait
+     */
+    public boolean isPriorityAging() {
+        return _pendingWorkers instanceof AgingPriorityRunQueue;
+    }
+
+    /**
+     * remove every pending worker, when the manager is stopped.
+     */
+    @Override
+    protected void clearPendingWorkers() {
         _pendingWorkers.clear();
     }
 
@@ -73,7 +106,17 @@ public class PriorityWorkerManager extends BaseAbstractWorkerManager {
      */
     @Override
     protected void onEnqueue(IWorker worker) {
-        _pendingWorkers.add(worker);
+        _pendingWorkers.offer(worker);
+    }
+
+    /**
+     * insert the workers band by band, see {@link ConcurrentPriorityRunQueue#offerAll(Collection)}
+     *
+     * @param workers the {@link IWorker}s
+     */
+    @Override
+    protected void onEnqueueAll(Collection<? extends IWorker> workers) {
+        _pendingWorkers.offerAll(workers);
     }
 
     /**
@@ -97,26 +140,11 @@ public class PriorityWorkerManager extends BaseAbstractWorkerManager {
         _pendingWorkers = null;
     }
 
-    /**
-     * a  custom {@link Comparator} used for priority resolution.
-     * used for the {@code withPriority} mode.
-     */
-    private static class PriorityComparator implements Comparator<IPriority>
-    {
-        @Override
-        public int compare(IPriority x, IPriority y)
-        {
-            if (x.getPriority() < y.getPriority())
-            {
-                return 1;
-            }
-            if (x.getPriority() > y.getPriority())
-            {
-                return -1;
-            }
-            return 0;
-        }
+    private void replacePendingWorkers(RunQueue<IWorker> queue) {
+        if(!_pendingWorkers.isEmpty())
+            throw new IllegalStateException("can not replace the queue of pending workers while there are any!!");
 
+        _pendingWorkers = queue;
     }
 
 }
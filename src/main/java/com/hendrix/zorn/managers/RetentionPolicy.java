@@ -0,0 +1,108 @@
+package com.hendrix.zorn.managers;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * the policy of a {@link BaseAbstractWorkerManager} for retaining finished workers, that can
+ * later be retrieved with {@code getFinishedWorker(id)}. a long running manager should use a
+ * bounded policy, otherwise it retains every worker it has ever finished, and it's captured state.
+ *
+ * <ul>
+ *     <li/>{@link #unbounded()} - every finished worker, the default.
+ *     <li/>{@link #none()} - nothing.
+ *     <li/>{@link #lastN(int)} - the last {@code n} finished workers.
+ *     <li/>{@link #timeWindow(long, TimeUnit)} - the workers that finished within a time window.
+ *     <li/>{@link #weakReferences()}, {@link #softReferences()} - every finished worker that is still
+ *     reachable elsewhere, or until the GC needs the memory.
+ * </ul>
+ *
+ * @author Tomer Shalev
+ */
+@SuppressWarnings("UnusedDeclaration")
+public final class RetentionPolicy {
+    enum Kind {
+        NONE, UNBOUNDED, LAST_N, TIME_WINDOW, WEAK, SOFT
+    }
+
+    static private final RetentionPolicy NONE       = new RetentionPolicy(Kind.NONE, 0);
+    static private final RetentionPolicy UNBOUNDED  = new RetentionPolicy(Kind.UNBOUNDED, 0);
+    static private final RetentionPolicy WEAK       = new RetentionPolicy(Kind.WEAK, 0);
+    static private final RetentionPolicy SOFT       = new RetentionPolicy(Kind.SOFT, 0);
+
+    final Kind kind;
+    /**
+     * the count for {@code LAST_N}, the window in nanoseconds for {@code TIME_WINDOW}
+     */
+    final long bound;
+
+    private RetentionPolicy(Kind kind, long bound) {
+        this.kind   = kind;
+        this.bound  = bound;
+    }
+
+    /**
+     * @return a policy that retains no finished worker
+     */
+    static public RetentionPolicy none() {
+        return NONE;
+    }
+
+    /**
+     * @return a policy that retains every finished worker
+     */
+    static public RetentionPolicy unbounded() {
+        return UNBOUNDED;
+    }
+
+    /**
+     * @param count the number of finished workers to retain, at least {@code 1}
+     *
+     * @return a policy that retains the last {@code count} finished workers
+     */
+    static public RetentionPolicy lastN(int count) {
+        if(count < 1)
+            throw new IllegalArgumentException("count must be positive!!");
+
+        return new RetentionPolicy(Kind.LAST_N, count);
+    }
+
+    /**
+     * @param window    the time a finished worker is retained, positive
+     * @param unit      the unit of {@code window}
+     *
+     * @return a policy that retains the workers that finished within the window
+     */
+    static public RetentionPolicy timeWindow(long window, TimeUnit unit) {
+        if(window <= 0)
+            throw new IllegalArgumentException("window must be positive!!");
+
+        return new RetentionPolicy(Kind.TIME_WINDOW, unit.toNanos(window));
+    }
+
+    /**
+     * @return a policy that retains finished workers as long as they are reachable elsewhere
+     */
+    static public RetentionPolicy weakReferences() {
+        return WEAK;
+    }
+
+    /**
+     * @return a policy that retains finished workers until the GC needs the memory
+     */
+    static public RetentionPolicy softReferences() {
+        return SOFT;
+    }
+
+    @Override
+    public String toString() {
+        switch (kind) {
+            case LAST_N:
+                return "RetentionPolicy[lastN=" + bound + "]";
+            case TIME_WINDOW:
+                return "RetentionPolicy[timeWindow=" + TimeUnit.NANOSECONDS.toMillis(bound) + "ms]";
+            default:
+                return "RetentionPolicy[" + kind + "]";
+        }
+    }
+
+}
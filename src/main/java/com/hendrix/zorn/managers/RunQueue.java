@@ -0,0 +1,29 @@
+package com.hendrix.zorn.managers;
+
+import com.hendrix.zorn.interfaces.IPriority;
+
+import java.util.Collection;
+
+/**
+ * the pending workers of a {@link PriorityWorkerManager}
+ *
+ * @author Tomer Shalev
+ */
+interface RunQueue<T extends IPriority> {
+
+    void offer(T element);
+
+    void offerAll(Collection<? extends T> elements);
+
+    /**
+     * @return the next element, or {@code null} if the queue is empty
+     */
+    T poll();
+
+    int size();
+
+    boolean isEmpty();
+
+    void clear();
+
+}
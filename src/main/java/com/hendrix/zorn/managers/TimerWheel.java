@@ -0,0 +1,274 @@
+package com.hendrix.zorn.managers;
+
+import com.hendrix.zorn.trace.Trace;
+import com.hendrix.zorn.trace.TraceLevel;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * a hashed timer wheel, for many short lived timeouts such as retries. scheduling and
+ * cancelling are {@code O(1)} and lock free, and a single daemon thread, started by the
+ * first timeout, advances the wheel once per tick. while no timeout is pending the thread
+ * is parked, so an idle wheel does not wake the device.
+ * <p/>
+ * a timeout expires within one tick after it's delay. the tasks run on the thread of the
+ * wheel, one after the other, so they should be short, for example hand the work to an executor.
+ *
+ * @author Tomer Shalev
+ */
+@SuppressWarnings("UnusedDeclaration")
+public class TimerWheel {
+    static final String ZORN_TIMER_TAG          = "Zorn Timer";
+
+    private final long                          _tickNanos;
+    private final int                           _mask;
+    /**
+     * the buckets, touched only by the thread of the wheel
+     */
+    private final ArrayDeque<Timeout>[]         _wheel;
+    /**
+     * timeouts that were scheduled and not placed into a bucket yet
+     */
+    private final ConcurrentLinkedQueue<Timeout> _added = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean                 _started = new AtomicBoolean(false);
+    private final AtomicInteger                 _pending = new AtomicInteger(0);
+
+    private volatile long                       _startTime  = 0;
+    private volatile Thread                     _thread     = null;
+    /**
+     * {@code true} while the thread of the wheel is about to park, or is parked
+     */
+    private volatile boolean                    _idle       = false;
+    private long                                _tick       = 0;
+
+    /**
+     * a scheduled task, that can be cancelled until it has expired
+     */
+    static public final class Timeout {
+        static private final int STATE_INIT         = 0;
+        static private final int STATE_CANCELLED    = 1;
+        static private final int STATE_EXPIRED      = 2;
+
+        private final Runnable      _task;
+        private final long          _deadline;
+        private final AtomicInteger _state          = new AtomicInteger(STATE_INIT);
+        private final TimerWheel    _owner;
+        private long                _rounds         = 0;
+
+        private Timeout(TimerWheel owner, Runnable task, long deadline) {
+            _owner      = owner;
+            _task       = task;
+            _deadline   = deadline;
+        }
+
+        /**
+         * cancel the timeout
+         *
+         * @return {@code true} if it was cancelled, {@code false} if it has already expired or was cancelled
+         */
+        public boolean cancel() {
+            if(!_state.compareAndSet(STATE_INIT, STATE_CANCELLED))
+                return false;
+
+            _owner._pending.decrementAndGet();
+
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return _state.get() == STATE_CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return _state.get() == STATE_EXPIRED;
+        }
+
+        private void expire() {
+            if(!_state.compareAndSet(STATE_INIT, STATE_EXPIRED))
+                return;
+
+            _owner._pending.decrementAndGet();
+
+            try {
+                _task.run();
+            } catch (RuntimeException exc) {
+                Trace.log(TraceLevel.ERROR, ZORN_TIMER_TAG, "a timeout has thrown: %s", exc);
+            }
+        }
+    }
+
+    /**
+     * a wheel of {@code 512} buckets of {@code 10} milliseconds
+     */
+    public TimerWheel() {
+        this(10, TimeUnit.MILLISECONDS, 512);
+    }
+
+    /**
+     * @param tick      the resolution of the wheel
+     * @param unit      the unit of {@code tick}
+     * @param buckets   the number of buckets, rounded up to a power of two
+     */
+    @SuppressWarnings("unchecked")
+    public TimerWheel(long tick, TimeUnit unit, int buckets) {
+        if(tick <= 0 || buckets <= 0)
+            throw new IllegalArgumentException("tick and buckets must be positive!!");
+
+        int size    = Integer.highestOneBit(buckets);
+
+        if(size < buckets)
+            size  <<= 1;
+
+        _tickNanos  = unit.toNanos(tick);
+        _mask       = size - 1;
+        _wheel      = (ArrayDeque<Timeout>[]) new ArrayDeque<?>[size];
+
+        for (int ix = 0; ix < size; ix++) {
+            _wheel[ix] = new ArrayDeque<>();
+        }
+    }
+
+    /**
+     * run a task after a delay, on the thread of the wheel
+     *
+     * @param task  the task
+     * @param delay the delay
+     * @param unit  the unit of {@code delay}
+     *
+     * @return the {@link Timeout}, to cancel the task
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit)
+    {
+        if(task == null)
+            throw new NullPointerException("task is null!!");
+
+        start();
+
+        Timeout timeout = new Timeout(this, task, System.nanoTime() + Math.max(0, unit.toNanos(delay)));
+
+        _pending.incrementAndGet();
+        _added.offer(timeout);
+
+        if(_idle)
+            LockSupport.unpark(_thread);
+
+        return timeout;
+    }
+
+    /**
+     * @return the number of timeouts that have neither expired nor were cancelled
+     */
+    public int size() {
+        return _pending.get();
+    }
+
+    private void start()
+    {
+        if(_started.get() || !_started.compareAndSet(false, true))
+            return;
+
+        _startTime      = System.nanoTime();
+
+        Thread thread   = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                loop();
+            }
+        }, "Zorn timer wheel");
+
+        thread.setDaemon(true);
+
+        _thread         = thread;
+
+        thread.start();
+    }
+
+    private void loop()
+    {
+        while (true) {
+            if(_pending.get() == 0)
+                awaitTimeouts();
+
+            long deadline = _startTime + (_tick + 1) * _tickNanos;
+            long sleep;
+
+            while ((sleep = deadline - System.nanoTime()) > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleep);
+                } catch (InterruptedException exc) {
+                    // the wheel runs for the lifetime of the process
+                }
+            }
+
+            transferAdded();
+            expireBucket(_wheel[(int) (_tick & _mask)]);
+
+            _tick += 1;
+        }
+    }
+
+    /**
+     * park while no timeout is pending, then skip the ticks that have passed meanwhile
+     */
+    private void awaitTimeouts()
+    {
+        _idle = true;
+
+        // a timeout scheduled after the check sees the flag, and unparks
+        while (_pending.get() == 0) {
+            LockSupport.park(this);
+        }
+
+        _idle = false;
+
+        // the buckets hold only cancelled timeouts, so the wheel can jump to the current tick
+        _tick = Math.max(_tick, (System.nanoTime() - _startTime) / _tickNanos);
+    }
+
+    /**
+     * place the newly scheduled timeouts into their buckets
+     */
+    private void transferAdded()
+    {
+        Timeout timeout;
+
+        while ((timeout = _added.poll()) != null) {
+            if(timeout.isCancelled())
+                continue;
+
+            long ticks          = (timeout._deadline - _startTime + _tickNanos - 1) / _tickNanos;
+
+            // a timeout whose tick has passed expires with the current one
+            ticks               = Math.max(ticks, _tick);
+            timeout._rounds     = (ticks - _tick) / _wheel.length;
+
+            _wheel[(int) (ticks & _mask)].add(timeout);
+        }
+    }
+
+    private void expireBucket(ArrayDeque<Timeout> bucket)
+    {
+        Timeout timeout;
+
+        for (int count = bucket.size(); count > 0; count--) {
+            timeout = bucket.poll();
+
+            if(timeout.isCancelled())
+                continue;
+
+            if(timeout._rounds > 0) {
+                timeout._rounds -= 1;
+
+                bucket.add(timeout);
+            }
+            else
+                timeout.expire();
+        }
+    }
+
+}
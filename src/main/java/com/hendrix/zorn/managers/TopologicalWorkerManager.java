@@ -1,16 +1,24 @@
 package com.hendrix.zorn.managers;
 
-import android.util.Log;
-
-import com.hendrix.graph.algorithms.TopologicalSort;
-import com.hendrix.graph.exceptions.NotDirectedAcyclicGraphException;
-import com.hendrix.graph.graphs.SimpleDirectedGraph;
-import com.hendrix.graph.types.IVertex;
-import com.hendrix.graph.types.Vertex;
+import com.hendrix.zorn.trace.Trace;
+import com.hendrix.zorn.trace.TraceLevel;
+import com.hendrix.zorn.workers.AbstractResultWorker;
+import com.hendrix.zorn.workers.DataInput;
 import com.hendrix.zorn.workers.IWorker;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * a {@link IWorkerManager} implementation based on {@code Topological Sorting}. the class is thread safe.
@@ -18,6 +26,12 @@ import java.util.LinkedList;
  * <ul>
  *     <li/>this class cannot be instantiated from everywhere (Protected access level constructor).
  *     <li/>use only {@link com.hendrix.zorn.managers.TopologicalWorkerManager.Builder}.
+ *     <li/>workers and edges can be added after {@code build()}, also while the manager is running,
+ *     with {@link #addWorker(IWorker)} and {@link #addEdge(IWorker, IWorker)}. the topological order
+ *     is maintained incrementally (Pearce-Kelly), so an edge visits only the affected workers instead of a re sort,
+ *     and moves each of them in the ready set, an indexed heap, in {@code O(log n)}.
+ *     <li/>the progress of the built graph can be checkpointed, so a manager that is rebuilt with the same
+ *     graph after a crash resumes from the frontier, see {@link Builder#checkpoint(File)}.
  * </ul>
  *
  * @see com.hendrix.zorn.managers.TopologicalWorkerManager.Builder
@@ -29,17 +43,78 @@ public class TopologicalWorkerManager extends BaseAbstractWorkerManager {
     static public final String ZORN_TOPOLOGICAL_TAG    = "Zorn TopologicalManager";
     static public final String msg_error               = "The workers contain a Cycle, therefore Topological Sorting failed!";
 
-    private LinkedList<IWorker> _pendingWorkers        = null;
+    /**
+     * the default cost of a worker, that has no estimation or history
+     */
+    static public final long DEFAULT_COST              = 1;
+
+    /**
+     * the number of observed costs that are kept, the costs of the workers that completed last
+     */
+    static public final int MAX_OBSERVED_COSTS        = 1024;
+
+    /**
+     * the ready set, workers whose predecessors have all completed, ordered by critical path.
+     * indexed, so a worker that gains a predecessor or a longer critical path is removed or
+     * moved in {@code O(log n)}
+     */
+    private IndexedPriorityQueue<IWorker> _readyWorkers            = null;
+    /**
+     * for every worker, the workers that depend on it
+     */
+    private HashMap<IWorker, ArrayList<IWorker>> _successors       = null;
+    /**
+     * the number of uncompleted predecessors of every blocked worker
+     */
+    private HashMap<IWorker, Integer> _inDegree                    = null;
+    /**
+     * the length of the longest path from a worker to the sink of the graph, including itself (bottom level)
+     */
+    private HashMap<IWorker, Long> _rank                           = null;
+    /**
+     * for every uncompleted worker, the uncompleted workers it depends on
+     */
+    private HashMap<IWorker, ArrayList<IWorker>> _predecessors     = null;
+    /**
+     * the position of every uncompleted worker in a topological order, maintained incrementally
+     */
+    private HashMap<IWorker, Integer> _order                       = null;
+    private int _firstOrder                                        = 0;
+    private int _nextOrder                                         = 0;
+    /**
+     * the estimated cost of every uncompleted worker
+     */
+    private HashMap<IWorker, Long> _costs                          = null;
+    /**
+     * the completed workers by id, that later edges may start from. evicted by the {@link RetentionPolicy}
+     */
+    private FinishedWorkerStore _completed                         = null;
+    /**
+     * the dispatch time of every running worker
+     */
+    private HashMap<IWorker, Long> _dispatchTimes                  = null;
+    /**
+     * the observed cost in milliseconds of the last {@link #MAX_OBSERVED_COSTS} completed workers, by id
+     */
+    private LinkedHashMap<String, Long> _observedCosts             = null;
+    /**
+     * the durable progress of the built graph, and the index of every built worker in it
+     */
+    private DagCheckpoint _checkpoint                              = null;
+    private HashMap<IWorker, Integer> _vertices                    = null;
+    private int _numSkipped                                        = 0;
 
     /**
-     * for {@code TopologicalWorkerManager}, the only execution mode
-     * available is {code EXECUTION_MODE.SERIAL}.
-     * this might change in the future when {@code TopologicalSort} will have
-     * bundling options for independent sets.
+     * a worker is dispatched as soon as all of it's predecessors have completed,
+     * therefore both execution modes are available.
+     * <ul>
+     *     <li/>{@code SERIAL} - the workers run one by one in a topological order.
+     *     <li/>{@code NON_SERIAL} - every ready worker is dispatched concurrently, up to the concurrency cap.
+     * </ul>
      */
     @Override
     public void setExecutionMode(EXECUTION_MODE em) {
-        super.setExecutionMode(EXECUTION_MODE.SERIAL);
+        super.setExecutionMode(em);
     }
 
     /**
@@ -48,28 +123,87 @@ public class TopologicalWorkerManager extends BaseAbstractWorkerManager {
      *
      * @see com.hendrix.zorn.managers.TopologicalWorkerManager.Builder
      *
-     * @throws Error - if the topological sorting detected a cycle
+     * @throws Error - if the graph of the workers contains a cycle
      */
     protected TopologicalWorkerManager(Builder builder) {
         this(builder._id);
 
-        setExecutionMode(EXECUTION_MODE.SERIAL);
+        setExecutionMode(builder._em);
+
+        if(builder._maxConcurrency > 0)
+            setMaxConcurrency(builder._maxConcurrency);
+
         setListener(builder._listener);
 
-        LinkedList<IVertex> ll_vertex;
+        ArrayList<IWorker> workers = new ArrayList<>(builder._successors.size());
+        HashSet<IWorker> skipped   = builder._checkpoint == null ? new HashSet<IWorker>() : resume(builder);
+        IWorker worker;
 
-        try {
-            ll_vertex = new TopologicalSort(builder._sdg).applyAlgorithm();
-        } catch (NotDirectedAcyclicGraphException exc) {
-            Log.e(ZORN_TOPOLOGICAL_TAG, msg_error);
+        // the completed workers of a prior run are left out, and are no longer waited for
+        for (IWorker done : skipped) {
+            for (IWorker successor : builder._successors.get(done)) {
+                if(skipped.contains(successor))
+                    continue;
+
+                int degree          = builder._inDegree.get(successor) - 1;
+
+                if(degree == 0)
+                    builder._inDegree.remove(successor);
+                else
+                    builder._inDegree.put(successor, degree);
+            }
+        }
+
+        for (Map.Entry<IWorker, LinkedHashSet<IWorker>> entry : builder._successors.entrySet()) {
+            worker                  = entry.getKey();
+
+            if(skipped.contains(worker)) {
+                _completed.put(worker);
+
+                continue;
+            }
+
+            ArrayList<IWorker> successors = new ArrayList<>(entry.getValue().size());
+
+            for (IWorker successor : entry.getValue()) {
+                if(!skipped.contains(successor))
+                    successors.add(successor);
+            }
+
+            _successors.put(worker, successors);
+
+            Integer degree          = builder._inDegree.get(worker);
+
+            if(degree != null)
+                _inDegree.put(worker, degree);
+
+            workers.add(worker);
+        }
+
+        ArrayList<IWorker> order = topologicalOrder();
+
+        if(order == null) {
+            Trace.log(TraceLevel.ERROR, ZORN_TOPOLOGICAL_TAG, msg_error);
 
             throw new Error(ZORN_TOPOLOGICAL_TAG + ":: " + msg_error);
         }
 
-        for (IVertex vertex : ll_vertex) {
-            enqueue((IWorker)vertex.getData());
+        for (IWorker w : order) {
+            _order.put(w, _nextOrder++);
+            _predecessors.put(w, new ArrayList<IWorker>(2));
+            _costs.put(w, builder.costOf(w));
+        }
+
+        for (IWorker w : order) {
+            for (IWorker successor : _successors.get(w)) {
+                _predecessors.get(successor).add(w);
+            }
         }
 
+        computeRanks(order);
+
+        enqueueAll(workers);
+
         builder.dispose();
     }
 
@@ -81,7 +215,24 @@ public class TopologicalWorkerManager extends BaseAbstractWorkerManager {
     protected TopologicalWorkerManager(String id) {
         super(id);
 
-        _pendingWorkers = new LinkedList<>();
+        _readyWorkers   = new IndexedPriorityQueue<>(new CriticalPathComparator());
+        _successors     = new HashMap<>();
+        _inDegree       = new HashMap<>();
+        _rank           = new HashMap<>();
+        _predecessors   = new HashMap<>();
+        _order          = new HashMap<>();
+        _costs          = new HashMap<>();
+        _completed      = FinishedWorkerStore.create(getRetentionPolicy());
+        _dispatchTimes  = new HashMap<>();
+        _observedCosts  = new LinkedHashMap<String, Long>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > MAX_OBSERVED_COSTS;
+            }
+        };
+        _vertices       = new HashMap<>();
+
+        super.setExecutionMode(EXECUTION_MODE.SERIAL);
     }
 
     /**
@@ -91,6 +242,144 @@ public class TopologicalWorkerManager extends BaseAbstractWorkerManager {
         this("");
     }
 
+    /**
+     * process complete callback. releases the successors of the worker, and
+     * moves every successor whose predecessors have all completed into the ready set.
+     *
+     * @param worker the completed process
+     */
+    @Override
+    public synchronized void onWorkerComplete(IWorker worker)
+    {
+        Long dispatched = _dispatchTimes.remove(worker);
+
+        if(dispatched != null) {
+            // the cost is the latest of it's id, so it is evicted last
+            _observedCosts.remove(worker.getId());
+            _observedCosts.put(worker.getId(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - dispatched));
+        }
+
+        ArrayList<IWorker> successors = _successors.remove(worker);
+
+        if(successors != null) {
+            for (IWorker successor : successors) {
+                ArrayList<IWorker> predecessors = _predecessors.get(successor);
+
+                if(predecessors != null)
+                    predecessors.remove(worker);
+
+                Integer degree = _inDegree.get(successor);
+
+                if(degree == null)
+                    continue;
+
+                if(degree > 1)
+                    _inDegree.put(successor, degree - 1);
+                else {
+                    _inDegree.remove(successor);
+                    _readyWorkers.add(successor);
+                }
+            }
+        }
+
+        if(_order.remove(worker) != null)
+            _completed.put(worker);
+
+        _predecessors.remove(worker);
+        _rank.remove(worker);
+        _costs.remove(worker);
+
+        Integer vertex = _vertices.get(worker);
+
+        // the graph has completed, so the next run of it starts over
+        if(vertex != null && _checkpoint.complete(vertex) && _checkpoint.getNumCompleted() == _checkpoint.size())
+            _checkpoint.clear();
+
+        super.onWorkerComplete(worker);
+    }
+
+    /**
+     * process error callback. a worker that has failed for good fails it's blocked
+     * dependents as well, transitively, since they would never become ready.
+     *
+     * @param worker the erroneous process
+     */
+    @Override
+    public synchronized void onWorkerError(IWorker worker)
+    {
+        _dispatchTimes.remove(worker);
+
+        super.onWorkerError(worker);
+
+        // the dependents were still pending when the manager has checked for completion
+        if(!isRetryScheduled(worker) && failDependents(worker) && isRunning())
+            checkCompletion();
+    }
+
+    /**
+     * fail a worker that was not dispatched, and it's blocked dependents, transitively.
+     *
+     * @param worker    the {@link IWorker}
+     * @param info      the error
+     */
+    @Override
+    protected synchronized void failWorker(IWorker worker, WorkerManagerErrorInfo info)
+    {
+        _dispatchTimes.remove(worker);
+
+        super.failWorker(worker, info);
+
+        failDependents(worker);
+    }
+
+    /**
+     * remove every pending worker, ready or blocked, when the manager is stopped.
+     */
+    @Override
+    protected synchronized void clearPendingWorkers() {
+        _readyWorkers.clear();
+        _inDegree.clear();
+    }
+
+    /**
+     * dispose the object
+     */
+    @Override
+    public void dispose() {
+        super.dispose();
+
+        _readyWorkers.clear();
+        _successors.clear();
+        _inDegree.clear();
+        _rank.clear();
+        _predecessors.clear();
+        _order.clear();
+        _costs.clear();
+        _completed.clear();
+        _dispatchTimes.clear();
+        _vertices.clear();
+
+        if(_checkpoint != null) {
+            try {
+                _checkpoint.close();
+            } catch (IOException exc) {
+                Trace.log(TraceLevel.ERROR, ZORN_TOPOLOGICAL_TAG, "checkpoint could not be closed: %s", exc);
+            }
+        }
+
+        _readyWorkers   = null;
+        _successors     = null;
+        _inDegree       = null;
+        _rank           = null;
+        _predecessors   = null;
+        _order          = null;
+        _costs          = null;
+        _completed      = null;
+        _dispatchTimes  = null;
+        _vertices       = null;
+        _checkpoint     = null;
+    }
+
     /**
      * get the next {@link IWorker} proposed for execution.
      * this method is allowed to return {@code null}.
@@ -99,8 +388,149 @@ public class TopologicalWorkerManager extends BaseAbstractWorkerManager {
      * @return {@link IWorker}, allowed to return {@code null}.
      */
     @Override
-    protected IWorker getNextWorker() {
-        return _pendingWorkers.pollFirst();
+    protected synchronized IWorker getNextWorker() {
+        IWorker worker = _readyWorkers.poll();
+
+        if(worker != null)
+            _dispatchTimes.put(worker, System.nanoTime());
+
+        return worker;
+    }
+
+    /**
+     * add a worker without dependencies. it becomes ready at once.
+     * a worker that is already known is ignored.
+     *
+     * @param worker the {@link IWorker}
+     */
+    public synchronized void addWorker(IWorker worker)
+    {
+        if(worker == null)
+            throw new NullPointerException("worker is null!!");
+
+        if(addNode(worker, false))
+            enqueue(worker);
+    }
+
+    /**
+     * add a directed edge, {@code from} has to complete before {@code to}. unknown workers
+     * are added, also while the manager is running. an edge from a completed worker is
+     * already satisfied, as long as the {@link RetentionPolicy} retains the worker, a completed
+     * worker that was evicted is taken for a new one, and runs again. only the workers whose
+     * order is between {@code to} and {@code from} are visited.
+     *
+     * @param from the predecessor
+     * @param to   the successor
+     *
+     * @throws IllegalStateException    if {@code to} has already been dispatched
+     * @throws IllegalArgumentException if the edge closes a cycle, also a self edge, the manager is left unchanged
+     */
+    public synchronized void addEdge(IWorker from, IWorker to)
+    {
+        if(from == null || to == null)
+            throw new NullPointerException("worker is null!!");
+
+        // a self edge is the shortest cycle
+        if(from == to)
+            throw new IllegalArgumentException(ZORN_TOPOLOGICAL_TAG + ":: " + msg_error);
+
+        if(isCompleted(to) || _dispatchTimes.containsKey(to))
+            throw new IllegalStateException("worker " + to.getId() + " was already dispatched!!");
+
+        boolean fromCompleted   = isCompleted(from);
+
+        if(!fromCompleted && _order.containsKey(from) && _order.containsKey(to)) {
+            if(_successors.get(from).contains(to))
+                return;
+
+            reorder(from, to);
+        }
+
+        // a new predecessor goes first in the order and a new successor goes last, so neither needs a reorder
+        boolean newFrom         = !fromCompleted && addNode(from, true);
+        boolean newTo           = addNode(to, false);
+
+        if(!fromCompleted) {
+            _successors.get(from).add(to);
+            _predecessors.get(to).add(from);
+
+            Integer degree      = _inDegree.get(to);
+
+            if(degree == null && !newTo)
+                _readyWorkers.remove(to);
+
+            _inDegree.put(to, degree == null ? 1 : degree + 1);
+
+            propagateRank(from, _rank.get(to));
+        }
+
+        if(newFrom)
+            enqueue(from);
+
+        if(newTo)
+            enqueue(to);
+    }
+
+    /**
+     * add a data-flow edge, see {@link Builder#flow(AbstractResultWorker, IWorker, DataInput)}.
+     *
+     * @param from  the producing {@link AbstractResultWorker}
+     * @param to    the consuming {@link IWorker}
+     * @param input the {@link DataInput} of {@code to} that receives the result
+     *
+     * @throws IllegalStateException    if {@code to} has already been dispatched
+     * @throws IllegalArgumentException if the edge closes a cycle, the manager is left unchanged
+     */
+    public synchronized <T> void addFlow(AbstractResultWorker<? extends T> from, IWorker to, DataInput<T> input)
+    {
+        if(input == null)
+            throw new NullPointerException("input is null!!");
+
+        addEdge(from, to);
+
+        from.addOutput(input);
+    }
+
+    /**
+     * set the policy for retaining finished workers, also the completed workers that later edges
+     * may start from. the workers retained so far are released.
+     *
+     * @param policy a {@link RetentionPolicy}
+     */
+    @Override
+    public synchronized void setRetentionPolicy(RetentionPolicy policy) {
+        super.setRetentionPolicy(policy);
+
+        _completed = FinishedWorkerStore.create(policy);
+    }
+
+    /**
+     * get the observed cost in milliseconds of the last {@link #MAX_OBSERVED_COSTS} completed workers, by id.
+     * feed it to {@link Builder#costs(Map)} of the next run of the same graph, so
+     * the critical path is learned from prior runs.
+     *
+     * @return a map of worker id to cost in milliseconds
+     */
+    public synchronized Map<String, Long> getObservedCosts() {
+        return new HashMap<>(_observedCosts);
+    }
+
+    /**
+     * get the checkpoint of the built graph, see {@link Builder#checkpoint(File)}.
+     *
+     * @return the {@link DagCheckpoint}, or {@code null} if the progress is not checkpointed
+     */
+    public DagCheckpoint getCheckpoint() {
+        return _checkpoint;
+    }
+
+    /**
+     * get the number of workers that were skipped on build, because they had completed on a prior run
+     *
+     * @return the number of skipped workers
+     */
+    public int getNumSkippedWorkers() {
+        return _numSkipped;
     }
 
     /**
@@ -111,34 +541,474 @@ public class TopologicalWorkerManager extends BaseAbstractWorkerManager {
      *     getPendingWorkers.add(worker)
      * </pre>
      *
+     * blocked workers are already tracked by their in-degree, and will
+     * enter the ready set once their predecessors complete.
+     *
      * @param worker {@link IWorker}
      */
     @Override
-    protected void onEnqueue(IWorker worker) {
-        _pendingWorkers.add(worker);
+    protected synchronized void onEnqueue(IWorker worker) {
+        if(_inDegree.containsKey(worker))
+            return;
+
+        // a failed dependent that is enqueued again waits for it's uncompleted predecessors
+        ArrayList<IWorker> predecessors = _predecessors.get(worker);
+
+        if(predecessors != null && !predecessors.isEmpty()) {
+            _inDegree.put(worker, predecessors.size());
+
+            return;
+        }
+
+        _readyWorkers.add(worker);
+    }
+
+    /**
+     * save many workers under a single lock.
+     *
+     * @param workers the {@link IWorker}s
+     */
+    @Override
+    protected synchronized void onEnqueueAll(Collection<? extends IWorker> workers) {
+        for (IWorker worker : workers) {
+            onEnqueue(worker);
+        }
     }
 
     /**
-     * the size of pending workers
+     * the size of pending workers, both ready and blocked.
      *
      * @return the size
      */
     @Override
-    protected int sizePendingWorkers() {
-        return _pendingWorkers.size();
+    protected synchronized int sizePendingWorkers() {
+        return _readyWorkers.size() + _inDegree.size();
+    }
+
+    /**
+     * fail the blocked workers that depend on a failed worker, transitively. they keep their
+     * predecessors, so if they are enqueued again, for example by {@code retry()}, they are
+     * blocked until the failed worker completes.
+     *
+     * @param failed the failed {@code IWorker}
+     *
+     * @return {@code true} if any worker was failed
+     */
+    private boolean failDependents(IWorker failed)
+    {
+        ArrayList<IWorker> stack    = new ArrayList<>();
+        boolean any                 = false;
+
+        stack.add(failed);
+
+        while (!stack.isEmpty()) {
+            ArrayList<IWorker> successors = _successors.get(stack.remove(stack.size() - 1));
+
+            if(successors == null)
+                continue;
+
+            for (IWorker successor : successors) {
+                if(_inDegree.remove(successor) == null)
+                    continue;
+
+                super.failWorker(successor, new WorkerManagerErrorInfo(WorkerManagerErrorInfo.ErrorCode.ERROR_PREDECESSOR_FAILED,
+                        "Worker with ID: " + successor.getId() + " REJECTED, it depends on the failed worker " + failed.getId() + "!!", successor.getId()));
+
+                any = true;
+
+                stack.add(successor);
+            }
+        }
+
+        return any;
+    }
+
+    /**
+     * open the checkpoint of the built graph, and find the workers that have completed on a prior run.
+     * a completed worker is run again if one of it's predecessors has not completed, or if it is a
+     * data-flow producer of a worker that runs again, so it's result is delivered. the latter is a
+     * closure, a producer that runs again needs the results of it's own producers as well.
+     *
+     * @param builder the {@code Builder}
+     *
+     * @return the workers to skip
+     *
+     * @throws IllegalStateException if the checkpoint could not be opened
+     */
+    private HashSet<IWorker> resume(Builder builder)
+    {
+        ArrayList<IWorker> vertices = new ArrayList<>(builder._successors.keySet());
+
+        for (int ix = 0; ix < vertices.size(); ix++) {
+            _vertices.put(vertices.get(ix), ix);
+        }
+
+        long fingerprint            = DagCheckpoint.fingerprint(vertices, _vertices, builder._successors);
+
+        try {
+            _checkpoint             = DagCheckpoint.open(builder._checkpoint, fingerprint, vertices.size());
+        } catch (IOException exc) {
+            throw new IllegalStateException("checkpoint " + builder._checkpoint + " could not be opened!!", exc);
+        }
+
+        HashSet<IWorker> skipped    = new HashSet<>();
+
+        if(!_checkpoint.isResumed())
+            return skipped;
+
+        // the producers of every vertex
+        ArrayList<ArrayList<Integer>> producers = new ArrayList<>(vertices.size());
+        BitSet rerun                = new BitSet(vertices.size());
+        ArrayList<Integer> stack    = new ArrayList<>();
+
+        for (int ix = 0; ix < vertices.size(); ix++) {
+            producers.add(new ArrayList<Integer>(0));
+        }
+
+        for (int ix = 0; ix < vertices.size(); ix++) {
+            IWorker vertex          = vertices.get(ix);
+            boolean completed       = _checkpoint.isCompleted(ix);
+            boolean producer        = builder._producers.contains(vertex);
+
+            if(!completed)
+                rerun.set(ix);
+
+            for (IWorker successor : builder._successors.get(vertex)) {
+                int index           = _vertices.get(successor);
+
+                if(!completed)
+                    rerun.set(index);
+
+                if(producer)
+                    producers.get(index).add(ix);
+            }
+        }
+
+        for (int ix = rerun.nextSetBit(0); ix >= 0; ix = rerun.nextSetBit(ix + 1)) {
+            stack.add(ix);
+        }
+
+        // backward closure over the producers, until nothing changes
+        while (!stack.isEmpty()) {
+            for (int producer : producers.get(stack.remove(stack.size() - 1))) {
+                if(rerun.get(producer))
+                    continue;
+
+                rerun.set(producer);
+                stack.add(producer);
+            }
+        }
+
+        for (int ix = rerun.nextClearBit(0); ix < vertices.size(); ix = rerun.nextClearBit(ix + 1)) {
+            skipped.add(vertices.get(ix));
+        }
+
+        _numSkipped                 = skipped.size();
+
+        Trace.log(TraceLevel.INFO, ZORN_TOPOLOGICAL_TAG, "%s: resumed from checkpoint, %s of %s workers are skipped",
+                  getId(), _numSkipped, vertices.size());
+
+        return skipped;
+    }
+
+    /**
+     * Kahn's algorithm over the in-degrees, without touching the live state.
+     *
+     * @return a topological order of the workers, or {@code null} if the graph contains a cycle
+     */
+    private ArrayList<IWorker> topologicalOrder()
+    {
+        HashMap<IWorker, Integer> degrees   = new HashMap<>(_inDegree);
+        ArrayList<IWorker> order            = new ArrayList<>(_successors.size());
+
+        for (IWorker worker : _successors.keySet()) {
+            if(!degrees.containsKey(worker))
+                order.add(worker);
+        }
+
+        for (int ix = 0; ix < order.size(); ix++) {
+            for (IWorker successor : _successors.get(order.get(ix))) {
+                int degree = degrees.get(successor) - 1;
+
+                degrees.put(successor, degree);
+
+                if(degree == 0)
+                    order.add(successor);
+            }
+        }
+
+        return order.size() == _successors.size() ? order : null;
+    }
+
+    /**
+     * compute the bottom level of every worker in reverse topological order, i.e
+     * it's cost plus the most expensive path of it's successors to a sink.
+     *
+     * @param order   a topological order of the workers
+     */
+    private void computeRanks(ArrayList<IWorker> order)
+    {
+        IWorker worker;
+
+        for (int ix = order.size() - 1; ix >= 0; ix--) {
+            worker          = order.get(ix);
+
+            long downstream = 0;
+
+            for (IWorker successor : _successors.get(worker)) {
+                downstream = Math.max(downstream, _rank.get(successor));
+            }
+
+            _rank.put(worker, _costs.get(worker) + downstream);
+        }
+    }
+
+    /**
+     * @param worker the {@code IWorker}
+     *
+     * @return {@code true} if the worker has completed, and it is still retained
+     */
+    private boolean isCompleted(IWorker worker) {
+        return _completed.get(worker.getId()) == worker;
+    }
+
+    /**
+     * register a new worker at either end of the topological order. it's cost is it's
+     * observed cost on this manager, if any.
+     *
+     * @param worker the {@code IWorker}
+     * @param first  put the worker first in the order if {@code true}, last otherwise
+     *
+     * @return {@code false} if the worker is already known
+     */
+    private boolean addNode(IWorker worker, boolean first)
+    {
+        if(_order.containsKey(worker) || isCompleted(worker))
+            return false;
+
+        Long cost = _observedCosts.get(worker.getId());
+
+        if(cost == null)
+            cost = DEFAULT_COST;
+
+        _order.put(worker, first ? --_firstOrder : _nextOrder++);
+        _successors.put(worker, new ArrayList<IWorker>(2));
+        _predecessors.put(worker, new ArrayList<IWorker>(2));
+        _costs.put(worker, cost);
+        _rank.put(worker, cost);
+
+        return true;
+    }
+
+    /**
+     * restore the topological order before adding the edge {@code from -> to}, in case
+     * {@code to} is ordered before {@code from} (Pearce-Kelly). only the workers reachable from
+     * {@code to} and reaching {@code from} within the affected region are visited and reordered.
+     *
+     * @param from the predecessor
+     * @param to   the successor
+     *
+     * @throws IllegalArgumentException if {@code from} is reachable from {@code to}
+     */
+    private void reorder(IWorker from, IWorker to)
+    {
+        int upper   = _order.get(from);
+        int lower   = _order.get(to);
+
+        if(lower > upper)
+            return;
+
+        ArrayList<IWorker> forward  = new ArrayList<>();
+        ArrayList<IWorker> backward = new ArrayList<>();
+
+        if(!collect(to, from, upper, true, forward, new HashSet<IWorker>()))
+            throw new IllegalArgumentException(ZORN_TOPOLOGICAL_TAG + ":: " + msg_error);
+
+        collect(from, null, lower, false, backward, new HashSet<IWorker>());
+
+        Comparator<IWorker> byOrder = new Comparator<IWorker>() {
+            @Override
+            public int compare(IWorker x, IWorker y) {
+                return _order.get(x) - _order.get(y);
+            }
+        };
+
+        Collections.sort(forward, byOrder);
+        Collections.sort(backward, byOrder);
+
+        ArrayList<Integer> slots    = new ArrayList<>(forward.size() + backward.size());
+
+        for (IWorker worker : backward) {
+            slots.add(_order.get(worker));
+        }
+
+        for (IWorker worker : forward) {
+            slots.add(_order.get(worker));
+        }
+
+        Collections.sort(slots);
+
+        int ix = 0;
+
+        for (IWorker worker : backward) {
+            _order.put(worker, slots.get(ix++));
+        }
+
+        for (IWorker worker : forward) {
+            _order.put(worker, slots.get(ix++));
+        }
+    }
+
+    /**
+     * depth first search within the affected region of the order.
+     *
+     * @param start     the first worker
+     * @param target    a worker that must not be reached, or {@code null}
+     * @param bound     the last order to visit, inclusive. an upper bound when {@code forward}, a lower one otherwise
+     * @param forward   walk the successors if {@code true}, the predecessors otherwise
+     * @param visited   the visited workers, in visit order
+     * @param seen      scratch set
+     *
+     * @return {@code false} if {@code target} was reached, also when it is {@code start} itself
+     */
+    private boolean collect(IWorker start, IWorker target, int bound, boolean forward,
+                            ArrayList<IWorker> visited, HashSet<IWorker> seen)
+    {
+        ArrayList<IWorker> stack = new ArrayList<>();
+        IWorker worker;
+
+        if(start == target)
+            return false;
+
+        stack.add(start);
+        seen.add(start);
+
+        while (!stack.isEmpty()) {
+            worker = stack.remove(stack.size() - 1);
+
+            visited.add(worker);
+
+            for (IWorker next : forward ? _successors.get(worker) : _predecessors.get(worker)) {
+                if(next == target)
+                    return false;
+
+                Integer order = _order.get(next);
+
+                if(order == null || seen.contains(next))
+                    continue;
+
+                if(forward ? order > bound : order < bound)
+                    continue;
+
+                seen.add(next);
+                stack.add(next);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * raise the bottom level of a worker after a new successor, and of it's
+     * pending ancestors as long as their critical path grows.
+     *
+     * @param worker            the worker that gained a successor
+     * @param successorRank     the rank of the new successor
+     */
+    private void propagateRank(IWorker worker, long successorRank)
+    {
+        ArrayList<IWorker> stack    = new ArrayList<>();
+        ArrayList<Long> ranks       = new ArrayList<>();
+
+        stack.add(worker);
+        ranks.add(successorRank);
+
+        while (!stack.isEmpty()) {
+            IWorker current         = stack.remove(stack.size() - 1);
+            long downstream         = ranks.remove(ranks.size() - 1);
+            long rank               = _costs.get(current) + downstream;
+
+            if(rank <= _rank.get(current))
+                continue;
+
+            // a dispatched worker is no longer ordered, and neither are it's ancestors
+            if(_dispatchTimes.containsKey(current))
+                continue;
+
+            _rank.put(current, rank);
+
+            // a ready worker moves up the ready set
+            _readyWorkers.update(current);
+
+            for (IWorker predecessor : _predecessors.get(current)) {
+                stack.add(predecessor);
+                ranks.add(rank);
+            }
+        }
+    }
+
+    /**
+     * a custom {@link Comparator} for the ready set. the worker with the longest
+     * remaining critical path goes first, ties are resolved by {@code IPriority}.
+     */
+    private class CriticalPathComparator implements Comparator<IWorker>
+    {
+        @Override
+        public int compare(IWorker x, IWorker y)
+        {
+            long rx = rankOf(x);
+            long ry = rankOf(y);
+
+            if (rx != ry)
+                return rx < ry ? 1 : -1;
+
+            if (x.getPriority() < y.getPriority())
+                return 1;
+
+            if (x.getPriority() > y.getPriority())
+                return -1;
+
+            return 0;
+        }
+
+        private long rankOf(IWorker worker)
+        {
+            Long rank = _rank.get(worker);
+
+            return rank == null ? 0 : rank;
+        }
+
     }
 
     @SuppressWarnings("unused")
     public static class Builder {
-        private SimpleDirectedGraph         _sdg        = null;
         private String                      _id         = null;
         private WorkerManagerObserver       _listener   = null;
+        private EXECUTION_MODE              _em         = EXECUTION_MODE.SERIAL;
+        private int                         _maxConcurrency = 0;
 
-        private HashMap<IWorker, Vertex<IWorker>> _mapWorkerVertex = null;
+        private HashMap<IWorker, Long>      _costs      = null;
+        private Map<String, Long>           _costsById  = null;
+        private File                        _checkpoint = null;
+        /**
+         * the workers whose result flows to a successor
+         */
+        private HashSet<IWorker>            _producers  = null;
+
+        /**
+         * the workers in insertion order, and the workers that depend on each of them
+         */
+        private LinkedHashMap<IWorker, LinkedHashSet<IWorker>> _successors = null;
+        /**
+         * the number of predecessors of every worker that has any
+         */
+        private HashMap<IWorker, Integer> _inDegree = null;
 
         public Builder() {
-            _sdg                = new SimpleDirectedGraph();
-            _mapWorkerVertex    = new HashMap<>();
+            _successors         = new LinkedHashMap<>();
+            _inDegree           = new HashMap<>();
+            _costs              = new HashMap<>();
+            _producers          = new HashSet<>();
         }
 
         /**
@@ -152,14 +1022,19 @@ public class TopologicalWorkerManager extends BaseAbstractWorkerManager {
         }
 
         protected void dispose() {
-            _sdg.dispose();
-
-            _mapWorkerVertex.clear();
+            _successors.clear();
+            _inDegree.clear();
+            _costs.clear();
+            _producers.clear();
 
             _id                 = null;
-            _sdg                = null;
+            _checkpoint         = null;
+            _producers          = null;
+            _costs              = null;
+            _costsById          = null;
             _listener           = null;
-            _mapWorkerVertex    = null;
+            _successors         = null;
+            _inDegree           = null;
         }
 
         /**
@@ -171,13 +1046,7 @@ public class TopologicalWorkerManager extends BaseAbstractWorkerManager {
          * @return {@link com.hendrix.zorn.managers.TopologicalWorkerManager.Builder}
          */
         public Builder before(IWorker put, IWorker before) {
-            Vertex<IWorker> vertex_put      = vertexOf(put);
-            Vertex<IWorker> vertex_before   = vertexOf(before);
-
-            _sdg.addVertex(vertex_put);
-            _sdg.addVertex(vertex_before);
-
-            _sdg.addEdge(vertex_put, vertex_before);
+            addEdge(put, before);
 
             return this;
         }
@@ -191,13 +1060,34 @@ public class TopologicalWorkerManager extends BaseAbstractWorkerManager {
          * @return {@link com.hendrix.zorn.managers.TopologicalWorkerManager.Builder}
          */
         public Builder after(IWorker put, IWorker after) {
-            Vertex<IWorker> vertex_put      = vertexOf(put);
-            Vertex<IWorker> vertex_after    = vertexOf(after);
+            addEdge(after, put);
+
+            return this;
+        }
+
+        /**
+         * put a data-flow edge between two workers. {@code to} runs after {@code from},
+         * and the result of {@code from} is handed to {@code input} of {@code to} on the
+         * thread of {@code from}, as soon as it is computed. a worker with several
+         * inputs is a fan-in join, and runs once all of it's producers have completed.
+         *
+         * @param from  the producing {@link AbstractResultWorker}
+         * @param to    the consuming {@link IWorker}
+         * @param input the {@link DataInput} of {@code to} that receives the result
+         *
+         * @return {@link com.hendrix.zorn.managers.TopologicalWorkerManager.Builder}
+         *
+         * @see DataInput
+         */
+        public <T> Builder flow(AbstractResultWorker<? extends T> from, IWorker to, DataInput<T> input) {
+            if(input == null)
+                throw new NullPointerException("input is null!!");
+
+            addEdge(from, to);
 
-            _sdg.addVertex(vertex_put);
-            _sdg.addVertex(vertex_after);
+            _producers.add(from);
 
-            _sdg.addEdge(vertex_after, vertex_put);
+            from.addOutput(input);
 
             return this;
         }
@@ -215,6 +1105,97 @@ public class TopologicalWorkerManager extends BaseAbstractWorkerManager {
             return this;
         }
 
+        /**
+         * estimate the cost of a {@link IWorker}. the ready workers with the longest
+         * remaining critical path are dispatched first.
+         *
+         * @param worker the {@link IWorker}
+         * @param cost   the estimated cost, in milliseconds
+         *
+         * @return {@link com.hendrix.zorn.managers.TopologicalWorkerManager.Builder}
+         */
+        public Builder cost(IWorker worker, long cost) {
+            if(cost < 0)
+                throw new IllegalArgumentException("cost must not be negative!!");
+
+            _costs.put(worker, cost);
+
+            return this;
+        }
+
+        /**
+         * estimate the costs of workers by their ids, usually the costs observed on a
+         * prior run with {@link TopologicalWorkerManager#getObservedCosts()}.
+         * estimations given by {@link #cost(IWorker, long)} take precedence.
+         *
+         * @param costs a map of worker id to cost in milliseconds
+         *
+         * @return {@link com.hendrix.zorn.managers.TopologicalWorkerManager.Builder}
+         */
+        public Builder costs(Map<String, Long> costs) {
+            _costsById = costs;
+
+            return this;
+        }
+
+        /**
+         * checkpoint the progress of the graph to a file, so a manager that is built with the same
+         * graph after a crash skips the workers that have completed, and resumes from the frontier.
+         * <ul>
+         *     <li/>the graph is identified by the ids of it's workers, in the order they were added,
+         *     and by it's edges. a checkpoint of another graph is discarded.
+         *     <li/>failed workers are not checkpointed, they run again.
+         *     <li/>once every worker of the graph has completed, the checkpoint is cleared.
+         *     <li/>workers and edges that are added after {@code build()} are not checkpointed.
+         * </ul>
+         *
+         * @param file the checkpoint file, it is created if it does not exist
+         *
+         * @return {@link com.hendrix.zorn.managers.TopologicalWorkerManager.Builder}
+         *
+         * @see DagCheckpoint
+         */
+        public Builder checkpoint(File file) {
+            if(file == null)
+                throw new NullPointerException("file is null!!");
+
+            _checkpoint = file;
+
+            return this;
+        }
+
+        /**
+         * set the {@code EXECUTION_MODE} of the {@link TopologicalWorkerManager}.
+         * {@code SERIAL} by default.
+         *
+         * @param em {@code EXECUTION_MODE.SERIAL, EXECUTION_MODE.NON_SERIAL}
+         *
+         * @return {@link com.hendrix.zorn.managers.TopologicalWorkerManager.Builder}
+         */
+        public Builder executionMode(EXECUTION_MODE em) {
+            _em = em;
+
+            return this;
+        }
+
+        /**
+         * set the maximal number of ready workers that are dispatched concurrently.
+         * implies {@code EXECUTION_MODE.NON_SERIAL}.
+         *
+         * @param count the concurrency cap, must be positive
+         *
+         * @return {@link com.hendrix.zorn.managers.TopologicalWorkerManager.Builder}
+         */
+        public Builder maxConcurrency(int count) {
+            if(count < 1)
+                throw new IllegalArgumentException("concurrency cap must be positive!!");
+
+            _em             = EXECUTION_MODE.NON_SERIAL;
+            _maxConcurrency = count;
+
+            return this;
+        }
+
         /**
          * set the {@code identifier} for the {@code TopologicalWorkerManager}
          *
@@ -229,27 +1210,58 @@ public class TopologicalWorkerManager extends BaseAbstractWorkerManager {
         }
 
         /**
-         * we have to store the mapping of worker to vertices.
-         * also, in case of new unseen workers(hashcode wise),
-         * map them.
+         * resolve the cost of a worker, by estimation, by history or by default.
          *
          * @param worker the {@code IWorker}
          *
-         * @return the corresponding {@code Vertex}
+         * @return the cost
+         */
+        private long costOf(IWorker worker) {
+            Long cost = _costs.get(worker);
+
+            if(cost == null && _costsById != null)
+                cost = _costsById.get(worker.getId());
+
+            return cost == null ? DEFAULT_COST : cost;
+        }
+
+        /**
+         * add a directed edge, {@code from} has to complete before {@code to}.
+         * repeated edges are ignored.
+         *
+         * @param from the predecessor
+         * @param to   the successor
          */
-        private Vertex<IWorker> vertexOf(IWorker worker) {
-            Vertex<IWorker> vertex = _mapWorkerVertex.get(worker);
+        private void addEdge(IWorker from, IWorker to) {
+            successorsOf(to);
 
-            if(vertex != null)
-                return vertex;
+            if(!successorsOf(from).add(to))
+                return;
+
+            Integer degree = _inDegree.get(to);
+
+            _inDegree.put(to, degree == null ? 1 : degree + 1);
+        }
+
+        /**
+         * get the successors of a worker. also, in case of new
+         * unseen workers(hashcode wise), map them.
+         *
+         * @param worker the {@code IWorker}
+         *
+         * @return the successors
+         */
+        private LinkedHashSet<IWorker> successorsOf(IWorker worker) {
+            LinkedHashSet<IWorker> successors = _successors.get(worker);
 
-            vertex       = new Vertex<>();
+            if(successors != null)
+                return successors;
 
-            vertex.setData(worker);
+            successors = new LinkedHashSet<>();
 
-            _mapWorkerVertex.put(worker, vertex);
+            _successors.put(worker, successors);
 
-            return vertex;
+            return successors;
         }
 
     }
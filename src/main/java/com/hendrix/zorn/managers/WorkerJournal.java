@@ -0,0 +1,642 @@
+package com.hendrix.zorn.managers;
+
+import com.hendrix.zorn.Zorn;
+import com.hendrix.zorn.interfaces.IPersistable;
+import com.hendrix.zorn.trace.Trace;
+import com.hendrix.zorn.trace.TraceLevel;
+import com.hendrix.zorn.workers.IWorker;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * a durable journal of pending workers, so the work of a manager survives a restart of the process.
+ * workers that implement {@link IPersistable} are journaled when they are enqueued, and checkpointed
+ * when they complete or have failed for good. on open, the journal replays only the unfinished workers:
+ * <pre>
+ *     WorkerJournal journal = WorkerJournal.open(new File(getFilesDir(), "uploads.journal"), decoder);
+ *
+ *     manager.setJournal(journal);
+ *     manager.enqueueAll(journal.getRecoveredWorkers());
+ * </pre>
+ *
+ * <ul>
+ *     <li/>the journal is an append only file, memory mapped in growing regions, so an append is a
+ *     copy into the page cache without a system call. the pages survive a crash of the process,
+ *     use {@link #sync()} to survive a crash of the device as well.
+ *     <li/>every record carries it's length and a {@code CRC32}, and the length is written last,
+ *     so a record that was torn by a crash ends the replay.
+ *     <li/>once most of the records are dead (finished workers, and their checkpoints), the live
+ *     records are copied into a new file that replaces the journal, on a background executor.
+ * </ul>
+ *
+ * a worker that has failed for good is checkpointed with a tombstone, so it is not replayed forever.
+ * a worker that waits for a retry is still live. the journal is owned by the caller, and is not
+ * closed by the manager.
+ *
+ * @author Tomer Shalev
+ */
+@SuppressWarnings("UnusedDeclaration")
+public class WorkerJournal {
+    static final String ZORN_JOURNAL_TAG        = "Zorn Journal";
+
+    static final int    MAGIC                   = 0x5A524E4A;
+    static final int    VERSION                 = 1;
+    static final int    HEADER_SIZE             = 8;
+    static final int    RECORD_HEADER_SIZE      = 8;
+    static final byte   OP_ENQUEUE              = 1;
+    static final byte   OP_COMPLETE             = 2;
+    static final byte   OP_FAIL                 = 3;
+    static final int    MIN_MAPPING             = 1 << 20;
+
+    /**
+     * reads a journaled worker back
+     */
+    public interface Decoder {
+        /**
+         * @param type  the {@link IPersistable#getPersistentType()} of the worker
+         * @param in    what the worker has written
+         *
+         * @return the worker
+         *
+         * @throws IOException if the input is malformed
+         */
+        IWorker decode(String type, DataInput in) throws IOException;
+    }
+
+    private final File              _file;
+    private final Decoder           _decoder;
+
+    private RandomAccessFile        _raf;
+    private FileChannel             _channel;
+    private MappedByteBuffer        _buffer;
+    /**
+     * where the next record is written
+     */
+    private int                     _position       = HEADER_SIZE;
+    /**
+     * the number of records in the file, live or dead
+     */
+    private int                     _numRecords     = 0;
+
+    /**
+     * the offset of the record of every live worker
+     */
+    private final IdentityHashMap<IWorker, Integer> _live = new IdentityHashMap<>();
+    private final ArrayList<IWorker> _recovered     = new ArrayList<>();
+
+    private final RecordOutput      _out            = new RecordOutput();
+    private final DataOutputStream  _dataOut        = new DataOutputStream(_out);
+    private final RecordInput       _in             = new RecordInput();
+    private final DataInputStream   _dataIn         = new DataInputStream(_in);
+    private final CRC32             _crc            = new CRC32();
+    private byte[]                  _scratch        = new byte[256];
+
+    private long                    _compactionThreshold = 4 << 20;
+    private int                     _numCompactions = 0;
+    private volatile Executor       _compactionExecutor = null;
+    /**
+     * {@code true} while a compaction is scheduled and has not run yet
+     */
+    private boolean                 _compacting     = false;
+    private long                    _recoveryNanos  = 0;
+    private boolean                 _closed         = false;
+
+    private WorkerJournal(File file, Decoder decoder) {
+        _file       = file;
+        _decoder    = decoder;
+    }
+
+    /**
+     * open a journal, or create it if it does not exist, and replay it's unfinished workers.
+     *
+     * @param file      the journal file
+     * @param decoder   reads the journaled workers back
+     *
+     * @return the {@link WorkerJournal}
+     *
+     * @throws IOException if the file is not a journal, or can not be read
+     */
+    static public WorkerJournal open(File file, Decoder decoder) throws IOException
+    {
+        if(file == null)
+            throw new NullPointerException("file is null!!");
+
+        if(decoder == null)
+            throw new NullPointerException("decoder is null!!");
+
+        WorkerJournal journal = new WorkerJournal(file, decoder);
+
+        journal.openFile();
+
+        return journal;
+    }
+
+    /**
+     * @return the unfinished workers of the journal when it was opened, in the order they were enqueued
+     */
+    public synchronized List<IWorker> getRecoveredWorkers() {
+        return new ArrayList<>(_recovered);
+    }
+
+    /**
+     * @return the time it took to replay the journal when it was opened, in nanoseconds
+     */
+    public long getRecoveryNanos() {
+        return _recoveryNanos;
+    }
+
+    /**
+     * @return the number of journaled workers that have not completed
+     */
+    public synchronized int size() {
+        return _live.size();
+    }
+
+    /**
+     * @return the number of bytes of records in the journal
+     */
+    public synchronized int sizeBytes() {
+        return _position;
+    }
+
+    /**
+     * @return the number of times the journal was compacted
+     */
+    public synchronized int getNumCompactions() {
+        return _numCompactions;
+    }
+
+    /**
+     * compact the journal once it is larger than the threshold and most of it's records are dead.
+     *
+     * @param bytes the threshold, {@code 4MB} by default
+     */
+    public synchronized void setCompactionThreshold(long bytes) {
+        _compactionThreshold = bytes;
+    }
+
+    /**
+     * set the executor that compacts the journal, so the file is not copied on the thread
+     * that checkpoints a worker, often the main thread.
+     *
+     * @param executor the executor, or {@code null} for {@link Zorn#defaultExecutorService}
+     */
+    public void setCompactionExecutor(Executor executor) {
+        _compactionExecutor = executor;
+    }
+
+    /**
+     * journal an enqueued worker. a worker that is not {@link IPersistable}, or is already journaled, is ignored.
+     *
+     * @param worker the {@link IWorker}
+     *
+     * @throws IllegalStateException if the journal could not be written
+     */
+    public synchronized void append(IWorker worker)
+    {
+        if(!(worker instanceof IPersistable) || _live.containsKey(worker))
+            return;
+
+        IPersistable persistable = (IPersistable) worker;
+
+        try {
+            _out.reset();
+            _dataOut.writeByte(OP_ENQUEUE);
+            _dataOut.writeUTF(persistable.getPersistentType());
+
+            persistable.writeTo(_dataOut);
+
+            _live.put(worker, write());
+        } catch (IOException exc) {
+            throw new IllegalStateException("journal " + _file + " could not be written!!", exc);
+        }
+    }
+
+    /**
+     * checkpoint a completed worker, it is not replayed anymore.
+     *
+     * @param worker the {@link IWorker}
+     *
+     * @throws IllegalStateException if the journal could not be written
+     */
+    public synchronized void complete(IWorker worker)
+    {
+        checkpoint(worker, OP_COMPLETE);
+    }
+
+    /**
+     * checkpoint a worker that has failed for good with a tombstone, it is not replayed anymore.
+     * a worker that is enqueued again, for example by {@code retry()}, is journaled again.
+     *
+     * @param worker the {@link IWorker}
+     *
+     * @throws IllegalStateException if the journal could not be written
+     */
+    public synchronized void fail(IWorker worker)
+    {
+        checkpoint(worker, OP_FAIL);
+    }
+
+    /**
+     * copy the live records into a new file that replaces the journal
+     *
+     * @throws IOException if the new file could not be written
+     */
+    public synchronized void compact() throws IOException
+    {
+        ensureOpen();
+
+        ArrayList<Map.Entry<IWorker, Integer>> live = new ArrayList<>(_live.entrySet());
+
+        // keep the order of enqueue
+        Collections.sort(live, new Comparator<Map.Entry<IWorker, Integer>>() {
+            @Override
+            public int compare(Map.Entry<IWorker, Integer> lhs, Map.Entry<IWorker, Integer> rhs) {
+                return lhs.getValue().compareTo(rhs.getValue());
+            }
+        });
+
+        long size = HEADER_SIZE;
+
+        for (Map.Entry<IWorker, Integer> entry : live) {
+            size += RECORD_HEADER_SIZE + _buffer.getInt(entry.getValue());
+        }
+
+        File compacted              = new File(_file.getPath() + ".compact");
+
+        if(compacted.exists() && !compacted.delete())
+            throw new IOException("could not delete " + compacted + "!!");
+
+        RandomAccessFile raf        = new RandomAccessFile(compacted, "rw");
+        FileChannel channel         = raf.getChannel();
+        MappedByteBuffer buffer     = channel.map(FileChannel.MapMode.READ_WRITE, 0, mappingSize(size * 2));
+        int[] offsets               = new int[live.size()];
+        int position                = HEADER_SIZE;
+        int length;
+
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+
+        for (int ix = 0; ix < offsets.length; ix++) {
+            int offset  = live.get(ix).getValue();
+
+            length      = RECORD_HEADER_SIZE + _buffer.getInt(offset);
+
+            _buffer.position(offset);
+            _buffer.get(scratch(length), 0, length);
+
+            buffer.position(position);
+            buffer.put(_scratch, 0, length);
+
+            offsets[ix] = position;
+            position   += length;
+        }
+
+        buffer.force();
+
+        _channel.close();
+        _raf.close();
+
+        if(!compacted.renameTo(_file))
+            throw new IOException("could not replace " + _file + "!!");
+
+        _raf            = raf;
+        _channel        = channel;
+        _buffer         = buffer;
+        _position       = position;
+        _numRecords     = offsets.length;
+        _numCompactions += 1;
+
+        // the entries are copies of the IdentityHashMap's, they do not write through
+        for (int ix = 0; ix < offsets.length; ix++) {
+            _live.put(live.get(ix).getKey(), offsets[ix]);
+        }
+    }
+
+    /**
+     * flush the journal to the storage device
+     */
+    public synchronized void sync() {
+        if(!_closed)
+            _buffer.force();
+    }
+
+    /**
+     * flush and close the journal
+     *
+     * @throws IOException if the file could not be closed
+     */
+    public synchronized void close() throws IOException {
+        if(_closed)
+            return;
+
+        _closed = true;
+
+        _buffer.force();
+        _channel.close();
+        _raf.close();
+
+        _buffer = null;
+    }
+
+    @Override
+    public String toString() {
+        return "WorkerJournal:: file=" + _file + ", live#=" + _live.size() + ", records#=" + _numRecords + ", bytes=" + _position
+                + ", compactions#=" + _numCompactions + ", recovery=" + TimeUnit.NANOSECONDS.toMillis(_recoveryNanos) + "ms";
+    }
+
+    private void openFile() throws IOException
+    {
+        _raf        = new RandomAccessFile(_file, "rw");
+        _channel    = _raf.getChannel();
+
+        long size   = _channel.size();
+
+        _buffer     = _channel.map(FileChannel.MapMode.READ_WRITE, 0, mappingSize(size));
+
+        if(size < HEADER_SIZE) {
+            _buffer.putInt(0, MAGIC);
+            _buffer.putInt(4, VERSION);
+
+            return;
+        }
+
+        if(_buffer.getInt(0) != MAGIC || _buffer.getInt(4) != VERSION) {
+            close();
+
+            throw new IOException(_file + " is not a journal!!");
+        }
+
+        replay();
+    }
+
+    /**
+     * scan the records up to the first one that is missing or torn, and decode the live workers
+     */
+    private void replay() throws IOException
+    {
+        long start          = System.nanoTime();
+        int[] enqueued      = new int[1024];
+        int count           = 0;
+        BitSet completed    = new BitSet();
+        int capacity        = _buffer.capacity();
+        int position        = HEADER_SIZE;
+        int length;
+
+        while (position + RECORD_HEADER_SIZE <= capacity) {
+            length          = _buffer.getInt(position);
+
+            if(length <= 0 || length > capacity - position - RECORD_HEADER_SIZE)
+                break;
+
+            _buffer.position(position + RECORD_HEADER_SIZE);
+            _buffer.get(scratch(length), 0, length);
+
+            _crc.reset();
+            _crc.update(_scratch, 0, length);
+
+            if((int) _crc.getValue() != _buffer.getInt(position + 4))
+                break;
+
+            if(_scratch[0] == OP_ENQUEUE) {
+                if(count == enqueued.length)
+                    enqueued = Arrays.copyOf(enqueued, count * 2);
+
+                enqueued[count++] = position;
+            }
+            else if(_scratch[0] == OP_COMPLETE || _scratch[0] == OP_FAIL) {
+                int ix = Arrays.binarySearch(enqueued, 0, count, readInt(_scratch, 1));
+
+                if(ix >= 0)
+                    completed.set(ix);
+            }
+            else
+                break;
+
+            _numRecords    += 1;
+            position       += RECORD_HEADER_SIZE + length;
+        }
+
+        _position           = position;
+
+        // forget a torn record, so the next scan ends here as well until it is overwritten
+        if(position + 4 <= capacity)
+            _buffer.putInt(position, 0);
+
+        for (int ix = completed.nextClearBit(0); ix < count; ix = completed.nextClearBit(ix + 1)) {
+            IWorker worker  = decode(enqueued[ix]);
+
+            _live.put(worker, enqueued[ix]);
+            _recovered.add(worker);
+        }
+
+        _recoveryNanos      = System.nanoTime() - start;
+    }
+
+    /**
+     * end the record of a live worker, and schedule a compaction once most of the records are dead
+     *
+     * @param worker    the {@link IWorker}
+     * @param op        {@code OP_COMPLETE} or {@code OP_FAIL}
+     */
+    private void checkpoint(IWorker worker, byte op)
+    {
+        Integer offset = _live.remove(worker);
+
+        if(offset == null)
+            return;
+
+        try {
+            _out.reset();
+            _dataOut.writeByte(op);
+            _dataOut.writeInt(offset);
+
+            write();
+        } catch (IOException exc) {
+            throw new IllegalStateException("journal " + _file + " could not be written!!", exc);
+        }
+
+        if(!_compacting && shouldCompact())
+            scheduleCompaction();
+    }
+
+    private boolean shouldCompact() {
+        return _position > _compactionThreshold && _numRecords - _live.size() > _live.size();
+    }
+
+    /**
+     * compact on the compaction executor, the file I/O does not belong on the calling thread
+     */
+    private void scheduleCompaction()
+    {
+        Executor executor   = _compactionExecutor != null ? _compactionExecutor : Zorn.defaultExecutorService;
+
+        _compacting         = true;
+
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    synchronized (WorkerJournal.this) {
+                        _compacting = false;
+
+                        if(_closed || !shouldCompact())
+                            return;
+
+                        try {
+                            compact();
+                        } catch (IOException exc) {
+                            Trace.log(TraceLevel.ERROR, ZORN_JOURNAL_TAG, "compaction of %s has failed: %s", _file, exc);
+                        }
+                    }
+                }
+            });
+        } catch (RejectedExecutionException exc) {
+            _compacting     = false;
+        }
+    }
+
+    private IWorker decode(int offset) throws IOException
+    {
+        int length = _buffer.getInt(offset);
+
+        _buffer.position(offset + RECORD_HEADER_SIZE);
+        _buffer.get(scratch(length), 0, length);
+
+        _in.set(_scratch, 1, length - 1);
+
+        IWorker worker = _decoder.decode(_dataIn.readUTF(), _dataIn);
+
+        if(worker == null)
+            throw new IOException("the decoder has returned null!!");
+
+        return worker;
+    }
+
+    /**
+     * append the record in {@code _out}
+     *
+     * @return the offset of the record
+     */
+    private int write() throws IOException
+    {
+        ensureOpen();
+
+        int length      = _out.size();
+        int offset      = _position;
+
+        ensureCapacity((long) offset + RECORD_HEADER_SIZE + length + 4);
+
+        _crc.reset();
+        _crc.update(_out.array(), 0, length);
+
+        _buffer.position(offset + RECORD_HEADER_SIZE);
+        _buffer.put(_out.array(), 0, length);
+        _buffer.putInt(offset + 4, (int) _crc.getValue());
+        // the length goes last, a record without it does not exist
+        _buffer.putInt(offset, length);
+
+        _position      += RECORD_HEADER_SIZE + length;
+        _numRecords    += 1;
+
+        return offset;
+    }
+
+    private void ensureCapacity(long required) throws IOException
+    {
+        if(required <= _buffer.capacity())
+            return;
+
+        _buffer = _channel.map(FileChannel.MapMode.READ_WRITE, 0, mappingSize(Math.max(required, 2L * _buffer.capacity())));
+    }
+
+    private void ensureOpen() throws IOException {
+        if(_closed)
+            throw new IOException("journal " + _file + " is closed!!");
+    }
+
+    private byte[] scratch(int length)
+    {
+        if(_scratch.length < length)
+            _scratch = new byte[Math.max(length, _scratch.length * 2)];
+
+        return _scratch;
+    }
+
+    static private long mappingSize(long size) throws IOException
+    {
+        if(size > Integer.MAX_VALUE)
+            throw new IOException("journal is full!!");
+
+        return Math.max(MIN_MAPPING, size);
+    }
+
+    static private int readInt(byte[] bytes, int offset) {
+        return (bytes[offset] << 24) | ((bytes[offset + 1] & 0xFF) << 16) | ((bytes[offset + 2] & 0xFF) << 8) | (bytes[offset + 3] & 0xFF);
+    }
+
+    /**
+     * a reusable output, that exposes it's array
+     */
+    static private final class RecordOutput extends ByteArrayOutputStream {
+        byte[] array() {
+            return buf;
+        }
+    }
+
+    /**
+     * a reusable input over a range of an array
+     */
+    static private final class RecordInput extends InputStream {
+        private byte[]  _bytes;
+        private int     _position;
+        private int     _end;
+
+        void set(byte[] bytes, int offset, int length) {
+            _bytes      = bytes;
+            _position   = offset;
+            _end        = offset + length;
+        }
+
+        @Override
+        public int read() {
+            return _position < _end ? _bytes[_position++] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if(_position >= _end)
+                return -1;
+
+            length      = Math.min(length, _end - _position);
+
+            System.arraycopy(_bytes, _position, bytes, offset, length);
+
+            _position  += length;
+
+            return length;
+        }
+    }
+
+}
@@ -15,6 +15,21 @@ public class WorkerManagerErrorInfo
          */
         ERROR_FAILED_PROCESS,
 
+        /**
+         * <code>ERROR_DEADLINE_MISSED</code> - represents a process whose deadline has passed before it has started.
+         */
+        ERROR_DEADLINE_MISSED,
+
+        /**
+         * <code>ERROR_CIRCUIT_OPEN</code> - represents a process that was not run, since the circuit breaker of it's group is open.
+         */
+        ERROR_CIRCUIT_OPEN,
+
+        /**
+         * <code>ERROR_PREDECESSOR_FAILED</code> - represents a process that was not run, since a process it depends on has failed.
+         */
+        ERROR_PREDECESSOR_FAILED,
+
         /**
          * <code>NO_ERROR</code> - NO ERROR.
          */
@@ -25,6 +40,7 @@ public class WorkerManagerErrorInfo
     private ErrorCode   _codeError                    = ErrorCode.NO_ERROR;
 
     private Object      _dataAux                      = null;
+    private Throwable   _cause                        = null;
 
     public WorkerManagerErrorInfo(ErrorCode codeError, String msg, Object dataAux)
     {
@@ -44,12 +60,44 @@ public class WorkerManagerErrorInfo
         _dataAux    = dataAux;
     }
 
+    /**
+     * a failure of a worker, whose description is built only when it is read.
+     *
+     * @param workerId  the id of the failed worker
+     * @param cause     the failure of the worker, or {@code null} if it was not reported
+     *
+     * @return a {@link WorkerManagerErrorInfo} of {@code ERROR_FAILED_PROCESS}
+     */
+    static WorkerManagerErrorInfo failedProcess(String workerId, Throwable cause)
+    {
+        WorkerManagerErrorInfo info = new WorkerManagerErrorInfo(ErrorCode.ERROR_FAILED_PROCESS, null, workerId);
+
+        info._cause                 = cause;
+
+        return info;
+    }
+
     /**
      * error description.
      */
     public String getMsgError() {
+        if(_msgError == null && _codeError == ErrorCode.ERROR_FAILED_PROCESS)
+            _msgError = "Worker with ID: " + _dataAux + " FAILED!!" + (_cause != null ? " cause: " + _cause : "");
+
         return _msgError;
     }
+
+    /**
+     * the failure that caused the error, with it's stack trace.
+     *
+     * @return the {@link Throwable}, or {@code null} if it was not reported
+     */
+    public Throwable getCause() {
+        return _cause;
+    }
+    public void setCause(Throwable value) {
+        _cause = value;
+    }
     public void setMsgError(String value) {
         _msgError = value;
     }
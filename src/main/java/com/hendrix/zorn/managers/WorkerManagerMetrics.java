@@ -0,0 +1,248 @@
+package com.hendrix.zorn.managers;
+
+import com.hendrix.zorn.interfaces.ITimed;
+import com.hendrix.zorn.workers.IWorker;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * latency and throughput instrumentation of a worker manager. for every worker it records:
+ *
+ * <ul>
+ *     <li/>queue wait - from enqueue until the worker was dispatched to the executor, also the
+ *     longest one of every priority, to spot starvation.
+ *     <li/>execution - the time it's work took ({@link ITimed} workers), or until it's callback otherwise.
+ *     <li/>callback delivery - from the end of it's work until the manager was notified.
+ * </ul>
+ *
+ * it exists only while metrics are enabled on the manager, so a disabled manager pays nothing.
+ *
+ * @see AbstractWorkerManager#setMetricsEnabled(boolean)
+ *
+ * @author Tomer Shalev
+ */
+@SuppressWarnings("UnusedDeclaration")
+public class WorkerManagerMetrics {
+    private final LatencyHistogram  _queueWait          = new LatencyHistogram();
+    private final LatencyHistogram  _execution          = new LatencyHistogram();
+    private final LatencyHistogram  _callbackDelivery   = new LatencyHistogram();
+
+    private final AtomicLong        _numEnqueued        = new AtomicLong(0);
+    private final AtomicLong        _numCompleted       = new AtomicLong(0);
+    private final AtomicLong        _numFailed          = new AtomicLong(0);
+
+    private volatile long           _startTime          = System.nanoTime();
+
+    /**
+     * the longest queue wait of every priority
+     */
+    private final ConcurrentHashMap<Integer, AtomicLong> _maxWaits = new ConcurrentHashMap<>();
+
+    /**
+     * the timing of every worker between enqueue and finish
+     */
+    private final ConcurrentHashMap<IWorker, long[]> _timings = new ConcurrentHashMap<>();
+
+    private static final int ENQUEUED   = 0;
+    private static final int DISPATCHED = 1;
+
+    WorkerManagerMetrics() {
+    }
+
+    void onEnqueue(IWorker worker)
+    {
+        _numEnqueued.incrementAndGet();
+
+        long[] timing   = new long[2];
+
+        timing[ENQUEUED] = System.nanoTime();
+
+        _timings.put(worker, timing);
+    }
+
+    void onDispatch(IWorker worker)
+    {
+        long[] timing = _timings.get(worker);
+
+        if(timing != null) {
+            timing[DISPATCHED] = System.nanoTime();
+
+            long wait           = timing[DISPATCHED] - timing[ENQUEUED];
+
+            _queueWait.record(wait);
+
+            recordMaxWait(worker.getPriority(), wait);
+        }
+    }
+
+    void onFinish(IWorker worker, boolean success, WorkerMetricsObserver observer)
+    {
+        long now        = System.nanoTime();
+        long[] timing   = _timings.remove(worker);
+
+        (success ? _numCompleted : _numFailed).incrementAndGet();
+
+        if(timing == null || timing[DISPATCHED] == 0)
+            return;
+
+        long queue      = timing[DISPATCHED] - timing[ENQUEUED];
+        long execution  = now - timing[DISPATCHED];
+        long callback   = 0;
+
+        if(worker instanceof ITimed) {
+            long end    = ((ITimed) worker).getWorkEndTime();
+
+            if(end != 0 && end <= now) {
+                execution   = end - Math.max(timing[DISPATCHED], ((ITimed) worker).getWorkStartTime());
+                callback    = now - end;
+            }
+        }
+
+        _execution.record(execution);
+        _callbackDelivery.record(callback);
+
+        if(observer != null)
+            observer.onWorkerMeasured(worker, success, queue, execution, callback);
+    }
+
+    /**
+     * forget the workers that were drained without running
+     */
+    void clearPending() {
+        _timings.clear();
+    }
+
+    /**
+     * forget everything recorded so far, and restart the throughput clock
+     */
+    public void reset()
+    {
+        _queueWait.reset();
+        _execution.reset();
+        _callbackDelivery.reset();
+
+        _numEnqueued.set(0);
+        _numCompleted.set(0);
+        _numFailed.set(0);
+        _maxWaits.clear();
+
+        _startTime = System.nanoTime();
+    }
+
+    private void recordMaxWait(int priority, long wait)
+    {
+        AtomicLong max = _maxWaits.get(priority);
+
+        if(max == null) {
+            AtomicLong prev = _maxWaits.putIfAbsent(priority, max = new AtomicLong(0));
+
+            if(prev != null)
+                max = prev;
+        }
+
+        long current;
+
+        while (wait > (current = max.get())) {
+            if(max.compareAndSet(current, wait))
+                break;
+        }
+    }
+
+    /**
+     * take a consistent enough copy of the metrics
+     *
+     * @param queueDepth    the current number of pending workers
+     * @param running       the current number of running workers
+     *
+     * @return a {@link Snapshot}
+     */
+    Snapshot snapshot(int queueDepth, int running)
+    {
+        return new Snapshot(this, queueDepth, running);
+    }
+
+    /**
+     * an immutable copy of the metrics of a worker manager
+     */
+    public static class Snapshot {
+        public final LatencyHistogram   queueWait;
+        public final LatencyHistogram   execution;
+        public final LatencyHistogram   callbackDelivery;
+
+        public final long               numEnqueued;
+        public final long               numCompleted;
+        public final long               numFailed;
+
+        /**
+         * the longest queue wait in nanoseconds of the dispatched workers of every priority, highest priority first
+         */
+        public final Map<Integer, Long> maxQueueWaitByPriority;
+
+        /**
+         * the number of pending workers, when the snapshot was taken
+         */
+        public final int                queueDepth;
+        /**
+         * the number of running workers, when the snapshot was taken
+         */
+        public final int                numRunning;
+        /**
+         * the time since metrics were enabled or reset, in nanoseconds
+         */
+        public final long               elapsedNanos;
+
+        private Snapshot(WorkerManagerMetrics metrics, int queueDepth, int running) {
+            this.queueWait          = metrics._queueWait.copy();
+            this.execution          = metrics._execution.copy();
+            this.callbackDelivery   = metrics._callbackDelivery.copy();
+            this.numEnqueued        = metrics._numEnqueued.get();
+            this.numCompleted       = metrics._numCompleted.get();
+            this.numFailed          = metrics._numFailed.get();
+            this.queueDepth         = queueDepth;
+            this.numRunning         = running;
+            this.elapsedNanos       = System.nanoTime() - metrics._startTime;
+
+            TreeMap<Integer, Long> maxWaits = new TreeMap<>(Collections.<Integer>reverseOrder());
+
+            for (Map.Entry<Integer, AtomicLong> entry : metrics._maxWaits.entrySet()) {
+                maxWaits.put(entry.getKey(), entry.getValue().get());
+            }
+
+            this.maxQueueWaitByPriority = Collections.unmodifiableMap(maxWaits);
+        }
+
+        /**
+         * @return finished (completed or failed) workers per second
+         */
+        public double getThroughput() {
+            return elapsedNanos == 0 ? 0 : (numCompleted + numFailed) / (elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1));
+        }
+
+        @Override
+        public String toString() {
+            return "Zorn Metrics:: throughput=" + (long) getThroughput() + "/s, enqueued=" + numEnqueued
+                    + ", completed=" + numCompleted + ", failed=" + numFailed + ", depth=" + queueDepth
+                    + ", running=" + numRunning + "\n  queue wait: " + queueWait + "\n  execution: " + execution
+                    + "\n  callback delivery: " + callbackDelivery + "\n  max queue wait by priority: " + maxWaitsToString();
+        }
+
+        private String maxWaitsToString() {
+            StringBuilder sb = new StringBuilder("{");
+
+            for (Map.Entry<Integer, Long> entry : maxQueueWaitByPriority.entrySet()) {
+                if(sb.length() > 1)
+                    sb.append(", ");
+
+                sb.append(entry.getKey()).append('=').append(entry.getValue() / 1000).append("us");
+            }
+
+            return sb.append('}').toString();
+        }
+    }
+
+}
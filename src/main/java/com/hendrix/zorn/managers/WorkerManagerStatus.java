@@ -1,12 +1,15 @@
 package com.hendrix.zorn.managers;
 
 import com.hendrix.zorn.interfaces.IDisposable;
+import com.hendrix.zorn.trace.Trace;
+import com.hendrix.zorn.trace.TraceLevel;
 
 import java.util.ArrayList;
 
 @SuppressWarnings("UnusedDeclaration")
 public class WorkerManagerStatus implements IDisposable
 {
+    static public final String ZORN_STATUS_TAG = "Zorn Manager";
 
     public enum Status {
         /**
@@ -35,6 +38,9 @@ public class WorkerManagerStatus implements IDisposable
         STATUS_STOP
     }
 
+    /**
+     * trace the changes of this status through {@link Trace}, which is off unless configured.
+     */
     public  boolean                             flagTraceLog    = true;
 
     public  int                                 numComplete     = 0;
@@ -58,8 +64,8 @@ public class WorkerManagerStatus implements IDisposable
     {
         _errors.add(error);
 
-        if(flagTraceLog)
-            System.out.printf("ProcessManager Error: code=%s, msg=%s, dataAux=%s %n", error.getCodeError(), error.getMsgError(), error.getDataAux().toString());
+        if(flagTraceLog && Trace.isLoggable(TraceLevel.ERROR))
+            Trace.log(TraceLevel.ERROR, ZORN_STATUS_TAG, "Error: code=%s, msg=%s, dataAux=%s", error.getCodeError(), error.getMsgError(), error.getDataAux());
     }
 
     /**
@@ -84,7 +90,7 @@ public class WorkerManagerStatus implements IDisposable
     public void dispose()
     {
         if(flagTraceLog)
-            System.out.printf("ProcessManager Dispose() %n");
+            Trace.log(TraceLevel.VERBOSE, ZORN_STATUS_TAG, "Dispose()");
 
         cleanErrors();
 
@@ -108,7 +114,7 @@ public class WorkerManagerStatus implements IDisposable
         _status = value;
 
         if(flagTraceLog)
-            System.out.printf("ProcessManager new status: %s %n", _status);
+            Trace.log(TraceLevel.DEBUG, ZORN_STATUS_TAG, "new status: %s", value);
     }
 
 }
\ No newline at end of file
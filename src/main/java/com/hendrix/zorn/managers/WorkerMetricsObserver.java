@@ -0,0 +1,20 @@
+package com.hendrix.zorn.managers;
+
+import com.hendrix.zorn.workers.IWorker;
+
+/**
+ * callback interface for the metrics of every finished {@link IWorker} of a worker manager.
+ * it is called on the thread that delivers the worker's callbacks, keep it short.
+ *
+ * @see AbstractWorkerManager#setMetricsObserver(WorkerMetricsObserver)
+ */
+public interface WorkerMetricsObserver {
+    /**
+     * @param worker        the finished worker
+     * @param success       {@code true} if it completed, {@code false} if it failed
+     * @param queueNanos    the time it waited from enqueue until dispatch
+     * @param executionNanos the time it's work took, or until it's callback if the worker is not {@code ITimed}
+     * @param callbackNanos the time from the end of it's work until the manager was notified
+     */
+    void onWorkerMeasured(IWorker worker, boolean success, long queueNanos, long executionNanos, long callbackNanos);
+}
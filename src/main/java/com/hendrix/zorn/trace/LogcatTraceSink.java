@@ -0,0 +1,35 @@
+package com.hendrix.zorn.trace;
+
+import android.util.Log;
+
+/**
+ * a {@link TraceSink} that writes events into the Android log.
+ *
+ * @author Tomer Shalev
+ */
+public class LogcatTraceSink implements TraceSink {
+
+    @Override
+    public void trace(TraceLevel level, String tag, String format, Object[] args) {
+        String msg = Trace.format(format, args);
+
+        switch (level) {
+            case VERBOSE:
+                Log.v(tag, msg);
+                break;
+            case DEBUG:
+                Log.d(tag, msg);
+                break;
+            case INFO:
+                Log.i(tag, msg);
+                break;
+            case WARN:
+                Log.w(tag, msg);
+                break;
+            default:
+                Log.e(tag, msg);
+                break;
+        }
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.hendrix.zorn.trace;
+
+import java.io.PrintStream;
+
+/**
+ * a {@link TraceSink} that prints events into a {@link PrintStream}, {@code System.out} by default.
+ *
+ * @author Tomer Shalev
+ */
+@SuppressWarnings("UnusedDeclaration")
+public class PrintStreamTraceSink implements TraceSink {
+    private final PrintStream _out;
+
+    public PrintStreamTraceSink(PrintStream out) {
+        if(out == null)
+            throw new NullPointerException("out is null!!");
+
+        _out = out;
+    }
+
+    public PrintStreamTraceSink() {
+        this(System.out);
+    }
+
+    @Override
+    public void trace(TraceLevel level, String tag, String format, Object[] args) {
+        _out.println(level + " " + tag + ": " + Trace.format(format, args));
+    }
+
+}
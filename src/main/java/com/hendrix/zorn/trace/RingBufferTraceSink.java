@@ -0,0 +1,115 @@
+package com.hendrix.zorn.trace;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * a {@link TraceSink} that keeps the last events in memory, for post mortems. recording
+ * is lock free and never formats, the events are formatted only when dumped.
+ *
+ * @author Tomer Shalev
+ */
+@SuppressWarnings("UnusedDeclaration")
+public class RingBufferTraceSink implements TraceSink {
+    private final AtomicReferenceArray<Event>   _events;
+    private final AtomicLong                    _next = new AtomicLong(0);
+
+    /**
+     * @param capacity the number of last events that are kept
+     */
+    public RingBufferTraceSink(int capacity) {
+        if(capacity < 1)
+            throw new IllegalArgumentException("capacity must be positive!!");
+
+        _events = new AtomicReferenceArray<>(capacity);
+    }
+
+    public RingBufferTraceSink() {
+        this(1024);
+    }
+
+    @Override
+    public void trace(TraceLevel level, String tag, String format, Object[] args) {
+        long index = _next.getAndIncrement();
+
+        _events.set((int) (index % _events.length()), new Event(System.currentTimeMillis(), level, tag, format, args, Thread.currentThread().getName()));
+    }
+
+    /**
+     * @return the kept events, oldest first
+     */
+    public List<Event> getEvents() {
+        int capacity        = _events.length();
+        long next           = _next.get();
+        long first          = Math.max(0, next - capacity);
+        List<Event> events  = new ArrayList<>((int) (next - first));
+
+        for (long ix = first; ix < next; ix++) {
+            Event event = _events.get((int) (ix % capacity));
+
+            if(event != null)
+                events.add(event);
+        }
+
+        return events;
+    }
+
+    /**
+     * @return the kept events formatted, oldest first, one per line
+     */
+    public String dump() {
+        StringBuilder sb = new StringBuilder();
+
+        for (Event event : getEvents()) {
+            sb.append(event).append('\n');
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * forget the kept events
+     */
+    public void clear() {
+        for (int ix = 0; ix < _events.length(); ix++) {
+            _events.set(ix, null);
+        }
+    }
+
+    /**
+     * a traced event, not formatted yet
+     */
+    public static final class Event {
+        public final long       time;
+        public final TraceLevel level;
+        public final String     tag;
+        public final String     thread;
+
+        private final String    _format;
+        private final Object[]  _args;
+
+        private Event(long time, TraceLevel level, String tag, String format, Object[] args, String thread) {
+            this.time   = time;
+            this.level  = level;
+            this.tag    = tag;
+            this.thread = thread;
+            _format     = format;
+            _args       = args;
+        }
+
+        /**
+         * @return the formatted message
+         */
+        public String getMessage() {
+            return Trace.format(_format, _args);
+        }
+
+        @Override
+        public String toString() {
+            return time + " " + level + " " + tag + " [" + thread + "]: " + getMessage();
+        }
+    }
+
+}
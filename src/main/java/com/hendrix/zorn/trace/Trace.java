@@ -0,0 +1,102 @@
+package com.hendrix.zorn.trace;
+
+/**
+ * the tracing of Zorn. events below the current level are dropped before anything is
+ * formatted or allocated, and the level is {@code OFF} by default, so tracing costs a
+ * single volatile read when it is off.
+ * <pre>
+ *     Trace.setSink(new LogcatTraceSink());
+ *     Trace.setLevel(TraceLevel.DEBUG);
+ * </pre>
+ * use a {@link RingBufferTraceSink} to keep the last events in memory, for post mortems.
+ *
+ * @author Tomer Shalev
+ */
+@SuppressWarnings("UnusedDeclaration")
+public final class Trace {
+    static private final Object[] NO_ARGS       = new Object[0];
+
+    static private volatile TraceLevel  _level  = TraceLevel.OFF;
+    static private volatile TraceSink   _sink   = null;
+
+    private Trace() {
+    }
+
+    /**
+     * set the lowest level that is traced
+     *
+     * @param level the level, {@code OFF} disables tracing
+     */
+    static public void setLevel(TraceLevel level) {
+        if(level == null)
+            throw new NullPointerException("level is null!!");
+
+        _level = level;
+    }
+
+    /**
+     * @return the lowest level that is traced
+     */
+    static public TraceLevel getLevel() {
+        return _level;
+    }
+
+    /**
+     * set the destination of the events
+     *
+     * @param sink the sink, {@code null} disables tracing
+     */
+    static public void setSink(TraceSink sink) {
+        _sink = sink;
+    }
+
+    /**
+     * @return the destination of the events, or {@code null}
+     */
+    static public TraceSink getSink() {
+        return _sink;
+    }
+
+    /**
+     * @param level the level
+     *
+     * @return {@code true} if events of this level are traced. check it before building
+     * arguments that are expensive.
+     */
+    static public boolean isLoggable(TraceLevel level) {
+        return level.ordinal() >= _level.ordinal() && _sink != null;
+    }
+
+    static public void log(TraceLevel level, String tag, String msg) {
+        if(isLoggable(level))
+            _sink.trace(level, tag, msg, NO_ARGS);
+    }
+
+    static public void log(TraceLevel level, String tag, String format, Object arg) {
+        if(isLoggable(level))
+            _sink.trace(level, tag, format, new Object[] {arg});
+    }
+
+    static public void log(TraceLevel level, String tag, String format, Object arg1, Object arg2) {
+        if(isLoggable(level))
+            _sink.trace(level, tag, format, new Object[] {arg1, arg2});
+    }
+
+    static public void log(TraceLevel level, String tag, String format, Object arg1, Object arg2, Object arg3) {
+        if(isLoggable(level))
+            _sink.trace(level, tag, format, new Object[] {arg1, arg2, arg3});
+    }
+
+    /**
+     * format an event, for sinks that need the text
+     *
+     * @param format    the format
+     * @param args      the arguments
+     *
+     * @return the formatted message
+     */
+    static public String format(String format, Object[] args) {
+        return args.length == 0 ? format : String.format(format, args);
+    }
+
+}
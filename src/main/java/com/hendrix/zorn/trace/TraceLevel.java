@@ -0,0 +1,10 @@
+package com.hendrix.zorn.trace;
+
+/**
+ * the levels of {@link Trace}, from the most verbose to none at all.
+ *
+ * @author Tomer Shalev
+ */
+public enum TraceLevel {
+    VERBOSE, DEBUG, INFO, WARN, ERROR, OFF
+}
@@ -0,0 +1,18 @@
+package com.hendrix.zorn.trace;
+
+/**
+ * the destination of {@link Trace} events. a sink receives the format and it's
+ * arguments separately, and should only format them when it really needs the text.
+ *
+ * @author Tomer Shalev
+ */
+public interface TraceSink {
+
+    /**
+     * @param level     the level of the event
+     * @param tag       the component that traced the event
+     * @param format    a {@link String#format(String, Object...)} format
+     * @param args      the arguments of {@code format}, might be empty
+     */
+    void trace(TraceLevel level, String tag, String format, Object[] args);
+}
@@ -0,0 +1,258 @@
+package com.hendrix.zorn.workers;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * an {@link AbstractWorker} that computes a typed result. the result is delivered through
+ * a composable {@link WorkerFuture}, that is completed on the worker's thread right after
+ * {@link #compute()}, and before the completion callbacks are dispatched.
+ * <pre>
+ *     AbstractResultWorker&lt;Bitmap&gt; decode = new AbstractResultWorker&lt;Bitmap&gt;("decode") {
+ *         protected Bitmap compute() throws Exception {
+ *             return BitmapFactory.decodeFile(path);
+ *         }
+ *     };
+ *
+ *     decode.getFuture().thenApply(..);
+ * </pre>
+ * a result worker notifies completion or error on it's own, so automatic completion
+ * notify is always off. the future completes once, a worker that is processed again
+ * does not complete it again. a failure fails the future only when it is final, so a
+ * worker that is retried by it's manager can still complete it. a pooled worker gets a
+ * new future whenever it is recycled, and so does a worker that has failed for good and is
+ * enqueued again by {@code retry()} of it's manager. the future of a prior run keeps it's
+ * result, the {@link DataInput}s of {@link #addOutput(DataInput)} follow the new future.
+ * <p/>
+ * a worker that declares a cache key, and has a {@link WorkerMemoizer}, is served from
+ * the memoizer or coalesced with an identical worker in flight instead of computing.
+ *
+ * @author Tomer Shalev
+ */
+@SuppressWarnings("UnusedDeclaration")
+abstract public class AbstractResultWorker<T> extends AbstractWorker {
+    private volatile WorkerFuture<T> _resultFuture = new WorkerFuture<>();
+    /**
+     * the data-flow inputs fed by this worker, they follow it's future when it is replaced
+     */
+    private final CopyOnWriteArrayList<DataInput<? super T>> _outputs = new CopyOnWriteArrayList<>();
+
+    private volatile String         _cacheKey   = null;
+    private volatile WorkerMemoizer _memoizer   = null;
+
+    /**
+     * @param id            {@code identifier} (Optional)
+     * @param priorityKey   priority (Optional)
+     */
+    public AbstractResultWorker(String id, int priorityKey) {
+        super(id, priorityKey);
+
+        super.setAutomaticCompleteNotify(false);
+    }
+
+    /**
+     * @param id            {@code identifier} (Optional)
+     */
+    public AbstractResultWorker(String id) {
+        this(id, 0);
+    }
+
+    public AbstractResultWorker() {
+        this("Anonymous Worker", 0);
+    }
+
+    /**
+     * compute the result, runs on a background thread
+     *
+     * @return the result
+     *
+     * @throws Exception notifies an error, and fails the future unless the worker is retried
+     */
+    abstract protected T compute() throws Exception;
+
+    @Override
+    final public void work() {
+        WorkerFuture<T> future  = _resultFuture;
+        WorkerMemoizer memoizer = _memoizer;
+        String key              = memoizer == null ? null : getCacheKey();
+
+        if(key != null) {
+            WorkerFuture<?> shared = memoizer.acquire(key, future);
+
+            if(shared != null) {
+                follow(shared, future);
+
+                return;
+            }
+        }
+
+        T result;
+
+        try {
+            result = compute();
+        } catch (CancellationException exc) {
+            throw exc;
+        } catch (Exception exc) {
+            notifyError(exc);
+
+            return;
+        }
+
+        if(isCancelled())
+            return;
+
+        future.complete(result);
+
+        notifyComplete();
+    }
+
+    /**
+     * the key of the result of this worker, workers with equal keys compute equal results.
+     * override to derive it from the inputs of the worker.
+     *
+     * @return the cache key, or {@code null} if the result should not be memoized
+     */
+    public String getCacheKey() {
+        return _cacheKey;
+    }
+
+    /**
+     * @param key the cache key, or {@code null} if the result should not be memoized
+     */
+    public void setCacheKey(String key) {
+        _cacheKey = key;
+    }
+
+    /**
+     * @return the {@link WorkerMemoizer}, or {@code null}
+     */
+    public WorkerMemoizer getMemoizer() {
+        return _memoizer;
+    }
+
+    /**
+     * @param memoizer a {@link WorkerMemoizer} for the result of this worker, or {@code null}
+     */
+    public void setMemoizer(WorkerMemoizer memoizer) {
+        _memoizer = memoizer;
+    }
+
+    /**
+     * @return the pending result of this worker
+     */
+    public WorkerFuture<T> getFuture() {
+        return _resultFuture;
+    }
+
+    /**
+     * feed the result of this worker to a {@link DataInput}, also the results of the runs after
+     * the worker was recycled or retried.
+     *
+     * @param input the {@link DataInput}
+     */
+    public void addOutput(DataInput<? super T> input) {
+        if(input == null)
+            throw new NullPointerException("input is null!!");
+
+        _outputs.add(input);
+        _resultFuture.addListener(input);
+    }
+
+    /**
+     * @return the result, or {@code null} if it has not been computed successfully (yet)
+     */
+    public T getResult() {
+        return _resultFuture.getResult();
+    }
+
+    /**
+     * stop the worker, and cancel it's future
+     */
+    @Override
+    public void stop() {
+        super.stop();
+
+        _resultFuture.cancel(false);
+    }
+
+    /**
+     * the worker has failed for good, fail it's future
+     */
+    @Override
+    protected void onFailed() {
+        Throwable failure = getFailure();
+
+        _resultFuture.fail(failure != null ? failure : new IllegalStateException("worker " + getId() + " has failed!!"));
+    }
+
+    /**
+     * the future has failed for good, the next run completes a new one
+     */
+    @Override
+    public void onRetried() {
+        if(_resultFuture.isFailed())
+            rearm();
+
+        super.onRetried();
+    }
+
+    /**
+     * a recycled worker gets a new future, so the next run neither finds the last
+     * result, nor is taken for the in-flight leader of it's cache key
+     */
+    @Override
+    void recycle() {
+        rearm();
+
+        super.recycle();
+    }
+
+    /**
+     * replace the future, the outputs follow the new one
+     */
+    private void rearm() {
+        WorkerFuture<T> future = new WorkerFuture<>();
+
+        for (DataInput<? super T> input : _outputs) {
+            future.addListener(input);
+        }
+
+        _resultFuture = future;
+    }
+
+    /**
+     * complete with the result of a cached or coalesced future, on the thread that completes it.
+     *
+     * @param shared the future to follow
+     * @param result the future of this run
+     */
+    private void follow(WorkerFuture<?> shared, final WorkerFuture<T> result) {
+        shared.addListener(new WorkerFuture.Listener<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public void onComplete(WorkerFuture<?> future) {
+                if(future.isFailed()) {
+                    notifyError(future.getFailure());
+
+                    return;
+                }
+
+                result.complete((T) future.getResult());
+
+                notifyComplete();
+            }
+        });
+    }
+
+    /**
+     * a result worker always notifies on it's own.
+     *
+     * @throws UnsupportedOperationException if {@code flag} is {@code true}
+     */
+    @Override
+    public void setAutomaticCompleteNotify(boolean flag) {
+        if(flag)
+            throw new UnsupportedOperationException("a result worker notifies on it's own!!");
+    }
+
+}
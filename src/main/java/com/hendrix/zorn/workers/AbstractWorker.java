@@ -1,14 +1,17 @@
 package com.hendrix.zorn.workers;
 
-import android.annotation.SuppressLint;
-import android.os.Handler;
-import android.os.Message;
-import android.util.Log;
-
 import com.hendrix.zorn.Zorn;
+import com.hendrix.zorn.dispatchers.CallbackDispatcher;
+import com.hendrix.zorn.dispatchers.HandlerCallbackDispatcher;
+import com.hendrix.zorn.interfaces.IGroup;
+import com.hendrix.zorn.interfaces.ITimed;
+import com.hendrix.zorn.trace.Trace;
+import com.hendrix.zorn.trace.TraceLevel;
 import com.hendrix.zorn.managers.IWorkerManager;
 
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Abstract {@link IWorker} base pre implementation.
@@ -43,23 +46,21 @@ import java.util.concurrent.ExecutorService;
  *     notifyComplete(); or notifyProgress();
  * </pre>
  *
+ * an exception thrown by {@link #work()} is captured into the worker, see {@link #getFailure()}, and notified
+ * as an error, so a worker always notifies either completion or error.
+ * <p/>
  * a {@link IWorker} that runs on a different a thread, always returns results <b>{progress, complete, error}</b>, on the
- * thread that started the worker, so you don't have to worry about <b>concurrency</b> at all
+ * thread that started the worker, so you don't have to worry about <b>concurrency</b> at all.
+ * use {@link #setCallbackDispatcher(CallbackDispatcher)} to deliver them elsewhere, for example
+ * directly on the worker's thread, and avoid the round trip into the calling thread.
  *
  * @author Tomer Shalev
  */
 @SuppressWarnings("UnusedDeclaration")
-abstract public class AbstractWorker implements IWorker
+abstract public class AbstractWorker implements IWorker, ITimed, IRetryable, IGroup
 {
     static final String ZORN_WORKER_TAG = "Zorn Worker";
 
-    /**
-     * internal messages codes for completion, error, progress.
-     */
-    private static final int MESSAGE_COMPLETE     = 0x1;
-    private static final int MESSAGE_ERROR        = 0x2;
-    private static final int MESSAGE_PROGRESS     = 0x3;
-
     /**
      * worker priority
      */
@@ -68,6 +69,10 @@ abstract public class AbstractWorker implements IWorker
      * worker identification
      */
     protected String            _id                 = null;
+    /**
+     * worker group, for example the backend it targets
+     */
+    protected String            _group              = null;
 
     /**
      * worker callbacks
@@ -78,9 +83,50 @@ abstract public class AbstractWorker implements IWorker
      */
     private Runnable            _runner             = null;
     /**
-     * internal {@link Handler} for moving results from background thread into calling thread.
+     * internal {@link CallbackDispatcher} for moving results from background thread into calling thread.
+     */
+    private CallbackDispatcher  _dispatcher         = null;
+    /**
+     * internal callbacks handed to the dispatcher, allocated once.
+     */
+    private Runnable            _completeCallback   = null;
+    private Runnable            _errorCallback      = null;
+    private Runnable            _progressCallback   = null;
+
+    /**
+     * the cancellation token of the current run, reused by the next run unless it was cancelled.
+     */
+    volatile private CancellationToken _token       = new CancellationToken();
+    /**
+     * {@code true} while {@link #work()} runs on a thread of the executor, and that thread,
+     * retained for cancellation. guarded by {@code _runLock}.
+     */
+    private boolean             _running            = false;
+    private Thread              _thread             = null;
+    private final Object        _runLock            = new Object();
+    /**
+     * {@code System.nanoTime()} at the start and end of the last {@link #work()}.
+     */
+    volatile private long       _workStartTime      = 0;
+    volatile private long       _workEndTime        = 0;
+
+    /**
+     * the pool this worker returns to after it has completed, or {@code null}
+     */
+    volatile WorkerPool<?>      _pool               = null;
+
+    /**
+     * the retry policy of this worker, {@code null} for the policy of it's manager
+     */
+    volatile private RetryPolicy _retryPolicy       = null;
+    /**
+     * the failure of the last run, reported or thrown by {@link #work()}
+     */
+    volatile private Throwable  _failure            = null;
+    /**
+     * {@code true} if the manager has scheduled another attempt from within the error callback
      */
-    private Handler             _handler            = null;
+    private boolean             _retryScheduled     = false;
 
     /**
      * notify completion automatically after the worker has finished
@@ -183,21 +229,95 @@ abstract public class AbstractWorker implements IWorker
     @Override
     final public void process(WorkerObserver workerObserver, ExecutorService es)
     {
-        _observer = workerObserver;
+        _observer   = workerObserver;
+        _status     = Status.STATUS_READY;
+        _failure    = null;
 
-        if(es != null)
-            es.execute(_runner);
-        else {
-            Zorn.defaultExecutorService.execute(_runner);
-            // _runner.run();
-        }
+        // a token that was not cancelled is as good as new, reuse it
+        if(_token.isCancelled())
+            _token  = new CancellationToken();
+
+        if(es == null)
+            es      = Zorn.defaultExecutorService;
+
+        es.execute(_runner);
     }
 
     /**
-     * stop processing the item
+     * stop processing the item. cancels the {@link CancellationToken} of the current run and
+     * interrupts it's thread, if it is running. a stopped worker does not notify completion.
+     * override to release resources of your own, and call {@code super.stop()}.
      */
     public void stop() {
-        throw new UnsupportedOperationException("stop() is not implemented in your worker!!");
+        _status         = Status.STATUS_STOP;
+
+        _token.cancel();
+
+        synchronized (_runLock) {
+            if(_running)
+                _thread.interrupt();
+        }
+    }
+
+    /**
+     * wait until the worker is no longer running on a thread, usually after {@link #stop()}.
+     * a worker whose {@link #work()} neither polls it's {@link CancellationToken} nor blocks
+     * interruptibly runs until it is done.
+     *
+     * @param timeout   the maximal time to wait
+     * @param unit      the unit of {@code timeout}
+     *
+     * @return {@code true} if the worker is not running, {@code false} if the timeout elapsed
+     *
+     * @throws InterruptedException if the waiting thread was interrupted
+     */
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        long remaining;
+
+        synchronized (_runLock) {
+            while (_running) {
+                remaining = deadline - System.nanoTime();
+
+                if(remaining <= 0)
+                    return false;
+
+                TimeUnit.NANOSECONDS.timedWait(_runLock, remaining);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * @return the {@code System.nanoTime()} at which the last {@link #work()} has started, {@code 0} if it has not
+     */
+    @Override
+    public long getWorkStartTime() {
+        return _workStartTime;
+    }
+
+    /**
+     * @return the {@code System.nanoTime()} at which the last {@link #work()} has ended, {@code 0} if it has not
+     */
+    @Override
+    public long getWorkEndTime() {
+        return _workEndTime;
+    }
+
+    /**
+     * @return the {@link CancellationToken} of the current run, poll it in long running {@link #work()}.
+     */
+    public CancellationToken getCancellationToken() {
+        return _token;
+    }
+
+    /**
+     * @return {@code true} if the current run was cancelled
+     */
+    public boolean isCancelled() {
+        return _token.isCancelled();
     }
 
     /**
@@ -215,9 +335,10 @@ abstract public class AbstractWorker implements IWorker
     @Override
     final public void notifyComplete()
     {
-        Message msg = _handler.obtainMessage(MESSAGE_COMPLETE);
+        if(!_flagAutomaticCompleteNotify)
+            _workEndTime = System.nanoTime();
 
-        msg.sendToTarget();
+        _dispatcher.dispatch(_completeCallback);
     }
 
     /**
@@ -226,9 +347,73 @@ abstract public class AbstractWorker implements IWorker
     @Override
     final public void notifyError()
     {
-        Message msg = _handler.obtainMessage(MESSAGE_ERROR);
+        if(!_flagAutomaticCompleteNotify)
+            _workEndTime = System.nanoTime();
+
+        _dispatcher.dispatch(_errorCallback);
+    }
+
+    /**
+     * notify Error, and report it's cause. the cause is available to the
+     * {@link RetryPolicy} of the manager through {@link #getFailure()}.
+     *
+     * @param cause the failure
+     */
+    final public void notifyError(Throwable cause)
+    {
+        _failure = cause;
+
+        notifyError();
+    }
+
+    /**
+     * the failure of the last run. when {@link #work()} has thrown, it is the exception with it's stack
+     * trace, and {@link #getWorkStartTime()} and {@link #getWorkEndTime()} time the failed run.
+     *
+     * @return the failure of the last run, or {@code null} if it was not reported
+     */
+    @Override
+    public Throwable getFailure() {
+        return _failure;
+    }
+
+    /**
+     * @return the {@link RetryPolicy} of this worker, or {@code null} for the policy of it's manager
+     */
+    @Override
+    public RetryPolicy getRetryPolicy() {
+        return _retryPolicy;
+    }
+
+    /**
+     * set the {@link RetryPolicy} of this worker, overrides the policy of it's manager.
+     *
+     * @param policy the policy, or {@code null} for the policy of the manager
+     */
+    public void setRetryPolicy(RetryPolicy policy) {
+        _retryPolicy = policy;
+    }
+
+    /**
+     * the manager has scheduled another attempt. override {@link #onRetry(int, long)} to react.
+     *
+     * @param attempt       the number of the next attempt, {@code 2} for the first retry
+     * @param delayNanos    the delay until the next attempt
+     */
+    @Override
+    final public void onRetryScheduled(int attempt, long delayNanos)
+    {
+        _retryScheduled = true;
+
+        onRetry(attempt, delayNanos);
+    }
 
-        msg.sendToTarget();
+    /**
+     * the manager enqueues the worker again after it has failed for good, by {@code retry()}.
+     * override to acquire again what {@link #onFailed()} has released, and call {@code super.onRetried()}.
+     */
+    @Override
+    public void onRetried() {
     }
 
     /**
@@ -237,9 +422,7 @@ abstract public class AbstractWorker implements IWorker
     @Override
     final public void notifyProgress()
     {
-        Message msg = _handler.obtainMessage(MESSAGE_PROGRESS);
-
-        msg.sendToTarget();
+        _dispatcher.dispatch(_progressCallback);
     }
 
     /**
@@ -248,9 +431,13 @@ abstract public class AbstractWorker implements IWorker
     @Override
     public void dispose()
     {
-        _observer = null;
-        _handler  = null;
-        _runner   = null;
+        _observer           = null;
+        _dispatcher         = null;
+        _runner             = null;
+        _pool               = null;
+        _completeCallback   = null;
+        _errorCallback      = null;
+        _progressCallback   = null;
     }
 
     /**
@@ -272,6 +459,24 @@ abstract public class AbstractWorker implements IWorker
         return _id;
     }
 
+    /**
+     * set the group of the worker, workers of a group share a circuit breaker in their manager
+     *
+     * @param group the group, or {@code null} for none
+     */
+    public void setGroup(String group)
+    {
+        _group = group;
+    }
+    /**
+     * get the group of the worker
+     */
+    @Override
+    public String getGroup()
+    {
+        return _group;
+    }
+
     /**
      * set priority for the worker
      *
@@ -292,6 +497,33 @@ abstract public class AbstractWorker implements IWorker
         return _priorityKey;
     }
 
+    /**
+     * set the {@link CallbackDispatcher} that delivers the callbacks of this worker.
+     *
+     * @param dispatcher the dispatcher
+     *
+     * @see com.hendrix.zorn.dispatchers.DirectCallbackDispatcher
+     * @see com.hendrix.zorn.dispatchers.EventLoopCallbackDispatcher
+     */
+    @Override
+    public void setCallbackDispatcher(CallbackDispatcher dispatcher)
+    {
+        if(dispatcher == null)
+            throw new NullPointerException("dispatcher is null!!");
+
+        _dispatcher = dispatcher;
+    }
+
+    /**
+     * get the {@link CallbackDispatcher} that delivers the callbacks of this worker.
+     *
+     * @return the dispatcher
+     */
+    public CallbackDispatcher getCallbackDispatcher()
+    {
+        return _dispatcher;
+    }
+
     /**
      * notify completion automatically after the worker has finished it's {@code work()} method.
      */
@@ -350,92 +582,218 @@ abstract public class AbstractWorker implements IWorker
      */
     abstract protected void onComplete();
 
+    /**
+     * called when a pooled worker is recycled, before it is handed out again.
+     * override to clear the state of your own, and call {@code super.onRecycle()}.
+     *
+     * @see WorkerPool
+     */
+    protected void onRecycle() {
+    }
+
+    /**
+     * reset the worker for another run, keeps it's dispatcher and callbacks
+     */
+    void recycle()
+    {
+        _observer       = null;
+        _status         = Status.STATUS_READY;
+        _workStartTime  = 0;
+        _workEndTime    = 0;
+
+        if(_token.isCancelled())
+            _token      = new CancellationToken();
+
+        onRecycle();
+    }
+
+    /**
+     * called when the failure of the last run is not final, the worker will be processed again
+     *
+     * @param attempt       the number of the next attempt, {@code 2} for the first retry
+     * @param delayNanos    the delay until the next attempt
+     */
+    protected void onRetry(int attempt, long delayNanos) {
+        Trace.log(TraceLevel.DEBUG, ZORN_WORKER_TAG, "retry #%d in %dms, id: %s", attempt, TimeUnit.NANOSECONDS.toMillis(delayNanos), _id);
+    }
+
+    /**
+     * called when the worker has failed for good, after the error callback, unless
+     * another attempt was scheduled.
+     */
+    protected void onFailed() {
+    }
+
     /**
      * override this for error management
      */
     protected void onError() {
-        Log.e(ZORN_WORKER_TAG, "Error!!");
-    };
+        Trace.log(TraceLevel.ERROR, ZORN_WORKER_TAG, "Error!! id: %s, failure: %s", _id, _failure);
+    }
 
     /**
      * internal init
      */
     private void internal_init()
     {
-        _handler  = new WorkerHandler();
+        _dispatcher         = Zorn.defaultCallbackDispatcher != null ? Zorn.defaultCallbackDispatcher
+                                                                     : HandlerCallbackDispatcher.forCallingThread();
+
+        _completeCallback   = new Runnable() {
+            @Override
+            public void run() {
+                internal_notifyComplete();
+            }
+        };
+
+        _errorCallback      = new Runnable() {
+            @Override
+            public void run() {
+                internal_notifyError();
+            }
+        };
+
+        _progressCallback   = new Runnable() {
+            @Override
+            public void run() {
+                internal_notifyProgress();
+            }
+        };
 
         _runner   = new Runnable() {
             @Override
             public void run() {
-                _status = Status.STATUS_WORKING;
+                CancellationToken token = _token;
+
+                if(token.isCancelled())
+                    return;
+
+                synchronized (_runLock) {
+                    _running    = true;
+                    _thread     = Thread.currentThread();
+                }
+
+                _status         = Status.STATUS_WORKING;
+                _workEndTime    = 0;
+                _workStartTime  = System.nanoTime();
+
+                Throwable failure = null;
+
+                try {
+                    work();
+                } catch (CancellationException exc) {
+                    // the work gave up after it's token was cancelled, any other cancellation is a failure
+                    if(!token.isCancelled())
+                        failure = exc;
+                } catch (Throwable exc) {
+                    failure = exc;
+                } finally {
+                    _workEndTime = System.nanoTime();
+
+                    synchronized (_runLock) {
+                        _running    = false;
+                        _thread     = null;
+
+                        // an interrupt of stop() must not leak into the next task of the thread
+                        Thread.interrupted();
+
+                        _runLock.notifyAll();
+                    }
+                }
+
+                if(token.isCancelled())
+                    notifyTerminated();
+
+                if(failure != null) {
+                    // the observer always hears of the failure, so a manager releases the slot of this worker
+                    if(!token.isCancelled())
+                        notifyError(failure);
+
+                    // the virtual machine is broken, let the thread die after the slot was released
+                    if(failure instanceof VirtualMachineError)
+                        throw (VirtualMachineError) failure;
 
-                work();
+                    return;
+                }
 
-                if(_flagAutomaticCompleteNotify)
+                if(_flagAutomaticCompleteNotify && !token.isCancelled())
                     notifyComplete();
             }
         };
 
     }
 
+    /**
+     * notifies the listener that a cancelled run has left it's thread, on that thread
+     */
+    private void notifyTerminated()
+    {
+        WorkerObserver observer = _observer;
+
+        if(observer instanceof WorkerTerminationObserver)
+            ((WorkerTerminationObserver) observer).onWorkerTerminated(this);
+    }
+
     /**
      * notifies completion to the listener
      */
     private void internal_notifyComplete()
     {
+        if(_status == Status.STATUS_STOP)
+            return;
+
         _status = Status.STATUS_COMPLETE;
 
-        onComplete();
+        try {
+            onComplete();
+        } catch (RuntimeException exc) {
+            // a worker whose completion hook throws has failed
+            _failure = exc;
+
+            internal_notifyError();
+
+            return;
+        }
 
         if(_observer != null)
             _observer.onWorkerComplete(this);
+
+        WorkerPool<?> pool = _pool;
+
+        if(pool != null)
+            pool.recycleWorker(this);
     }
     /**
      * notifies error to the listener
      */
     private void internal_notifyError()
     {
-        _status = Status.STATUS_ERROR;
+        if(_status == Status.STATUS_STOP)
+            return;
+
+        _status         = Status.STATUS_ERROR;
+        _retryScheduled = false;
+
+        onError();
 
         if(_observer != null)
             _observer.onWorkerError(this);
+
+        if(!_retryScheduled)
+            onFailed();
     }
     /**
      * notifies error to the listener
      */
     private void internal_notifyProgress()
     {
+        if(_status == Status.STATUS_STOP)
+            return;
+
         onProgress();
 
         if(_observer != null)
             _observer.onWorkerProgress(this);
     }
 
-    @SuppressLint("HandlerLeak")
-    /**
-     * the custom {@link Handler} of the worker
-     */
-    private class WorkerHandler extends Handler
-    {
-        @Override
-        public void handleMessage(Message msg)
-        {
-            int code_res = msg.what;
-
-            switch (code_res) {
-                case MESSAGE_COMPLETE:
-                    internal_notifyComplete();
-                    break;
-                case MESSAGE_ERROR:
-                    internal_notifyError();
-                    break;
-                case MESSAGE_PROGRESS:
-                    internal_notifyProgress();
-                    break;
-            }
-
-        }
-
-    }
-
 }
\ No newline at end of file
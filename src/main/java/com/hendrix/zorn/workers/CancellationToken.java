@@ -0,0 +1,44 @@
+package com.hendrix.zorn.workers;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * a cancellation token of a single run of an {@link IWorker}. a {@code work()} method
+ * that runs for long should poll it, and return early once it is cancelled.
+ * <pre>
+ *     for (Item item : items) {
+ *         getCancellationToken().throwIfCancelled();
+ *
+ *         handle(item);
+ *     }
+ * </pre>
+ *
+ * @author Tomer Shalev
+ */
+@SuppressWarnings("UnusedDeclaration")
+public final class CancellationToken {
+    private volatile boolean _cancelled = false;
+
+    /**
+     * @return {@code true} if the run was cancelled
+     */
+    public boolean isCancelled() {
+        return _cancelled;
+    }
+
+    /**
+     * @throws CancellationException if the run was cancelled
+     */
+    public void throwIfCancelled() {
+        if(_cancelled)
+            throw new CancellationException("worker was cancelled");
+    }
+
+    /**
+     * cancel the run
+     */
+    void cancel() {
+        _cancelled = true;
+    }
+
+}
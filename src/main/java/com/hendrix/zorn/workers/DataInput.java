@@ -0,0 +1,80 @@
+package com.hendrix.zorn.workers;
+
+/**
+ * a typed input slot of a worker, that receives the result of a producing
+ * {@link AbstractResultWorker} when it completes. the value is handed over on the
+ * producer's thread, before the producer notifies completion, so it is always
+ * available to a dependent that runs after the producer.
+ * <pre>
+ *     final DataInput&lt;Bitmap&gt; decoded = new DataInput&lt;&gt;();
+ *
+ *     AbstractResultWorker&lt;Bitmap&gt; resize = new AbstractResultWorker&lt;Bitmap&gt;("resize") {
+ *         protected Bitmap compute() {
+ *             return scale(decoded.get());
+ *         }
+ *     };
+ *
+ *     new TopologicalWorkerManager.Builder().flow(decode, resize, decoded);
+ * </pre>
+ * a worker with several inputs is a fan-in join, and runs once all of them have arrived.
+ * every input is fed by one producer.
+ *
+ * @author Tomer Shalev
+ */
+@SuppressWarnings("UnusedDeclaration")
+public class DataInput<T> implements WorkerFuture.Listener<T> {
+    private volatile T          _value      = null;
+    private volatile boolean    _available  = false;
+
+    public DataInput() {
+    }
+
+    /**
+     * @return the value
+     *
+     * @throws IllegalStateException if the value has not arrived yet
+     */
+    public T get() {
+        if(!_available)
+            throw new IllegalStateException("data input has not arrived yet!!");
+
+        return _value;
+    }
+
+    /**
+     * @return {@code true} if the value has arrived
+     */
+    public boolean isAvailable() {
+        return _available;
+    }
+
+    /**
+     * hand a value to this input directly
+     *
+     * @param value the value
+     */
+    public void set(T value) {
+        _value      = value;
+        _available  = true;
+    }
+
+    /**
+     * forget the value, for example before the graph runs again
+     */
+    public void clear() {
+        _available  = false;
+        _value      = null;
+    }
+
+    /**
+     * receive the result of the producer. a failed producer hands nothing.
+     *
+     * @param future the completed future of the producer
+     */
+    @Override
+    public void onComplete(WorkerFuture<? extends T> future) {
+        if(!future.isFailed())
+            set(future.getResult());
+    }
+
+}
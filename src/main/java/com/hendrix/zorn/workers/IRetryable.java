@@ -0,0 +1,35 @@
+package com.hendrix.zorn.workers;
+
+/**
+ * a worker that can be attempted again after it has failed, by a worker manager.
+ *
+ * @author Tomer Shalev
+ */
+@SuppressWarnings("UnusedDeclaration")
+public interface IRetryable {
+    /**
+     * @return the {@link RetryPolicy} of the worker, or {@code null} for the policy of it's manager
+     */
+    RetryPolicy getRetryPolicy();
+
+    /**
+     * @return the failure of the last attempt, or {@code null} if it was not reported
+     */
+    Throwable getFailure();
+
+    /**
+     * the manager has scheduled another attempt, the failure of the last one is not final.
+     * called on the thread of the error callback.
+     *
+     * @param attempt       the number of the next attempt, {@code 2} for the first retry
+     * @param delayNanos    the delay until the next attempt
+     */
+    void onRetryScheduled(int attempt, long delayNanos);
+
+    /**
+     * the worker has failed for good, and is enqueued again by {@code retry()} of it's manager.
+     * a worker acquires again what it has released when it failed for good.
+     */
+    void onRetried();
+
+}
@@ -1,5 +1,6 @@
 package com.hendrix.zorn.workers;
 
+import com.hendrix.zorn.dispatchers.CallbackDispatcher;
 import com.hendrix.zorn.interfaces.IDisposable;
 import com.hendrix.zorn.interfaces.IId;
 import com.hendrix.zorn.interfaces.IPriority;
@@ -34,4 +35,11 @@ public interface IWorker extends IId, IPriority, IWorkable, IDisposable {
      */
     boolean isReady();
 
+    /**
+     * set the {@link CallbackDispatcher} that delivers the callbacks of the worker.
+     *
+     * @param dispatcher the dispatcher
+     */
+    void setCallbackDispatcher(CallbackDispatcher dispatcher);
+
 }
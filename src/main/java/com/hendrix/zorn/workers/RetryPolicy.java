@@ -0,0 +1,193 @@
+package com.hendrix.zorn.workers;
+
+import com.hendrix.zorn.interfaces.IFunction;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * an immutable retry policy of a failed {@link IWorker}: the maximal number of attempts,
+ * an exponential backoff between them with jitter, and a predicate of the failures that
+ * are worth a retry.
+ * <pre>
+ *     RetryPolicy policy = RetryPolicy.exponential(5, 100, TimeUnit.MILLISECONDS)
+ *                                     .withMaxDelay(10, TimeUnit.SECONDS)
+ *                                     .withJitter(0.5)
+ *                                     .retryOn(new IFunction&lt;Throwable, Boolean&gt;() {
+ *                                         public Boolean apply(Throwable cause) {
+ *                                             return cause instanceof IOException;
+ *                                         }
+ *                                     });
+ * </pre>
+ * the delay before attempt {@code n + 1}, after {@code n} failed attempts, is
+ * {@code min(maxDelay, initialDelay * multiplier^(n - 1))}, of which a random share of
+ * up to {@code jitter} is taken off, so workers that failed together do not retry together.
+ *
+ * @author Tomer Shalev
+ */
+@SuppressWarnings("UnusedDeclaration")
+public final class RetryPolicy {
+    static private final RetryPolicy NONE   = new RetryPolicy(1, 0, Long.MAX_VALUE, 1.0, 0, null);
+    static private final Random RANDOM      = new Random();
+
+    private final int       _maxAttempts;
+    private final long      _initialDelay;
+    private final long      _maxDelay;
+    private final double    _multiplier;
+    private final double    _jitter;
+
+    private final IFunction<Throwable, Boolean> _retryOn;
+
+    private RetryPolicy(int maxAttempts, long initialDelay, long maxDelay, double multiplier, double jitter, IFunction<Throwable, Boolean> retryOn) {
+        _maxAttempts    = maxAttempts;
+        _initialDelay   = initialDelay;
+        _maxDelay       = maxDelay;
+        _multiplier     = multiplier;
+        _jitter         = jitter;
+        _retryOn        = retryOn;
+    }
+
+    /**
+     * @return a policy that never retries
+     */
+    static public RetryPolicy none() {
+        return NONE;
+    }
+
+    /**
+     * a policy that doubles the delay after every failed attempt, without jitter.
+     *
+     * @param maxAttempts   the maximal number of attempts, including the first one
+     * @param initialDelay  the delay before the first retry
+     * @param unit          the unit of {@code initialDelay}
+     *
+     * @return a {@link RetryPolicy}
+     */
+    static public RetryPolicy exponential(int maxAttempts, long initialDelay, TimeUnit unit)
+    {
+        if(maxAttempts < 1)
+            throw new IllegalArgumentException("maxAttempts must be positive!!");
+
+        if(initialDelay < 0)
+            throw new IllegalArgumentException("initialDelay must not be negative!!");
+
+        return new RetryPolicy(maxAttempts, unit.toNanos(initialDelay), Long.MAX_VALUE, 2.0, 0, null);
+    }
+
+    /**
+     * a policy with a constant delay between attempts, without jitter.
+     *
+     * @param maxAttempts   the maximal number of attempts, including the first one
+     * @param delay         the delay before every retry
+     * @param unit          the unit of {@code delay}
+     *
+     * @return a {@link RetryPolicy}
+     */
+    static public RetryPolicy fixed(int maxAttempts, long delay, TimeUnit unit) {
+        return exponential(maxAttempts, delay, unit).withMultiplier(1.0);
+    }
+
+    /**
+     * @param maxDelay  the cap of the delay between attempts
+     * @param unit      the unit of {@code maxDelay}
+     *
+     * @return a copy of this policy with the cap
+     */
+    public RetryPolicy withMaxDelay(long maxDelay, TimeUnit unit)
+    {
+        if(maxDelay < 0)
+            throw new IllegalArgumentException("maxDelay must not be negative!!");
+
+        return new RetryPolicy(_maxAttempts, _initialDelay, unit.toNanos(maxDelay), _multiplier, _jitter, _retryOn);
+    }
+
+    /**
+     * @param multiplier the growth of the delay after every failed attempt, at least {@code 1}
+     *
+     * @return a copy of this policy with the multiplier
+     */
+    public RetryPolicy withMultiplier(double multiplier)
+    {
+        if(!(multiplier >= 1.0))
+            throw new IllegalArgumentException("multiplier must be at least 1!!");
+
+        return new RetryPolicy(_maxAttempts, _initialDelay, _maxDelay, multiplier, _jitter, _retryOn);
+    }
+
+    /**
+     * @param jitter the maximal share of a delay that is randomly taken off, in {@code [0, 1]}
+     *
+     * @return a copy of this policy with the jitter
+     */
+    public RetryPolicy withJitter(double jitter)
+    {
+        if(!(jitter >= 0 && jitter <= 1))
+            throw new IllegalArgumentException("jitter must be in [0, 1]!!");
+
+        return new RetryPolicy(_maxAttempts, _initialDelay, _maxDelay, _multiplier, jitter, _retryOn);
+    }
+
+    /**
+     * @param predicate decides if a failure is worth a retry. it is handed the failure of the
+     *                  worker, {@code null} if the worker did not report one. {@code null} retries every failure.
+     *
+     * @return a copy of this policy with the predicate
+     */
+    public RetryPolicy retryOn(IFunction<Throwable, Boolean> predicate) {
+        return new RetryPolicy(_maxAttempts, _initialDelay, _maxDelay, _multiplier, _jitter, predicate);
+    }
+
+    /**
+     * @return the maximal number of attempts, including the first one
+     */
+    public int getMaxAttempts() {
+        return _maxAttempts;
+    }
+
+    /**
+     * should a worker be attempted again?
+     *
+     * @param failedAttempts    the number of attempts that have failed so far, including this one
+     * @param cause             the failure of the last attempt, or {@code null}
+     *
+     * @return {@code true} if another attempt is allowed
+     */
+    public boolean shouldRetry(int failedAttempts, Throwable cause)
+    {
+        if(failedAttempts >= _maxAttempts)
+            return false;
+
+        if(_retryOn == null)
+            return true;
+
+        Boolean retry = _retryOn.apply(cause);
+
+        return retry != null && retry;
+    }
+
+    /**
+     * the delay before the next attempt
+     *
+     * @param failedAttempts the number of attempts that have failed so far, at least {@code 1}
+     *
+     * @return the delay in nanoseconds, with jitter
+     */
+    public long getDelayNanos(int failedAttempts)
+    {
+        double delay = _initialDelay * Math.pow(_multiplier, Math.max(0, failedAttempts - 1));
+
+        delay = Math.min(delay, _maxDelay);
+
+        if(_jitter > 0)
+            delay -= delay * _jitter * RANDOM.nextDouble();
+
+        return (long) delay;
+    }
+
+    @Override
+    public String toString() {
+        return "RetryPolicy:: maxAttempts=" + _maxAttempts + ", initialDelay=" + TimeUnit.NANOSECONDS.toMillis(_initialDelay)
+                + "ms, multiplier=" + _multiplier + ", jitter=" + _jitter;
+    }
+
+}
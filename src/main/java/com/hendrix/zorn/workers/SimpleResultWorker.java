@@ -0,0 +1,60 @@
+package com.hendrix.zorn.workers;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Simple {@link AbstractResultWorker} implementation.
+ * receives it's work in the constructor as a {@link Callable}, and delivers the result
+ * through {@link #getFuture()}.
+ *
+ * @author Tomer Shalev
+ */
+@SuppressWarnings("UnusedDeclaration")
+public class SimpleResultWorker<T> extends AbstractResultWorker<T> {
+    private Callable<? extends T> _callable = null;
+
+    /**
+     *
+     * @param callable      {@link Callable} that computes the result.
+     * @param id            {@code identifier} (Optional)
+     * @param priorityKey   priority (Optional)
+     */
+    public SimpleResultWorker(Callable<? extends T> callable, String id, int priorityKey) {
+        super(id, priorityKey);
+
+        if(callable == null)
+            throw new NullPointerException("callable is null!!");
+
+        _callable = callable;
+    }
+
+    /**
+     *
+     * @param callable      {@link Callable} that computes the result.
+     * @param id            {@code identifier} (Optional)
+     */
+    public SimpleResultWorker(Callable<? extends T> callable, String id) {
+        this(callable, id, 0);
+    }
+
+    /**
+     *
+     * @param callable      {@link Callable} that computes the result.
+     */
+    public SimpleResultWorker(Callable<? extends T> callable) {
+        this(callable, "Anonymous Worker");
+    }
+
+    @Override
+    protected T compute() throws Exception {
+        return _callable.call();
+    }
+
+    @Override
+    protected void onProgress() {
+    }
+
+    @Override
+    protected void onComplete() {
+    }
+}
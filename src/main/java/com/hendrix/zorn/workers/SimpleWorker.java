@@ -1,8 +1,8 @@
 package com.hendrix.zorn.workers;
 
-import android.util.Log;
-
 import com.hendrix.zorn.interfaces.IWork;
+import com.hendrix.zorn.trace.Trace;
+import com.hendrix.zorn.trace.TraceLevel;
 
 /**
  * Simple {@link IWorker} implementation.
@@ -52,22 +52,7 @@ public class SimpleWorker extends AbstractWorker {
     public void work() {
         _work.work();
 
-        System.out.println("process.work() id: " + _id);
-/*
-        try {
-            Thread.sleep(5000);
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
-        */
-    }
-
-    /**
-     * stop processing the item
-     */
-    @Override
-    public void stop() {
-        Log.i(ZORN_WORKER_TAG, "stop() is not implemented in your worker!!");
+        Trace.log(TraceLevel.VERBOSE, ZORN_WORKER_TAG, "process.work() id: %s", _id);
     }
 
     /**
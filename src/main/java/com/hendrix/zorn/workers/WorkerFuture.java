@@ -0,0 +1,457 @@
+package com.hendrix.zorn.workers;
+
+import com.hendrix.zorn.interfaces.IFunction;
+import com.hendrix.zorn.trace.Trace;
+import com.hendrix.zorn.trace.TraceLevel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * the pending result of an {@link AbstractResultWorker}, that can be composed.
+ * dependent stages ({@link #thenApply(IFunction)}, {@link #thenCompose(IFunction)}, listeners)
+ * run directly on the thread that completes the future, usually the worker's thread,
+ * without bouncing through a manager or a {@code Handler}. keep them short, or hand
+ * the heavy work to another worker with {@code thenCompose}. a listener that throws is
+ * logged, and neither stops the other listeners nor reaches the thread that completes the future.
+ * <pre>
+ *     decode.getFuture().thenApply(new IFunction&lt;Bitmap, Bitmap&gt;() {
+ *         public Bitmap apply(Bitmap bitmap) {
+ *             return resize(bitmap);
+ *         }
+ *     });
+ * </pre>
+ *
+ * @author Tomer Shalev
+ */
+@SuppressWarnings("UnusedDeclaration")
+public class WorkerFuture<T> implements Future<T> {
+    static final String ZORN_FUTURE_TAG = "Zorn Future";
+
+    private static final int PENDING    = 0;
+    private static final int SUCCESS    = 1;
+    private static final int FAILURE    = 2;
+    private static final int CANCELLED  = 3;
+
+    private volatile int        _state      = PENDING;
+    private T                   _result     = null;
+    private Throwable           _failure    = null;
+
+    /**
+     * listeners waiting for completion, {@code null} once completed. guarded by {@code this}.
+     */
+    private ArrayList<Listener<? super T>> _listeners = new ArrayList<>(2);
+
+    /**
+     * callback interface for completion of a {@link WorkerFuture}
+     */
+    public interface Listener<T> {
+        /**
+         * @param future the completed future, successfully, exceptionally or cancelled
+         */
+        void onComplete(WorkerFuture<? extends T> future);
+    }
+
+    /**
+     * @param result the result
+     *
+     * @return a future that is already completed with {@code result}
+     */
+    static public <T> WorkerFuture<T> completed(T result) {
+        WorkerFuture<T> future = new WorkerFuture<>();
+
+        future.complete(result);
+
+        return future;
+    }
+
+    /**
+     * complete the future successfully, and run the dependent stages on this thread.
+     *
+     * @param result the result
+     *
+     * @return {@code false} if the future was already completed
+     */
+    public boolean complete(T result) {
+        synchronized (this) {
+            if(_state != PENDING)
+                return false;
+
+            _result = result;
+            _state  = SUCCESS;
+        }
+
+        fireListeners();
+
+        return true;
+    }
+
+    /**
+     * complete the future exceptionally, and run the dependent stages on this thread.
+     *
+     * @param failure the failure
+     *
+     * @return {@code false} if the future was already completed
+     */
+    public boolean fail(Throwable failure) {
+        if(failure == null)
+            throw new NullPointerException("failure is null!!");
+
+        synchronized (this) {
+            if(_state != PENDING)
+                return false;
+
+            _failure    = failure;
+            _state      = FAILURE;
+        }
+
+        fireListeners();
+
+        return true;
+    }
+
+    /**
+     * cancel the future. this does not stop the worker that computes it, use {@code IWorker.stop()} for that.
+     *
+     * @param mayInterruptIfRunning ignored
+     *
+     * @return {@code false} if the future was already completed
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        synchronized (this) {
+            if(_state != PENDING)
+                return false;
+
+            _failure    = new CancellationException("future was cancelled");
+            _state      = CANCELLED;
+        }
+
+        fireListeners();
+
+        return true;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return _state == CANCELLED;
+    }
+
+    @Override
+    public boolean isDone() {
+        return _state != PENDING;
+    }
+
+    /**
+     * @return {@code true} if the future has completed with a failure or was cancelled
+     */
+    public boolean isFailed() {
+        int state = _state;
+
+        return state == FAILURE || state == CANCELLED;
+    }
+
+    /**
+     * @return the result if the future has completed successfully, {@code null} otherwise
+     */
+    public T getResult() {
+        return _state == SUCCESS ? _result : null;
+    }
+
+    /**
+     * @return the failure if the future has completed exceptionally or was cancelled, {@code null} otherwise
+     */
+    public Throwable getFailure() {
+        return isFailed() ? _failure : null;
+    }
+
+    @Override
+    public synchronized T get() throws InterruptedException, ExecutionException {
+        while (_state == PENDING) {
+            wait();
+        }
+
+        return report();
+    }
+
+    @Override
+    public synchronized T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        long remaining;
+
+        while (_state == PENDING) {
+            remaining = deadline - System.nanoTime();
+
+            if(remaining <= 0)
+                throw new TimeoutException();
+
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+
+        return report();
+    }
+
+    /**
+     * run a listener on completion. if the future is already completed, the listener
+     * runs immediately on the calling thread.
+     *
+     * @param listener the listener
+     *
+     * @return this future
+     */
+    public WorkerFuture<T> addListener(Listener<? super T> listener) {
+        synchronized (this) {
+            if(_listeners != null) {
+                _listeners.add(listener);
+
+                return this;
+            }
+        }
+
+        notifyListener(listener);
+
+        return this;
+    }
+
+    /**
+     * a future of {@code fn} applied on the result of this future. a failure of this future
+     * or of {@code fn} fails the returned future.
+     *
+     * @param fn the function
+     *
+     * @return a new {@link WorkerFuture}
+     */
+    public <R> WorkerFuture<R> thenApply(final IFunction<? super T, ? extends R> fn) {
+        final WorkerFuture<R> next = new WorkerFuture<>();
+
+        addListener(new Listener<T>() {
+            @Override
+            public void onComplete(WorkerFuture<? extends T> future) {
+                if(future.propagateFailure(next))
+                    return;
+
+                R result;
+
+                try {
+                    result = fn.apply(future._result);
+                } catch (RuntimeException exc) {
+                    next.fail(exc);
+                    return;
+                }
+
+                next.complete(result);
+            }
+        });
+
+        return next;
+    }
+
+    /**
+     * a future of the future that {@code fn} returns for the result of this future, usually
+     * the future of another worker that {@code fn} has started.
+     *
+     * @param fn the function
+     *
+     * @return a new {@link WorkerFuture}
+     */
+    public <R> WorkerFuture<R> thenCompose(final IFunction<? super T, WorkerFuture<R>> fn) {
+        final WorkerFuture<R> next = new WorkerFuture<>();
+
+        addListener(new Listener<T>() {
+            @Override
+            public void onComplete(WorkerFuture<? extends T> future) {
+                if(future.propagateFailure(next))
+                    return;
+
+                WorkerFuture<R> inner;
+
+                try {
+                    inner = fn.apply(future._result);
+                } catch (RuntimeException exc) {
+                    next.fail(exc);
+                    return;
+                }
+
+                if(inner == null) {
+                    next.fail(new NullPointerException("thenCompose function returned null!!"));
+                    return;
+                }
+
+                inner.addListener(new Listener<R>() {
+                    @Override
+                    public void onComplete(WorkerFuture<? extends R> future) {
+                        if(!future.propagateFailure(next))
+                            next.complete(future._result);
+                    }
+                });
+            }
+        });
+
+        return next;
+    }
+
+    /**
+     * a future of the results of all of the futures, in their order. completes on the thread
+     * that completes the last of them, or fails with the first failure.
+     *
+     * @param futures the futures
+     *
+     * @return a new {@link WorkerFuture}
+     */
+    static public <T> WorkerFuture<List<T>> allOf(Collection<? extends WorkerFuture<? extends T>> futures) {
+        final WorkerFuture<List<T>> all                 = new WorkerFuture<>();
+        final ArrayList<WorkerFuture<? extends T>> list = new ArrayList<WorkerFuture<? extends T>>(futures);
+        final AtomicInteger remaining                   = new AtomicInteger(list.size());
+
+        if(list.isEmpty()) {
+            all.complete(new ArrayList<T>(0));
+
+            return all;
+        }
+
+        Listener<T> listener = new Listener<T>() {
+            @Override
+            public void onComplete(WorkerFuture<? extends T> future) {
+                if(future.propagateFailure(all))
+                    return;
+
+                if(remaining.decrementAndGet() != 0)
+                    return;
+
+                ArrayList<T> results = new ArrayList<>(list.size());
+
+                for (WorkerFuture<? extends T> f : list) {
+                    results.add(f._result);
+                }
+
+                all.complete(results);
+            }
+        };
+
+        for (WorkerFuture<? extends T> future : list) {
+            future.addListener(listener);
+        }
+
+        return all;
+    }
+
+    /**
+     * a future that completes when all of the futures have completed, or fails with the first failure.
+     *
+     * @param futures the futures
+     *
+     * @return a new {@link WorkerFuture}
+     */
+    static public WorkerFuture<List<Object>> allOf(WorkerFuture<?>... futures) {
+        return WorkerFuture.<Object>allOf(Arrays.asList(futures));
+    }
+
+    /**
+     * a future of the result of the first of the futures to complete, successfully or not.
+     *
+     * @param futures the futures
+     *
+     * @return a new {@link WorkerFuture}
+     */
+    static public <T> WorkerFuture<T> anyOf(Collection<? extends WorkerFuture<? extends T>> futures) {
+        final WorkerFuture<T> any = new WorkerFuture<>();
+
+        Listener<T> listener = new Listener<T>() {
+            @Override
+            public void onComplete(WorkerFuture<? extends T> future) {
+                if(!future.propagateFailure(any))
+                    any.complete(future._result);
+            }
+        };
+
+        for (WorkerFuture<? extends T> future : futures) {
+            future.addListener(listener);
+        }
+
+        return any;
+    }
+
+    /**
+     * a future of the result of the first of the futures to complete, successfully or not.
+     *
+     * @param futures the futures
+     *
+     * @return a new {@link WorkerFuture}
+     */
+    static public WorkerFuture<Object> anyOf(WorkerFuture<?>... futures) {
+        return WorkerFuture.<Object>anyOf(Arrays.asList(futures));
+    }
+
+    @Override
+    public String toString() {
+        switch (_state) {
+            case SUCCESS:
+                return "WorkerFuture[result=" + _result + "]";
+            case FAILURE:
+                return "WorkerFuture[failure=" + _failure + "]";
+            case CANCELLED:
+                return "WorkerFuture[cancelled]";
+            default:
+                return "WorkerFuture[pending]";
+        }
+    }
+
+    /**
+     * if this future has failed, fail {@code other} the same way.
+     *
+     * @return {@code true} if this future has failed
+     */
+    private boolean propagateFailure(WorkerFuture<?> other) {
+        int state = _state;
+
+        if(state == CANCELLED)
+            other.cancel(false);
+        else if(state == FAILURE)
+            other.fail(_failure);
+
+        return state == FAILURE || state == CANCELLED;
+    }
+
+    private T report() throws ExecutionException {
+        switch (_state) {
+            case SUCCESS:
+                return _result;
+            case CANCELLED:
+                throw (CancellationException) _failure;
+            default:
+                throw new ExecutionException(_failure);
+        }
+    }
+
+    private void fireListeners() {
+        ArrayList<Listener<? super T>> listeners;
+
+        synchronized (this) {
+            listeners   = _listeners;
+            _listeners  = null;
+
+            notifyAll();
+        }
+
+        for (Listener<? super T> listener : listeners) {
+            notifyListener(listener);
+        }
+    }
+
+    private void notifyListener(Listener<? super T> listener) {
+        try {
+            listener.onComplete(this);
+        } catch (RuntimeException exc) {
+            Trace.log(TraceLevel.ERROR, ZORN_FUTURE_TAG, "a listener of %s has thrown: %s", this, exc);
+        }
+    }
+
+}
@@ -0,0 +1,214 @@
+package com.hendrix.zorn.workers;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * a memoizing layer for {@link AbstractResultWorker}s that declare a cache key.
+ *
+ * <ul>
+ *     <li/>a completed result is served from a size and time bounded LRU cache, without computing it again.
+ *     <li/>identical requests that are in flight are coalesced onto one execution (single-flight), the
+ *     followers complete on the thread of the leader, and fail with it.
+ *     <li/>failed results are not cached.
+ * </ul>
+ * share one instance among workers and managers, with {@link AbstractResultWorker#setMemoizer(WorkerMemoizer)}
+ * or {@code AbstractWorkerManager.setMemoizer(..)}. the class is thread safe.
+ *
+ * @author Tomer Shalev
+ */
+@SuppressWarnings("UnusedDeclaration")
+public class WorkerMemoizer {
+    private final int       _maxSize;
+    private final long      _ttlNanos;
+
+    /**
+     * the completed results, least recently used first. guarded by {@code this}.
+     */
+    private final LinkedHashMap<String, CachedResult> _cache;
+    /**
+     * the future of the leader of every key in flight. guarded by {@code this}.
+     */
+    private final HashMap<String, WorkerFuture<?>> _inFlight = new HashMap<>();
+
+    private long _hits          = 0;
+    private long _misses        = 0;
+    private long _coalesced     = 0;
+    private long _evictions     = 0;
+
+    static private class CachedResult {
+        final Object    value;
+        final long      expires;
+
+        CachedResult(Object value, long expires) {
+            this.value      = value;
+            this.expires    = expires;
+        }
+    }
+
+    /**
+     * @param maxSize   the maximal number of cached results, at least {@code 1}
+     * @param ttl       the time a result is served after it was computed, {@code 0} for no expiration
+     * @param unit      the unit of {@code ttl}
+     */
+    public WorkerMemoizer(int maxSize, long ttl, TimeUnit unit) {
+        if(maxSize < 1)
+            throw new IllegalArgumentException("maxSize must be positive!!");
+
+        if(ttl < 0)
+            throw new IllegalArgumentException("ttl must not be negative!!");
+
+        _maxSize    = maxSize;
+        _ttlNanos   = unit.toNanos(ttl);
+        _cache      = new LinkedHashMap<String, CachedResult>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResult> eldest) {
+                if(size() <= _maxSize)
+                    return false;
+
+                _evictions += 1;
+
+                return true;
+            }
+        };
+    }
+
+    /**
+     * @param maxSize the maximal number of cached results, that do not expire
+     */
+    public WorkerMemoizer(int maxSize) {
+        this(maxSize, 0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * look up a key for a worker that is about to compute it.
+     *
+     * @param key       the cache key
+     * @param future    the future of the worker, becomes the leader on a miss
+     *
+     * @return a future to follow, completed on a hit and pending if coalesced, or {@code null}
+     *         on a miss, in which case the worker has to compute the result.
+     */
+    synchronized WorkerFuture<?> acquire(final String key, WorkerFuture<?> future)
+    {
+        CachedResult cached = _cache.get(key);
+
+        if(cached != null) {
+            if(_ttlNanos == 0 || cached.expires - System.nanoTime() > 0) {
+                _hits += 1;
+
+                return WorkerFuture.completed(cached.value);
+            }
+
+            _cache.remove(key);
+        }
+
+        WorkerFuture<?> leader = _inFlight.get(key);
+
+        // a retry of the leader computes again
+        if(leader == future)
+            return null;
+
+        if(leader != null) {
+            _coalesced += 1;
+
+            return leader;
+        }
+
+        _misses += 1;
+
+        _inFlight.put(key, future);
+
+        future.addListener(new WorkerFuture.Listener<Object>() {
+            @Override
+            public void onComplete(WorkerFuture<?> future) {
+                release(key, future);
+            }
+        });
+
+        return null;
+    }
+
+    /**
+     * forget a cached result
+     *
+     * @param key the cache key
+     */
+    public synchronized void invalidate(String key) {
+        _cache.remove(key);
+    }
+
+    /**
+     * forget every cached result, and the statistics
+     */
+    public synchronized void clear() {
+        _cache.clear();
+
+        _hits       = 0;
+        _misses     = 0;
+        _coalesced  = 0;
+        _evictions  = 0;
+    }
+
+    /**
+     * @return the number of cached results, some of them might have expired
+     */
+    public synchronized int size() {
+        return _cache.size();
+    }
+
+    /**
+     * @return the number of requests served from the cache
+     */
+    public synchronized long getHits() {
+        return _hits;
+    }
+
+    /**
+     * @return the number of requests that were computed
+     */
+    public synchronized long getMisses() {
+        return _misses;
+    }
+
+    /**
+     * @return the number of requests that were coalesced onto an identical request in flight
+     */
+    public synchronized long getCoalesced() {
+        return _coalesced;
+    }
+
+    /**
+     * @return the number of results evicted to respect the maximal size
+     */
+    public synchronized long getEvictions() {
+        return _evictions;
+    }
+
+    /**
+     * @return the fraction of requests that did not compute, served from the cache or coalesced
+     */
+    public synchronized double getHitRate() {
+        long total = _hits + _misses + _coalesced;
+
+        return total == 0 ? 0 : (double) (_hits + _coalesced) / total;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "WorkerMemoizer[size=" + _cache.size() + ", hits=" + _hits + ", misses=" + _misses
+                + ", coalesced=" + _coalesced + ", evictions=" + _evictions + "]";
+    }
+
+    private synchronized void release(String key, WorkerFuture<?> future)
+    {
+        if(_inFlight.get(key) == future)
+            _inFlight.remove(key);
+
+        if(!future.isFailed())
+            _cache.put(key, new CachedResult(future.getResult(), System.nanoTime() + _ttlNanos));
+    }
+
+}
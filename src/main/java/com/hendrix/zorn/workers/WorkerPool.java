@@ -0,0 +1,144 @@
+package com.hendrix.zorn.workers;
+
+/**
+ * a bounded pool of reusable workers, for many small and short lived tasks. a pooled
+ * worker returns to it's pool by itself, right after it's completion callbacks were
+ * delivered, so it's runner, callbacks and dispatcher are reused and a dispatch does not
+ * allocate a new worker.
+ * <pre>
+ *     WorkerPool&lt;ThumbWorker&gt; pool = new WorkerPool&lt;ThumbWorker&gt;(32) {
+ *         protected ThumbWorker create() {
+ *             return new ThumbWorker();
+ *         }
+ *     };
+ *
+ *     ThumbWorker worker = pool.obtain();
+ *
+ *     worker.path = path;
+ *     manager.enqueue(worker);
+ * </pre>
+ *
+ * <ul>
+ *     <li/>do not hold on to a pooled worker after it has completed, use a manager with
+ *     {@code RetentionPolicy.none()} and outside of a {@code TopologicalWorkerManager}.
+ *     <li/>a worker that failed or was stopped does not return to the pool, it can be retried or dropped.
+ *     <li/>override {@link AbstractWorker#onRecycle()} to clear the state of a worker.
+ * </ul>
+ * the class is thread safe.
+ *
+ * @author Tomer Shalev
+ */
+@SuppressWarnings("UnusedDeclaration")
+abstract public class WorkerPool<W extends AbstractWorker> {
+    /**
+     * the idle workers, a stack. guarded by {@code this}.
+     */
+    private final AbstractWorker[]  _idle;
+    private int                     _size       = 0;
+
+    private long                    _created    = 0;
+    private long                    _reused     = 0;
+
+    /**
+     * @param capacity the maximal number of idle workers that are kept
+     */
+    public WorkerPool(int capacity) {
+        if(capacity < 1)
+            throw new IllegalArgumentException("capacity must be positive!!");
+
+        _idle = new AbstractWorker[capacity];
+    }
+
+    /**
+     * create a new worker, when the pool has no idle worker
+     *
+     * @return a new worker
+     */
+    abstract protected W create();
+
+    /**
+     * get an idle worker, or a new one
+     *
+     * @return a worker that is ready to be processed
+     */
+    @SuppressWarnings("unchecked")
+    public W obtain()
+    {
+        synchronized (this) {
+            if(_size > 0) {
+                AbstractWorker worker   = _idle[--_size];
+
+                _idle[_size]            = null;
+                _reused                += 1;
+
+                return (W) worker;
+            }
+
+            _created += 1;
+        }
+
+        W worker        = create();
+
+        if(worker == null)
+            throw new NullPointerException("create() returned null!!");
+
+        worker._pool    = this;
+
+        return worker;
+    }
+
+    /**
+     * return a worker that will not be processed to the pool, usually it
+     * returns by itself after it has completed.
+     *
+     * @param worker a worker of this pool
+     */
+    public void release(W worker)
+    {
+        if(worker._pool != this)
+            throw new IllegalArgumentException("worker does not belong to this pool!!");
+
+        recycleWorker(worker);
+    }
+
+    /**
+     * @return the number of idle workers
+     */
+    public synchronized int size() {
+        return _size;
+    }
+
+    /**
+     * @return the number of workers created by the pool
+     */
+    public synchronized long getCreatedCount() {
+        return _created;
+    }
+
+    /**
+     * @return the number of times an idle worker was handed out again
+     */
+    public synchronized long getReusedCount() {
+        return _reused;
+    }
+
+    /**
+     * drop every idle worker
+     */
+    public synchronized void clear() {
+        while (_size > 0) {
+            _idle[--_size] = null;
+        }
+    }
+
+    void recycleWorker(AbstractWorker worker)
+    {
+        worker.recycle();
+
+        synchronized (this) {
+            if(_size < _idle.length)
+                _idle[_size++] = worker;
+        }
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.hendrix.zorn.workers;
+
+/**
+ * callback interface for a {@link WorkerObserver} that also hears when a worker, whose run was
+ * cancelled, has left it's thread. it is called on that thread, keep it short.
+ *
+ * @see IWorker#stop()
+ */
+public interface WorkerTerminationObserver extends WorkerObserver {
+    /**
+     * the cancelled run of a worker has ended, it does not notify completion
+     *
+     * @param worker the stopped process
+     */
+    void onWorkerTerminated(IWorker worker);
+}
@@ -0,0 +1,178 @@
+package com.hendrix.zorn.managers;
+
+import com.hendrix.zorn.Zorn;
+import com.hendrix.zorn.dispatchers.DirectCallbackDispatcher;
+import com.hendrix.zorn.workers.AbstractWorker;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * the chaos case, random workers throw an exception or an error from {@code work()} under load
+ * (see {@code ChaosBenchmark} for it's cost). every worker must end up either completed or failed,
+ * exactly once, the failure of every faulty worker must carry what it threw, and the manager must
+ * complete exactly once instead of hanging on the slots of the failed workers.
+ *
+ * @author Tomer Shalev
+ */
+public class ChaosTest {
+    static final int    WORKERS     = 20000;
+    static final long   TIMEOUT     = 60;
+
+    static final int    FAULT_NONE      = 0;
+    static final int    FAULT_EXCEPTION = 1;
+    static final int    FAULT_ERROR     = 2;
+
+    @BeforeClass
+    static public void setupDispatcher() {
+        // there is no Looper on a plain JVM
+        Zorn.defaultCallbackDispatcher = DirectCallbackDispatcher.INSTANCE;
+    }
+
+    /**
+     * a worker that might throw an exception, or an error, from it's {@code work()}
+     */
+    static final class ChaosWorker extends AbstractWorker {
+        private final int _fault;
+
+        ChaosWorker(int index, int fault) {
+            super(String.valueOf(index), index & 7);
+
+            _fault = fault;
+        }
+
+        @Override
+        public void work() {
+            if(_fault == FAULT_EXCEPTION)
+                throw new IllegalStateException("chaos " + getId());
+
+            if(_fault == FAULT_ERROR)
+                throw new AssertionError("chaos " + getId());
+        }
+
+        @Override
+        protected void onProgress() {
+        }
+
+        @Override
+        protected void onComplete() {
+        }
+    }
+
+    @Test
+    public void everyWorkerCompletesOrFailsOnceAtOnePercentFailures() throws InterruptedException {
+        chaos(0.01);
+    }
+
+    @Test
+    public void everyWorkerCompletesOrFailsOnceAtTenPercentFailures() throws InterruptedException {
+        chaos(0.1);
+    }
+
+    @Test
+    public void everyWorkerCompletesOrFailsOnceAtHalfFailures() throws InterruptedException {
+        chaos(0.5);
+    }
+
+    private void chaos(double failureRate) throws InterruptedException {
+        Random                      random      = new Random(WORKERS);
+        final int[]                 faults      = new int[WORKERS];
+        List<ChaosWorker>           workers     = new ArrayList<>(WORKERS);
+
+        final AtomicIntegerArray    completed   = new AtomicIntegerArray(WORKERS);
+        final AtomicIntegerArray    failed      = new AtomicIntegerArray(WORKERS);
+        final AtomicReferenceArray<Throwable> causes = new AtomicReferenceArray<>(WORKERS);
+        final AtomicInteger         completions = new AtomicInteger(0);
+        final AtomicInteger         outcomes    = new AtomicInteger(0);
+        final CountDownLatch        done        = new CountDownLatch(1);
+
+        for (int ix = 0; ix < WORKERS; ix++) {
+            faults[ix] = random.nextDouble() < failureRate ? FAULT_EXCEPTION + random.nextInt(2) : FAULT_NONE;
+
+            workers.add(new ChaosWorker(ix, faults[ix]));
+        }
+
+        ExecutorService             es          = Executors.newFixedThreadPool(4);
+        PriorityWorkerManager       manager     = new PriorityWorkerManager("chaos");
+
+        manager.getStatusInfo().flagTraceLog = false;
+        manager.setExecutorService(es);
+        manager.setMaxConcurrency(16);
+        manager.setFailurePolicy(AbstractWorkerManager.FAILURE_POLICY.CONTINUE);
+        manager.setRetentionPolicy(RetentionPolicy.none());
+        manager.setCallbackDispatcher(DirectCallbackDispatcher.INSTANCE);
+        manager.setListener(new WorkerManagerObserver() {
+            @Override
+            public void onComplete(IWorkerManager wm) {
+                completions.incrementAndGet();
+                done.countDown();
+            }
+
+            @Override
+            public void onProgress(String id) {
+                completed.incrementAndGet(Integer.parseInt(id));
+                outcomes.incrementAndGet();
+            }
+
+            @Override
+            public void onError(WorkerManagerErrorInfo err) {
+                int index = Integer.parseInt((String) err.getDataAux());
+
+                failed.incrementAndGet(index);
+                causes.set(index, err.getCause());
+                outcomes.incrementAndGet();
+            }
+        });
+
+        manager.enqueueAll(workers);
+
+        try {
+            manager.start();
+
+            assertTrue("the manager hangs: " + manager + ", outcomes=" + outcomes,
+                       done.await(TIMEOUT, TimeUnit.SECONDS));
+        } finally {
+            manager.stop();
+            manager.dispose();
+            es.shutdownNow();
+        }
+
+        assertEquals("outcomes", WORKERS, outcomes.get());
+        assertEquals("manager completions", 1, completions.get());
+
+        for (int ix = 0; ix < WORKERS; ix++) {
+            if(faults[ix] == FAULT_NONE) {
+                assertEquals("completions of worker " + ix, 1, completed.get(ix));
+                assertEquals("failures of worker " + ix, 0, failed.get(ix));
+
+                continue;
+            }
+
+            assertEquals("completions of faulty worker " + ix, 0, completed.get(ix));
+            assertEquals("failures of faulty worker " + ix, 1, failed.get(ix));
+
+            Throwable cause = causes.get(ix);
+
+            assertNotNull("the failure of worker " + ix + " was not captured", cause);
+            assertEquals("the failure of worker " + ix,
+                         faults[ix] == FAULT_EXCEPTION ? IllegalStateException.class : AssertionError.class,
+                         cause.getClass());
+        }
+    }
+
+}
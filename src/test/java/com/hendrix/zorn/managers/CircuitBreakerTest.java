@@ -0,0 +1,181 @@
+package com.hendrix.zorn.managers;
+
+import com.hendrix.zorn.dispatchers.DirectCallbackDispatcher;
+import com.hendrix.zorn.interfaces.IGroup;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * the state machine of a {@link CircuitBreaker}, and the workers of a group whose breaker of a
+ * {@link PriorityWorkerManager} is open, that are failed or parked.
+ *
+ * @author Tomer Shalev
+ */
+public class CircuitBreakerTest {
+    static final long TIMEOUT = 10000;
+
+    private final List<String>      _log            = Collections.synchronizedList(new ArrayList<String>());
+    private final List<String>      _transitions    = Collections.synchronizedList(new ArrayList<String>());
+    private final RecordingObserver _observer       = new RecordingObserver();
+
+    /**
+     * a worker of a group
+     */
+    static final class GroupWorker extends TestWorker implements IGroup {
+        private final String _group;
+
+        GroupWorker(String id, String group, int priorityKey, List<String> log) {
+            super(id, priorityKey, log);
+
+            _group = group;
+        }
+
+        @Override
+        public String getGroup() {
+            return _group;
+        }
+    }
+
+    private PriorityWorkerManager build(CircuitBreakerPolicy policy) {
+        PriorityWorkerManager pm = new PriorityWorkerManager("guarded");
+
+        pm.getStatusInfo().flagTraceLog = false;
+        pm.setCallbackDispatcher(DirectCallbackDispatcher.INSTANCE);
+        pm.setListener(_observer);
+        pm.setMaxConcurrency(1);
+        pm.setFailurePolicy(AbstractWorkerManager.FAILURE_POLICY.CONTINUE);
+        pm.setCircuitBreakerPolicy(policy);
+        pm.setCircuitBreakerObserver(new CircuitBreakerObserver() {
+            @Override
+            public void onStateChange(CircuitBreaker breaker, CircuitBreaker.STATE from, CircuitBreaker.STATE to) {
+                _transitions.add(breaker.getGroup() + ":" + to);
+            }
+        });
+
+        return pm;
+    }
+
+    @Test
+    public void tripsOpenAtTheThresholdOfAFullWindow() {
+        CircuitBreaker breaker = new CircuitBreaker("db", CircuitBreakerPolicy.failureRate(0.5, 4, 1, TimeUnit.MINUTES));
+
+        breaker.onSuccess(false);
+        breaker.onFailure(false);
+        breaker.onFailure(false);
+
+        // the rate is not measured before the window is full
+        assertEquals(CircuitBreaker.STATE.CLOSED, breaker.getState());
+
+        breaker.onFailure(false);
+
+        assertEquals(CircuitBreaker.STATE.OPEN, breaker.getState());
+        assertEquals(0, breaker.tryAcquire());
+        assertEquals(1, breaker.getNumRejected());
+        assertEquals(1, breaker.getNumOpened());
+    }
+
+    @Test
+    public void minimumCallsMeasureTheRateEarlier() {
+        CircuitBreaker breaker = new CircuitBreaker("db", CircuitBreakerPolicy.failureRate(0.5, 10, 1, TimeUnit.MINUTES)
+                                                                              .withMinimumCalls(2));
+
+        breaker.onSuccess(false);
+        breaker.onFailure(false);
+
+        assertEquals(CircuitBreaker.STATE.OPEN, breaker.getState());
+    }
+
+    @Test
+    public void halfOpenClosesAfterTheTrialsComplete() {
+        CircuitBreaker breaker = new CircuitBreaker("db", CircuitBreakerPolicy.failureRate(1, 1, 0, TimeUnit.MILLISECONDS)
+                                                                              .withTrials(2));
+
+        breaker.onFailure(false);
+
+        assertEquals(CircuitBreaker.STATE.OPEN, breaker.getState());
+
+        // the cool down has passed, the breaker half opens with two trials and rejects the rest
+        assertEquals(2, breaker.tryAcquire());
+        assertEquals(CircuitBreaker.STATE.HALF_OPEN, breaker.getState());
+        assertEquals(2, breaker.tryAcquire());
+        assertEquals(0, breaker.tryAcquire());
+
+        breaker.onSuccess(true);
+
+        assertEquals(CircuitBreaker.STATE.HALF_OPEN, breaker.getState());
+
+        breaker.onSuccess(true);
+
+        assertEquals(CircuitBreaker.STATE.CLOSED, breaker.getState());
+        assertEquals(1, breaker.tryAcquire());
+        assertEquals(1, breaker.getNumClosed());
+    }
+
+    @Test
+    public void failedTrialOpensAgain() {
+        CircuitBreaker breaker = new CircuitBreaker("db", CircuitBreakerPolicy.failureRate(1, 1, 0, TimeUnit.MILLISECONDS));
+
+        breaker.onFailure(false);
+
+        assertEquals(2, breaker.tryAcquire());
+
+        breaker.onFailure(true);
+
+        assertEquals(CircuitBreaker.STATE.OPEN, breaker.getState());
+        assertEquals(2, breaker.getNumOpened());
+        assertEquals(1, breaker.getNumHalfOpened());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void openCircuitFailsTheWorkersOfItsGroup() throws InterruptedException {
+        PriorityWorkerManager pm    = build(CircuitBreakerPolicy.failureRate(1, 2, 1, TimeUnit.MINUTES));
+        GroupWorker rejected        = new GroupWorker("c", "db", 1, _log);
+        GroupWorker other           = new GroupWorker("o", "cache", 0, _log);
+
+        pm.enqueue(new GroupWorker("f1", "db", 3, _log).failing(1));
+        pm.enqueue(new GroupWorker("f2", "db", 2, _log).failing(1));
+        pm.enqueue(rejected);
+        pm.enqueue(other);
+        pm.start();
+
+        assertTrue(_observer.awaitComplete());
+        assertEquals(Arrays.asList("o"), _log);
+        assertEquals(0, rejected.getRuns());
+        assertTrue(_observer.getEvents().contains(WorkerManagerErrorInfo.ErrorCode.ERROR_CIRCUIT_OPEN + ":c"));
+        assertEquals(Arrays.asList("db:OPEN"), _transitions);
+        assertEquals(CircuitBreaker.STATE.CLOSED, pm.getCircuitBreaker("cache").getState());
+
+        pm.dispose();
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void parkedWorkerRunsAsTrialAfterTheCooldown() throws InterruptedException {
+        PriorityWorkerManager pm    = build(CircuitBreakerPolicy.failureRate(1, 2, 50, TimeUnit.MILLISECONDS)
+                                                                .withOpenCircuit(CircuitBreakerPolicy.OPEN_CIRCUIT.PARK));
+        GroupWorker parked          = new GroupWorker("p", "db", 1, _log);
+
+        pm.enqueue(new GroupWorker("f1", "db", 3, _log).failing(1));
+        pm.enqueue(new GroupWorker("f2", "db", 2, _log).failing(1));
+        pm.enqueue(parked);
+        pm.start();
+
+        assertTrue(_observer.awaitComplete());
+        assertEquals(Arrays.asList("p"), _log);
+        assertEquals(1, parked.getRuns());
+        assertEquals(2, _observer.getErrors().size());
+        assertEquals(Arrays.asList("db:OPEN", "db:HALF_OPEN", "db:CLOSED"), _transitions);
+        assertEquals(0, pm.sizeParkedWorkers());
+
+        pm.dispose();
+    }
+
+}
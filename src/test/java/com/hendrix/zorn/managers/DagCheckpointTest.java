@@ -0,0 +1,199 @@
+package com.hendrix.zorn.managers;
+
+import com.hendrix.zorn.dispatchers.DirectCallbackDispatcher;
+import com.hendrix.zorn.workers.AbstractResultWorker;
+import com.hendrix.zorn.workers.DataInput;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * a {@link TopologicalWorkerManager} that checkpoints the progress of it's graph, and a manager that
+ * is built with the same graph after a crash, that resumes from the frontier.
+ *
+ * @author Tomer Shalev
+ */
+public class DagCheckpointTest {
+    static final long TIMEOUT = 10000;
+
+    @Rule
+    public TemporaryFolder _folder = new TemporaryFolder();
+
+    private final List<String> _log = Collections.synchronizedList(new ArrayList<String>());
+
+    /**
+     * a stage of a pipeline, it appends it's id to the result of it's producer
+     */
+    static final class Stage extends AbstractResultWorker<String> {
+        final DataInput<String>     input   = new DataInput<>();
+        final AtomicInteger         runs    = new AtomicInteger(0);
+
+        private final boolean       _source;
+        private volatile int        _failures;
+
+        Stage(String id, boolean source, int failures) {
+            super(id);
+
+            _source     = source;
+            _failures   = failures;
+        }
+
+        @Override
+        protected String compute() {
+            runs.incrementAndGet();
+
+            if(_failures > 0) {
+                _failures -= 1;
+
+                throw new IllegalStateException("stage " + getId() + " has failed");
+            }
+
+            return (_source ? "" : input.get()) + getId();
+        }
+
+        @Override
+        protected void onProgress() {
+        }
+
+        @Override
+        protected void onComplete() {
+        }
+    }
+
+    private TopologicalWorkerManager build(TopologicalWorkerManager.Builder builder, RecordingObserver observer) {
+        TopologicalWorkerManager tm = builder.id("checkpointed").listener(observer).build();
+
+        tm.getStatusInfo().flagTraceLog = false;
+        tm.setCallbackDispatcher(DirectCallbackDispatcher.INSTANCE);
+
+        return tm;
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void resumeSkipsCompletedWorkers() throws InterruptedException, IOException {
+        File file                   = _folder.newFile("graph.dag");
+        RecordingObserver first     = new RecordingObserver();
+        TestWorker b0               = new TestWorker("b", _log);
+        TopologicalWorkerManager tm = build(new TopologicalWorkerManager.Builder().checkpoint(file)
+                                            .before(new TestWorker("a", _log), b0)
+                                            .before(b0, new TestWorker("c", _log).failing(1)), first);
+
+        tm.start();
+
+        assertTrue(first.awaitErrors(1));
+        assertEquals(2, tm.getCheckpoint().getNumCompleted());
+
+        tm.dispose();
+        _log.clear();
+
+        RecordingObserver second    = new RecordingObserver();
+        TestWorker a                = new TestWorker("a", _log);
+        TestWorker b                = new TestWorker("b", _log);
+        TestWorker c                = new TestWorker("c", _log);
+
+        tm                          = build(new TopologicalWorkerManager.Builder().checkpoint(file)
+                                            .before(a, b).before(b, c), second);
+
+        assertTrue(tm.getCheckpoint().isResumed());
+        assertEquals(2, tm.getNumSkippedWorkers());
+
+        tm.start();
+
+        assertTrue(second.awaitComplete());
+        assertEquals(Arrays.asList("c"), _log);
+        assertEquals(0, a.getRuns() + b.getRuns());
+
+        // the graph has completed, so the checkpoint is cleared
+        assertEquals(0, tm.getCheckpoint().getNumCompleted());
+
+        tm.dispose();
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void resumeRunsAgainTheProducersOfAChainOfFlows() throws InterruptedException, IOException {
+        File file                   = _folder.newFile("flow.dag");
+        RecordingObserver first     = new RecordingObserver();
+        Stage a                     = new Stage("A", true, 0);
+        Stage p                     = new Stage("P", false, 0);
+        Stage s                     = new Stage("S", false, 1);
+        TestWorker x                = new TestWorker("x", _log);
+        TopologicalWorkerManager tm = build(new TopologicalWorkerManager.Builder().checkpoint(file)
+                                            .flow(a, p, p.input)
+                                            .flow(p, s, s.input)
+                                            .before(x, s), first);
+
+        tm.start();
+
+        assertTrue(first.awaitErrors(1));
+        assertEquals(3, tm.getCheckpoint().getNumCompleted());
+
+        tm.dispose();
+
+        RecordingObserver second    = new RecordingObserver();
+
+        a                           = new Stage("A", true, 0);
+        p                           = new Stage("P", false, 0);
+        s                           = new Stage("S", false, 0);
+        x                           = new TestWorker("x", _log);
+        tm                          = build(new TopologicalWorkerManager.Builder().checkpoint(file)
+                                            .flow(a, p, p.input)
+                                            .flow(p, s, s.input)
+                                            .before(x, s), second);
+
+        // S runs again, and so do P that feeds it and A that feeds P. only x is skipped
+        assertEquals(1, tm.getNumSkippedWorkers());
+
+        tm.start();
+
+        assertTrue(second.awaitComplete());
+        assertTrue(second.getErrors().isEmpty());
+        assertEquals("APS", s.getResult());
+        assertEquals(1, a.runs.get());
+        assertEquals(1, p.runs.get());
+        assertEquals(0, x.getRuns());
+
+        tm.dispose();
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void checkpointOfAnotherGraphIsDiscarded() throws InterruptedException, IOException {
+        File file                   = _folder.newFile("other.dag");
+        RecordingObserver first     = new RecordingObserver();
+        TopologicalWorkerManager tm = build(new TopologicalWorkerManager.Builder().checkpoint(file)
+                                            .before(new TestWorker("a", _log), new TestWorker("b", _log).failing(1)), first);
+
+        tm.start();
+
+        assertTrue(first.awaitErrors(1));
+
+        tm.dispose();
+        _log.clear();
+
+        RecordingObserver second    = new RecordingObserver();
+
+        tm                          = build(new TopologicalWorkerManager.Builder().checkpoint(file)
+                                            .before(new TestWorker("a", _log), new TestWorker("c", _log)), second);
+
+        assertEquals(0, tm.getNumSkippedWorkers());
+
+        tm.start();
+
+        assertTrue(second.awaitComplete());
+        assertEquals(Arrays.asList("a", "c"), _log);
+
+        tm.dispose();
+    }
+
+}
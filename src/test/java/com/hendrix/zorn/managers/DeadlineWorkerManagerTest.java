@@ -0,0 +1,150 @@
+package com.hendrix.zorn.managers;
+
+import com.hendrix.zorn.dispatchers.DirectCallbackDispatcher;
+import com.hendrix.zorn.interfaces.IDeadline;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * the earliest deadline first order of a {@link DeadlineWorkerManager}, and the workers that
+ * miss their deadline, either expired before they have started or late.
+ *
+ * @author Tomer Shalev
+ */
+public class DeadlineWorkerManagerTest {
+    static final long TIMEOUT = 10000;
+
+    private final List<String>      _log        = Collections.synchronizedList(new ArrayList<String>());
+    private final RecordingObserver _observer   = new RecordingObserver();
+
+    /**
+     * a worker that declares it's own deadline
+     */
+    static final class DeadlineWorker extends TestWorker implements IDeadline {
+        private final long _deadline;
+
+        DeadlineWorker(String id, long timeout, TimeUnit unit, List<String> log) {
+            super(id, log);
+
+            _deadline = System.nanoTime() + unit.toNanos(timeout);
+        }
+
+        @Override
+        public long getDeadline() {
+            return _deadline;
+        }
+    }
+
+    private DeadlineWorkerManager build() {
+        DeadlineWorkerManager dm = new DeadlineWorkerManager("deadlines");
+
+        dm.getStatusInfo().flagTraceLog = false;
+        dm.setCallbackDispatcher(DirectCallbackDispatcher.INSTANCE);
+        dm.setListener(_observer);
+        dm.setMaxConcurrency(1);
+
+        return dm;
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void earliestDeadlineRunsFirst() throws InterruptedException {
+        DeadlineWorkerManager dm = build();
+
+        dm.enqueue(new TestWorker("a", _log), 30, TimeUnit.SECONDS);
+        dm.enqueue(new TestWorker("none", 10, _log));
+        dm.enqueue(new TestWorker("b", _log), 10, TimeUnit.SECONDS);
+        dm.enqueue(new DeadlineWorker("d", 20, TimeUnit.SECONDS, _log));
+        dm.start();
+
+        assertTrue(_observer.awaitComplete());
+
+        // a worker without a deadline runs last, whatever it's priority
+        assertEquals(Arrays.asList("b", "d", "a", "none"), _log);
+        assertEquals(3, dm.getNumDeadlinesMet());
+        assertEquals(0, dm.getDeadlineMissRate(), 0);
+
+        dm.dispose();
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void expiredWorkerIsFailedWithoutRunning() throws InterruptedException {
+        DeadlineWorkerManager dm    = build();
+        TestWorker expired          = new TestWorker("x", _log);
+
+        dm.setExpiredPolicy(DeadlineWorkerManager.EXPIRED_POLICY.FAIL);
+        dm.enqueue(expired, 1, TimeUnit.MILLISECONDS);
+        dm.enqueue(new TestWorker("a", _log), 30, TimeUnit.SECONDS);
+
+        Thread.sleep(20);
+
+        dm.start();
+
+        assertTrue(_observer.awaitComplete());
+        assertEquals(Arrays.asList("a"), _log);
+        assertEquals(0, expired.getRuns());
+        assertEquals(Arrays.asList(WorkerManagerErrorInfo.ErrorCode.ERROR_DEADLINE_MISSED + ":x", "progress:a", "complete"),
+                     _observer.getEvents());
+        assertTrue(dm.getFailedWorkers().contains(expired));
+        assertFalse(dm.isPaused());
+        assertEquals(1, dm.getNumExpired());
+        assertEquals(0.5, dm.getDeadlineMissRate(), 0);
+
+        dm.dispose();
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void expiredWorkerIsDroppedQuietly() throws InterruptedException {
+        DeadlineWorkerManager dm    = build();
+        TestWorker expired          = new TestWorker("x", _log);
+
+        dm.enqueue(expired, 1, TimeUnit.MILLISECONDS);
+        dm.enqueue(new TestWorker("a", _log), 30, TimeUnit.SECONDS);
+
+        Thread.sleep(20);
+
+        dm.start();
+
+        assertTrue(_observer.awaitComplete());
+        assertEquals(Arrays.asList("a"), _log);
+        assertEquals(0, expired.getRuns());
+        assertTrue(_observer.getErrors().isEmpty());
+        assertTrue(dm.getFailedWorkers().isEmpty());
+        assertEquals(1, dm.getNumExpired());
+
+        dm.dispose();
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void workerThatCompletesAfterItsDeadlineIsLate() throws InterruptedException {
+        DeadlineWorkerManager dm    = build();
+        CountDownLatch gate         = new CountDownLatch(1);
+        TestWorker late             = new TestWorker("late", _log).gated(gate);
+
+        dm.enqueue(late, 200, TimeUnit.MILLISECONDS);
+        dm.start();
+
+        late.awaitStarted();
+        Thread.sleep(300);
+        gate.countDown();
+
+        assertTrue(_observer.awaitComplete());
+        assertEquals(Arrays.asList("late"), _log);
+        assertEquals(1, dm.getNumLate());
+        assertEquals(0, dm.getNumDeadlinesMet());
+        assertEquals(1, dm.getDeadlineMissRate(), 0);
+
+        dm.dispose();
+    }
+
+}
@@ -0,0 +1,201 @@
+package com.hendrix.zorn.managers;
+
+import com.hendrix.zorn.dispatchers.DirectCallbackDispatcher;
+import com.hendrix.zorn.workers.AbstractResultWorker;
+import com.hendrix.zorn.workers.DataInput;
+import com.hendrix.zorn.workers.RetryPolicy;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * the retries of a failed worker by it's {@link RetryPolicy}, and the reaction of a manager to a
+ * worker that has failed for good, by it's {@link AbstractWorkerManager.FAILURE_POLICY}.
+ *
+ * @author Tomer Shalev
+ */
+public class FailurePolicyTest {
+    static final long TIMEOUT = 10000;
+
+    private final List<String>      _log        = Collections.synchronizedList(new ArrayList<String>());
+    private final RecordingObserver _observer   = new RecordingObserver();
+
+    /**
+     * a stage of a pipeline, it appends it's id to the result of it's producer
+     */
+    static final class Stage extends AbstractResultWorker<String> {
+        final DataInput<String>     input   = new DataInput<>();
+        final AtomicInteger         runs    = new AtomicInteger(0);
+
+        private final boolean       _source;
+        private volatile int        _failures;
+
+        Stage(String id, boolean source, int failures) {
+            super(id);
+
+            _source     = source;
+            _failures   = failures;
+        }
+
+        @Override
+        protected String compute() {
+            runs.incrementAndGet();
+
+            if(_failures > 0) {
+                _failures -= 1;
+
+                throw new IllegalStateException("stage " + getId() + " has failed");
+            }
+
+            return (_source ? "" : input.get()) + getId();
+        }
+
+        @Override
+        protected void onProgress() {
+        }
+
+        @Override
+        protected void onComplete() {
+        }
+    }
+
+    private <T extends AbstractWorkerManager> T setup(T manager) {
+        manager.setListener(_observer);
+        manager.getStatusInfo().flagTraceLog = false;
+        manager.setCallbackDispatcher(DirectCallbackDispatcher.INSTANCE);
+
+        return manager;
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void retryPolicyRunsFailedWorkerAgain() throws InterruptedException {
+        PriorityWorkerManager pm    = setup(new PriorityWorkerManager("retrying"));
+        TestWorker a                = new TestWorker("a", _log).failing(2);
+
+        pm.setRetryPolicy(RetryPolicy.fixed(3, 1, TimeUnit.MILLISECONDS));
+        pm.enqueue(a);
+        pm.start();
+
+        assertTrue(_observer.awaitComplete());
+        assertTrue(_observer.getErrors().isEmpty());
+        assertEquals(3, a.getRuns());
+        assertEquals(Arrays.asList("a"), _log);
+
+        pm.dispose();
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void exhaustedRetriesPauseWithTheCause() throws InterruptedException {
+        PriorityWorkerManager pm    = setup(new PriorityWorkerManager("exhausted"));
+        TestWorker a                = new TestWorker("a", _log).failing(5);
+
+        pm.setRetryPolicy(RetryPolicy.exponential(2, 1, TimeUnit.MILLISECONDS));
+        pm.enqueue(a);
+        pm.start();
+
+        assertTrue(_observer.awaitErrors(1));
+
+        WorkerManagerErrorInfo err  = _observer.getErrors().get(0);
+
+        assertEquals(WorkerManagerErrorInfo.ErrorCode.ERROR_FAILED_PROCESS, err.getCodeError());
+        assertTrue(err.getCause() instanceof IllegalStateException);
+        assertEquals(2, a.getRuns());
+        assertTrue(pm.isPaused());
+        assertTrue(pm.getFailedWorkers().contains(a));
+
+        pm.dispose();
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void failFastStopsTheManager() throws InterruptedException {
+        PriorityWorkerManager pm    = setup(new PriorityWorkerManager("fail fast"));
+
+        pm.setFailurePolicy(AbstractWorkerManager.FAILURE_POLICY.FAIL_FAST);
+        pm.setMaxConcurrency(1);
+        pm.enqueue(new TestWorker("a", 1, _log).failing(1));
+        pm.enqueue(new TestWorker("b", 0, _log));
+        pm.start();
+
+        assertTrue(_observer.awaitErrors(1));
+        assertTrue(pm.awaitTermination(TIMEOUT, TimeUnit.MILLISECONDS));
+        assertTrue(pm.isStopped());
+        assertEquals(0, _observer.getCompletions());
+
+        pm.dispose();
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void continueNotifiesTheFailureBeforeTheCompletion() throws InterruptedException {
+        PriorityWorkerManager pm    = setup(new PriorityWorkerManager("continue"));
+
+        pm.setFailurePolicy(AbstractWorkerManager.FAILURE_POLICY.CONTINUE);
+        pm.enqueue(new TestWorker("a", _log).failing(1));
+        pm.start();
+
+        assertTrue(_observer.awaitComplete());
+        assertEquals(Arrays.asList(WorkerManagerErrorInfo.ErrorCode.ERROR_FAILED_PROCESS + ":a", "complete"),
+                     _observer.getEvents());
+
+        pm.dispose();
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void continueFailsDependentsAndCompletes() throws InterruptedException {
+        TestWorker a                = new TestWorker("a", _log).failing(1);
+        TestWorker b                = new TestWorker("b", _log);
+        TestWorker c                = new TestWorker("c", _log);
+        TestWorker x                = new TestWorker("x", _log);
+        TestWorker y                = new TestWorker("y", _log);
+        TopologicalWorkerManager tm = setup(new TopologicalWorkerManager.Builder().id("continue")
+                                            .before(a, b).before(b, c).before(x, y).build());
+
+        tm.setFailurePolicy(AbstractWorkerManager.FAILURE_POLICY.CONTINUE);
+        tm.start();
+
+        assertTrue(_observer.awaitComplete());
+        assertEquals(Arrays.asList("x", "y"), _log);
+        assertEquals(0, b.getRuns() + c.getRuns());
+        assertEquals(3, _observer.getErrors().size());
+        assertTrue(_observer.getEvents().contains(WorkerManagerErrorInfo.ErrorCode.ERROR_PREDECESSOR_FAILED + ":b"));
+        assertTrue(_observer.getEvents().contains(WorkerManagerErrorInfo.ErrorCode.ERROR_PREDECESSOR_FAILED + ":c"));
+        assertEquals("complete", _observer.getEvents().get(_observer.getEvents().size() - 1));
+
+        tm.dispose();
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void retryRunsAgainProducerThatFailedForGood() throws InterruptedException {
+        Stage p                     = new Stage("P", true, 1);
+        Stage s                     = new Stage("S", false, 0);
+        TopologicalWorkerManager tm = setup(new TopologicalWorkerManager.Builder().id("rearmed")
+                                            .flow(p, s, s.input).build());
+
+        tm.start();
+
+        // S fails with P, and is retried with it
+        assertTrue(_observer.awaitErrors(2));
+        assertTrue(tm.isPaused());
+        assertEquals(0, s.runs.get());
+
+        // the future of P has failed, the retry must not hand S the failed one
+        tm.retry();
+
+        assertTrue(_observer.awaitComplete());
+        assertEquals(2, _observer.getErrors().size());
+        assertEquals("PS", s.getResult());
+        assertEquals("P", p.getResult());
+        assertEquals(2, p.runs.get());
+
+        tm.dispose();
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.hendrix.zorn.managers;
+
+import com.hendrix.zorn.dispatchers.DirectCallbackDispatcher;
+import com.hendrix.zorn.workers.AbstractResultWorker;
+import com.hendrix.zorn.workers.WorkerMemoizer;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * the {@link WorkerMemoizer} of a manager, that is given only to the result workers that have
+ * no memoizer of their own.
+ *
+ * @author Tomer Shalev
+ */
+public class MemoizerTest {
+    static final long TIMEOUT = 10000;
+
+    /**
+     * a result worker whose result is it's cache key
+     */
+    static final class KeyWorker extends AbstractResultWorker<String> {
+        KeyWorker(String id, String key) {
+            super(id);
+
+            setCacheKey(key);
+        }
+
+        @Override
+        protected String compute() {
+            return getCacheKey();
+        }
+
+        @Override
+        protected void onProgress() {
+        }
+
+        @Override
+        protected void onComplete() {
+        }
+    }
+
+    private PriorityWorkerManager build(WorkerMemoizer memoizer, RecordingObserver observer) {
+        PriorityWorkerManager pm = new PriorityWorkerManager("memoized");
+
+        pm.getStatusInfo().flagTraceLog = false;
+        pm.setCallbackDispatcher(DirectCallbackDispatcher.INSTANCE);
+        pm.setListener(observer);
+        pm.setMemoizer(memoizer);
+
+        return pm;
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void workerKeepsItsOwnMemoizer() throws InterruptedException {
+        WorkerMemoizer own          = new WorkerMemoizer(8);
+        WorkerMemoizer shared       = new WorkerMemoizer(8);
+        RecordingObserver observer  = new RecordingObserver();
+        PriorityWorkerManager pm    = build(shared, observer);
+        KeyWorker mine              = new KeyWorker("mine", "a");
+        KeyWorker other             = new KeyWorker("other", "b");
+
+        mine.setMemoizer(own);
+        pm.enqueue(mine);
+        pm.enqueue(other);
+        pm.start();
+
+        assertTrue(observer.awaitComplete());
+        assertSame(own, mine.getMemoizer());
+        assertSame(shared, other.getMemoizer());
+        assertEquals(1, own.size());
+        assertEquals(1, shared.size());
+
+        pm.dispose();
+    }
+
+}
@@ -0,0 +1,99 @@
+package com.hendrix.zorn.managers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * a manager observer for tests, that records the events it hears in order, as {@code complete},
+ * {@code progress:<id>} and {@code <error code>:<id>}, and waits for the completion of the manager.
+ *
+ * @author Tomer Shalev
+ */
+class RecordingObserver implements WorkerManagerObserver {
+    static final long TIMEOUT = 10;
+
+    private final ArrayList<String>                 _events     = new ArrayList<>();
+    private final ArrayList<WorkerManagerErrorInfo> _errors     = new ArrayList<>();
+    private int                                     _completions = 0;
+
+    @Override
+    public synchronized void onComplete(IWorkerManager wm) {
+        _completions += 1;
+        _events.add("complete");
+
+        notifyAll();
+    }
+
+    @Override
+    public synchronized void onProgress(String id) {
+        _events.add("progress:" + id);
+    }
+
+    @Override
+    public synchronized void onError(WorkerManagerErrorInfo err) {
+        _errors.add(err);
+        _events.add(err.getCodeError() + ":" + err.getDataAux());
+
+        notifyAll();
+    }
+
+    synchronized List<String> getEvents() {
+        return new ArrayList<>(_events);
+    }
+
+    synchronized List<WorkerManagerErrorInfo> getErrors() {
+        return new ArrayList<>(_errors);
+    }
+
+    synchronized int getCompletions() {
+        return _completions;
+    }
+
+    /**
+     * wait until the manager has completed {@code count} times in total
+     *
+     * @return {@code false} on a timeout
+     */
+    synchronized boolean awaitCompletions(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT);
+        long remaining;
+
+        while (_completions < count) {
+            remaining = deadline - System.nanoTime();
+
+            if(remaining <= 0)
+                return false;
+
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+
+        return true;
+    }
+
+    boolean awaitComplete() throws InterruptedException {
+        return awaitCompletions(1);
+    }
+
+    /**
+     * wait until {@code count} errors have been heard in total
+     *
+     * @return {@code false} on a timeout
+     */
+    synchronized boolean awaitErrors(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT);
+        long remaining;
+
+        while (_errors.size() < count) {
+            remaining = deadline - System.nanoTime();
+
+            if(remaining <= 0)
+                return false;
+
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+
+        return true;
+    }
+
+}
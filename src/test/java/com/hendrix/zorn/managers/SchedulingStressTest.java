@@ -0,0 +1,221 @@
+package com.hendrix.zorn.managers;
+
+import com.hendrix.zorn.Zorn;
+import com.hendrix.zorn.dispatchers.DirectCallbackDispatcher;
+import com.hendrix.zorn.workers.AbstractWorker;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * the stress case of the scheduling pass, {@code 100k} workers are admitted at once by a manager
+ * whose concurrency cap does not bound them (see {@code SchedulingStressBenchmark} for it's cost).
+ * every worker must run and complete exactly once, higher priority first and FIFO among equal
+ * priorities, and the manager must complete exactly once.
+ *
+ * @author Tomer Shalev
+ */
+public class SchedulingStressTest {
+    static final int    WORKERS     = 100000;
+    static final int    PRIORITIES  = 8;
+    static final long   TIMEOUT     = 60;
+
+    @BeforeClass
+    static public void setupDispatcher() {
+        // there is no Looper on a plain JVM
+        Zorn.defaultCallbackDispatcher = DirectCallbackDispatcher.INSTANCE;
+    }
+
+    /**
+     * runs every task on the calling thread, so every worker completes on the stack of the scheduling
+     * pass itself, and a scheduler whose stack grows per admitted worker fails with a {@code StackOverflowError}.
+     */
+    static final class InlineExecutorService extends AbstractExecutorService {
+        private volatile boolean _shutdown = false;
+
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+
+        @Override
+        public void shutdown() {
+            _shutdown = true;
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            _shutdown = true;
+
+            return Collections.emptyList();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return _shutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return _shutdown;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+
+    /**
+     * a worker that records the order of it's run
+     */
+    static final class RecordingWorker extends AbstractWorker {
+        private final Run   _run;
+        private final int   _index;
+
+        RecordingWorker(Run run, int index) {
+            super(String.valueOf(index), index % PRIORITIES);
+
+            _run    = run;
+            _index  = index;
+        }
+
+        @Override
+        public void work() {
+            _run.runs.incrementAndGet(_index);
+            _run.sequence[_run.cursor.getAndIncrement()] = _index;
+        }
+
+        @Override
+        protected void onProgress() {
+        }
+
+        @Override
+        protected void onComplete() {
+        }
+    }
+
+    /**
+     * the record of a run of a manager
+     */
+    static final class Run {
+        final AtomicIntegerArray    runs        = new AtomicIntegerArray(WORKERS);
+        final AtomicIntegerArray    progress    = new AtomicIntegerArray(WORKERS);
+        final int[]                 sequence    = new int[WORKERS];
+        final AtomicInteger         cursor      = new AtomicInteger(0);
+        final AtomicInteger         completions = new AtomicInteger(0);
+        final AtomicInteger         errors      = new AtomicInteger(0);
+        final CountDownLatch        done        = new CountDownLatch(1);
+    }
+
+    @Test
+    public void inlineExecutorRunsEveryWorkerOnceInPriorityOrder() throws InterruptedException {
+        Run run = runAll(new InlineExecutorService());
+
+        assertCompletedOnce(run);
+
+        int previous = run.sequence[0];
+        int current;
+
+        for (int ix = 1; ix < WORKERS; ix++) {
+            current = run.sequence[ix];
+
+            int priorityPrevious    = previous % PRIORITIES;
+            int priorityCurrent     = current % PRIORITIES;
+
+            if(priorityCurrent > priorityPrevious)
+                fail("worker " + current + " of priority " + priorityCurrent + " ran after worker "
+                     + previous + " of priority " + priorityPrevious);
+
+            if(priorityCurrent == priorityPrevious && current < previous)
+                fail("worker " + current + " ran after worker " + previous + " of the same priority");
+
+            previous = current;
+        }
+    }
+
+    @Test
+    public void poolRunsEveryWorkerOnce() throws InterruptedException {
+        ExecutorService es = Executors.newFixedThreadPool(4);
+
+        try {
+            assertCompletedOnce(runAll(es));
+        } finally {
+            es.shutdownNow();
+        }
+    }
+
+    private Run runAll(ExecutorService es) throws InterruptedException {
+        final Run                   run     = new Run();
+        PriorityWorkerManager       manager = new PriorityWorkerManager("stress");
+        List<RecordingWorker>       workers = new ArrayList<>(WORKERS);
+
+        for (int ix = 0; ix < WORKERS; ix++) {
+            workers.add(new RecordingWorker(run, ix));
+        }
+
+        manager.getStatusInfo().flagTraceLog = false;
+        manager.setExecutorService(es);
+        manager.setMaxConcurrency(WORKERS);
+        manager.setRetentionPolicy(RetentionPolicy.none());
+        manager.setCallbackDispatcher(DirectCallbackDispatcher.INSTANCE);
+        manager.setListener(new WorkerManagerObserver() {
+            @Override
+            public void onComplete(IWorkerManager wm) {
+                run.completions.incrementAndGet();
+                run.done.countDown();
+            }
+
+            @Override
+            public void onProgress(String id) {
+                run.progress.incrementAndGet(Integer.parseInt(id));
+            }
+
+            @Override
+            public void onError(WorkerManagerErrorInfo err) {
+                run.errors.incrementAndGet();
+            }
+        });
+
+        manager.enqueueAll(workers);
+
+        try {
+            manager.start();
+
+            assertTrue("the manager did not complete: " + manager + ", ran " + run.cursor + " workers",
+                       run.done.await(TIMEOUT, TimeUnit.SECONDS));
+        } finally {
+            manager.stop();
+            manager.dispose();
+        }
+
+        return run;
+    }
+
+    private void assertCompletedOnce(Run run) {
+        assertEquals("workers ran", WORKERS, run.cursor.get());
+        assertEquals("errors", 0, run.errors.get());
+        assertEquals("manager completions", 1, run.completions.get());
+
+        for (int ix = 0; ix < WORKERS; ix++) {
+            assertEquals("runs of worker " + ix, 1, run.runs.get(ix));
+            assertEquals("progress of worker " + ix, 1, run.progress.get(ix));
+        }
+    }
+
+}
@@ -0,0 +1,99 @@
+package com.hendrix.zorn.managers;
+
+import com.hendrix.zorn.dispatchers.DirectCallbackDispatcher;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * a stopped manager, that keeps track of it's stopped workers only until they leave their threads.
+ *
+ * @author Tomer Shalev
+ */
+public class StopTest {
+    static final long TIMEOUT = 10000;
+
+    /**
+     * a worker that ignores the interrupt of {@code stop()}, until it is released
+     */
+    static final class StubbornWorker extends TestWorker {
+        final CountDownLatch release = new CountDownLatch(1);
+
+        StubbornWorker(String id) {
+            super(id, null);
+        }
+
+        @Override
+        public void work() {
+            super.work();
+
+            while (true) {
+                try {
+                    release.await();
+
+                    return;
+                } catch (InterruptedException ignored) {
+                }
+            }
+        }
+    }
+
+    private PriorityWorkerManager build() {
+        PriorityWorkerManager pm = new PriorityWorkerManager("stopped");
+
+        pm.getStatusInfo().flagTraceLog = false;
+        pm.setCallbackDispatcher(DirectCallbackDispatcher.INSTANCE);
+
+        return pm;
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void stoppedWorkerIsForgottenWhenItLeavesItsThread() throws InterruptedException {
+        PriorityWorkerManager pm    = build();
+        StubbornWorker worker       = new StubbornWorker("stubborn");
+
+        pm.enqueue(worker);
+        pm.start();
+        worker.awaitStarted();
+        pm.stop();
+
+        assertEquals(1, pm.sizeStoppedWorkers());
+
+        worker.release.countDown();
+
+        // nobody waits for termination, the worker is forgotten by itself
+        while (pm.sizeStoppedWorkers() > 0) {
+            Thread.sleep(1);
+        }
+
+        assertTrue(pm.awaitTermination(0, TimeUnit.NANOSECONDS));
+
+        pm.dispose();
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void interruptedWorkerIsAwaitedAndPendingOneIsDrained() throws InterruptedException {
+        PriorityWorkerManager pm    = build();
+        CountDownLatch gate         = new CountDownLatch(1);
+        TestWorker blocker          = new TestWorker("blocker", null).gated(gate);
+
+        pm.setMaxConcurrency(1);
+        pm.enqueue(blocker);
+        pm.enqueue(new TestWorker("pending", null));
+        pm.start();
+        blocker.awaitStarted();
+        pm.stop();
+
+        // the interrupted blocker leaves it's thread, the pending worker was drained
+        assertTrue(pm.awaitTermination(TIMEOUT, TimeUnit.MILLISECONDS));
+        assertEquals(0, pm.sizeStoppedWorkers());
+
+        pm.dispose();
+    }
+
+}
@@ -0,0 +1,110 @@
+package com.hendrix.zorn.managers;
+
+import com.hendrix.zorn.Zorn;
+import com.hendrix.zorn.dispatchers.DirectCallbackDispatcher;
+import com.hendrix.zorn.workers.AbstractWorker;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * a worker for tests. it appends it's id to a shared log when it succeeds, can fail a number
+ * of times before it succeeds, and can be held at the start of it's work by a gate.
+ *
+ * @author Tomer Shalev
+ */
+class TestWorker extends AbstractWorker {
+
+    static {
+        // there is no Looper on a plain JVM
+        Zorn.defaultCallbackDispatcher = DirectCallbackDispatcher.INSTANCE;
+    }
+
+    private final List<String>          _log;
+    private final AtomicInteger         _runs       = new AtomicInteger(0);
+    private final CountDownLatch        _started    = new CountDownLatch(1);
+
+    private volatile int                _failures   = 0;
+    private volatile CountDownLatch     _gate       = null;
+
+    TestWorker(String id, int priorityKey, List<String> log) {
+        super(id, priorityKey);
+
+        _log = log;
+    }
+
+    TestWorker(String id, List<String> log) {
+        this(id, 0, log);
+    }
+
+    /**
+     * @param times the number of runs that throw before the worker succeeds
+     *
+     * @return this worker
+     */
+    TestWorker failing(int times) {
+        _failures = times;
+
+        return this;
+    }
+
+    /**
+     * @param gate a gate the work waits on
+     *
+     * @return this worker
+     */
+    TestWorker gated(CountDownLatch gate) {
+        _gate = gate;
+
+        return this;
+    }
+
+    /**
+     * @return the number of runs, successful or not
+     */
+    int getRuns() {
+        return _runs.get();
+    }
+
+    /**
+     * wait until the work has started
+     */
+    void awaitStarted() throws InterruptedException {
+        _started.await();
+    }
+
+    @Override
+    public void work() {
+        _runs.incrementAndGet();
+        _started.countDown();
+
+        CountDownLatch gate = _gate;
+
+        if(gate != null) {
+            try {
+                gate.await();
+            } catch (InterruptedException exc) {
+                throw new IllegalStateException("worker " + getId() + " was interrupted", exc);
+            }
+        }
+
+        if(_failures > 0) {
+            _failures -= 1;
+
+            throw new IllegalStateException("worker " + getId() + " has failed");
+        }
+
+        if(_log != null)
+            _log.add(getId());
+    }
+
+    @Override
+    protected void onProgress() {
+    }
+
+    @Override
+    protected void onComplete() {
+    }
+
+}
@@ -0,0 +1,160 @@
+package com.hendrix.zorn.managers;
+
+import com.hendrix.zorn.dispatchers.DirectCallbackDispatcher;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * workers and edges that are added to a {@link TopologicalWorkerManager} after it was built,
+ * also while it is running, and keep the topological order.
+ *
+ * @author Tomer Shalev
+ */
+public class TopologicalWorkerManagerTest {
+    static final long TIMEOUT = 10000;
+
+    private final List<String>      _log        = Collections.synchronizedList(new ArrayList<String>());
+    private final RecordingObserver _observer   = new RecordingObserver();
+
+    private TopologicalWorkerManager build(TopologicalWorkerManager.Builder builder) {
+        TopologicalWorkerManager tm = builder.id("topological").listener(_observer).build();
+
+        tm.getStatusInfo().flagTraceLog = false;
+        tm.setCallbackDispatcher(DirectCallbackDispatcher.INSTANCE);
+
+        return tm;
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void selfEdgeOfNewWorkerIsRejected() throws InterruptedException {
+        TestWorker a                = new TestWorker("a", _log);
+        TestWorker b                = new TestWorker("b", _log);
+        TestWorker x                = new TestWorker("x", _log);
+        TopologicalWorkerManager tm = build(new TopologicalWorkerManager.Builder().before(a, b));
+
+        try {
+            tm.addEdge(x, x);
+            fail("a self edge was accepted");
+        } catch (IllegalArgumentException expected) {
+        }
+
+        tm.start();
+
+        assertTrue(_observer.awaitComplete());
+        assertEquals(Arrays.asList("a", "b"), _log);
+        assertEquals(0, x.getRuns());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void selfEdgeOfPendingWorkerIsRejectedWhileRunning() throws InterruptedException {
+        CountDownLatch gate         = new CountDownLatch(1);
+        TestWorker a                = new TestWorker("a", _log).gated(gate);
+        TestWorker b                = new TestWorker("b", _log);
+        TopologicalWorkerManager tm = build(new TopologicalWorkerManager.Builder().before(a, b));
+
+        tm.start();
+        a.awaitStarted();
+
+        try {
+            tm.addEdge(b, b);
+            fail("a self edge was accepted");
+        } catch (IllegalArgumentException expected) {
+        }
+
+        gate.countDown();
+
+        assertTrue(_observer.awaitComplete());
+        assertEquals(Arrays.asList("a", "b"), _log);
+        assertEquals(1, b.getRuns());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void edgeAddedWhileRunningReordersPendingWorkers() throws InterruptedException {
+        CountDownLatch gate         = new CountDownLatch(1);
+        TestWorker a                = new TestWorker("a", _log).gated(gate);
+        TestWorker b                = new TestWorker("b", _log);
+        TestWorker c                = new TestWorker("c", _log);
+        TopologicalWorkerManager tm = build(new TopologicalWorkerManager.Builder().before(a, b).before(a, c));
+
+        tm.start();
+        a.awaitStarted();
+
+        // c is ordered after b, the edge puts it before b
+        tm.addEdge(c, b);
+
+        gate.countDown();
+
+        assertTrue(_observer.awaitComplete());
+        assertEquals(Arrays.asList("a", "c", "b"), _log);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void edgeThatClosesCycleIsRejectedAndLeavesManagerUnchanged() throws InterruptedException {
+        TestWorker a                = new TestWorker("a", _log);
+        TestWorker b                = new TestWorker("b", _log);
+        TestWorker c                = new TestWorker("c", _log);
+        TopologicalWorkerManager tm = build(new TopologicalWorkerManager.Builder().before(a, b).before(b, c));
+
+        try {
+            tm.addEdge(c, a);
+            fail("an edge that closes a cycle was accepted");
+        } catch (IllegalArgumentException expected) {
+        }
+
+        tm.start();
+
+        assertTrue(_observer.awaitComplete());
+        assertEquals(Arrays.asList("a", "b", "c"), _log);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void edgeFromCompletedWorkerIsSatisfied() throws InterruptedException {
+        TestWorker a                = new TestWorker("a", _log);
+        TestWorker b                = new TestWorker("b", _log);
+        TopologicalWorkerManager tm = build(new TopologicalWorkerManager.Builder().before(a, b));
+
+        tm.start();
+
+        assertTrue(_observer.awaitComplete());
+
+        tm.addEdge(a, new TestWorker("late", _log));
+
+        assertTrue(_observer.awaitCompletions(2));
+        assertEquals(Arrays.asList("a", "b", "late"), _log);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void edgeFromEvictedWorkerRunsItAgain() throws InterruptedException {
+        TestWorker a                = new TestWorker("a", _log);
+        TestWorker b                = new TestWorker("b", _log);
+        TopologicalWorkerManager tm = build(new TopologicalWorkerManager.Builder().before(a, b));
+
+        tm.setRetentionPolicy(RetentionPolicy.lastN(1));
+        tm.start();
+
+        assertTrue(_observer.awaitComplete());
+
+        // b is retained, a was evicted when b completed
+        tm.addEdge(b, new TestWorker("late", _log));
+
+        assertTrue(_observer.awaitCompletions(2));
+
+        tm.addEdge(a, new TestWorker("later", _log));
+
+        assertTrue(_observer.awaitCompletions(3));
+        assertEquals(Arrays.asList("a", "b", "late", "a", "later"), _log);
+        assertEquals(2, a.getRuns());
+        assertEquals(1, b.getRuns());
+    }
+
+}
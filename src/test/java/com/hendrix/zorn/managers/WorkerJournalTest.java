@@ -0,0 +1,238 @@
+package com.hendrix.zorn.managers;
+
+import com.hendrix.zorn.dispatchers.DirectCallbackDispatcher;
+import com.hendrix.zorn.interfaces.IPersistable;
+import com.hendrix.zorn.workers.IWorker;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * a {@link WorkerJournal} that replays the unfinished workers when it is opened again, stops at a
+ * torn record, and compacts it's dead records away, also as the journal of a manager.
+ *
+ * @author Tomer Shalev
+ */
+public class WorkerJournalTest {
+    static final long TIMEOUT = 10000;
+
+    @Rule
+    public TemporaryFolder _folder = new TemporaryFolder();
+
+    private final List<String>      _log        = Collections.synchronizedList(new ArrayList<String>());
+
+    /**
+     * a worker that is written into the journal by it's id and priority
+     */
+    static final class JournaledWorker extends TestWorker implements IPersistable {
+        static final String TYPE = "journaled";
+
+        JournaledWorker(String id, int priorityKey, List<String> log) {
+            super(id, priorityKey, log);
+        }
+
+        @Override
+        public String getPersistentType() {
+            return TYPE;
+        }
+
+        @Override
+        public void writeTo(DataOutput out) throws IOException {
+            out.writeUTF(getId());
+            out.writeInt(getPriority());
+        }
+    }
+
+    private final WorkerJournal.Decoder _decoder = new WorkerJournal.Decoder() {
+        @Override
+        public IWorker decode(String type, DataInput in) throws IOException {
+            if(!JournaledWorker.TYPE.equals(type))
+                throw new IOException("unknown type " + type + "!!");
+
+            return new JournaledWorker(in.readUTF(), in.readInt(), _log);
+        }
+    };
+
+    /**
+     * compact on the thread that checkpoints
+     */
+    static final Executor DIRECT = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    private JournaledWorker worker(String id) {
+        return new JournaledWorker(id, 0, _log);
+    }
+
+    static private List<String> idsOf(List<IWorker> workers) {
+        ArrayList<String> ids = new ArrayList<>();
+
+        for (IWorker worker : workers) {
+            ids.add(worker.getId());
+        }
+
+        return ids;
+    }
+
+    @Test
+    public void replayRecoversTheUnfinishedWorkersInOrder() throws IOException {
+        File file               = _folder.newFile("replay.journal");
+        WorkerJournal journal   = WorkerJournal.open(file, _decoder);
+        JournaledWorker b       = worker("b");
+        JournaledWorker d       = worker("d");
+
+        journal.append(new JournaledWorker("a", 7, _log));
+        journal.append(b);
+        journal.append(worker("c"));
+        journal.append(d);
+        journal.complete(b);
+        journal.fail(d);
+        journal.close();
+
+        journal                 = WorkerJournal.open(file, _decoder);
+
+        List<IWorker> recovered = journal.getRecoveredWorkers();
+
+        assertEquals(Arrays.asList("a", "c"), idsOf(recovered));
+        assertEquals(7, recovered.get(0).getPriority());
+        assertEquals(2, journal.size());
+
+        journal.close();
+    }
+
+    @Test
+    public void tornRecordEndsTheReplay() throws IOException {
+        File file               = _folder.newFile("torn.journal");
+        WorkerJournal journal   = WorkerJournal.open(file, _decoder);
+
+        journal.append(worker("a"));
+        journal.append(worker("b"));
+
+        int end                 = journal.sizeBytes();
+
+        journal.close();
+
+        // a crash in the middle of the record of b
+        RandomAccessFile raf    = new RandomAccessFile(file, "rw");
+
+        raf.seek(end - 1);
+
+        int last                = raf.read();
+
+        raf.seek(end - 1);
+        raf.write(last ^ 0xFF);
+        raf.close();
+
+        journal                 = WorkerJournal.open(file, _decoder);
+
+        assertEquals(Arrays.asList("a"), idsOf(journal.getRecoveredWorkers()));
+
+        // the torn record is overwritten by the next one
+        journal.append(worker("c"));
+        journal.close();
+
+        journal                 = WorkerJournal.open(file, _decoder);
+
+        assertEquals(Arrays.asList("a", "c"), idsOf(journal.getRecoveredWorkers()));
+
+        journal.close();
+    }
+
+    @Test
+    public void compactionKeepsTheLiveWorkers() throws IOException {
+        File file               = _folder.newFile("compact.journal");
+        WorkerJournal journal   = WorkerJournal.open(file, _decoder);
+        JournaledWorker[] w     = new JournaledWorker[10];
+
+        journal.setCompactionThreshold(0);
+        journal.setCompactionExecutor(DIRECT);
+
+        for (int ix = 0; ix < w.length; ix++) {
+            journal.append(w[ix] = worker("w" + ix));
+        }
+
+        int before              = journal.sizeBytes();
+
+        for (int ix = 0; ix < 6; ix++) {
+            journal.complete(w[ix]);
+        }
+
+        assertTrue(journal.getNumCompactions() > 0);
+        assertTrue(journal.sizeBytes() < before);
+        assertEquals(4, journal.size());
+
+        // the offsets of the live records have moved, a checkpoint still finds them
+        journal.complete(w[7]);
+        journal.close();
+
+        journal                 = WorkerJournal.open(file, _decoder);
+
+        assertEquals(Arrays.asList("w6", "w8", "w9"), idsOf(journal.getRecoveredWorkers()));
+
+        journal.close();
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void managerJournalsItsPendingWorkers() throws IOException, InterruptedException {
+        File file               = _folder.newFile("manager.journal");
+        WorkerJournal journal   = WorkerJournal.open(file, _decoder);
+        PriorityWorkerManager pm = new PriorityWorkerManager("journaled");
+
+        pm.getStatusInfo().flagTraceLog = false;
+        pm.setCallbackDispatcher(DirectCallbackDispatcher.INSTANCE);
+        pm.setJournal(journal);
+
+        // the manager is not started, the process dies with it's work pending
+        pm.enqueue(worker("a"));
+        pm.enqueue(worker("b"));
+        pm.dispose();
+        journal.close();
+
+        journal                 = WorkerJournal.open(file, _decoder);
+
+        RecordingObserver observer = new RecordingObserver();
+
+        pm                      = new PriorityWorkerManager("recovered");
+
+        pm.getStatusInfo().flagTraceLog = false;
+        pm.setCallbackDispatcher(DirectCallbackDispatcher.INSTANCE);
+        pm.setListener(observer);
+        pm.setMaxConcurrency(1);
+        pm.setJournal(journal);
+        pm.enqueueAll(journal.getRecoveredWorkers());
+        pm.start();
+
+        assertTrue(observer.awaitComplete());
+        assertEquals(Arrays.asList("a", "b"), _log);
+        assertEquals(0, journal.size());
+
+        pm.dispose();
+        journal.close();
+
+        // every worker has completed, nothing is replayed
+        journal                 = WorkerJournal.open(file, _decoder);
+
+        assertTrue(journal.getRecoveredWorkers().isEmpty());
+
+        journal.close();
+    }
+
+}